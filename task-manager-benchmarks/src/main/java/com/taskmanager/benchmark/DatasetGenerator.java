@@ -0,0 +1,364 @@
+package com.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Générateur de tâches reproductible : la même graine et les mêmes réglages donnent
+ * toujours les mêmes tâches
+ *
+ * Les répartitions des priorités, des statuts et des échéances, ainsi que la longueur
+ * des titres et des descriptions (en mots, texte français), sont réglables. Les réglages
+ * s'appliquent par copie, comme {@link com.taskmanager.service.StorageSettings}.
+ *
+ * En ligne de commande, écrit un fichier tasks.json chargeable par l'application :
+ * <pre>
+ * java -cp benchmarks.jar com.taskmanager.benchmark.DatasetGenerator 100000 tasks.json \
+ *     --seed=7 --priorities=2,5,3 --statuses=5,2,3 --no-due-date=0.25 --due-days=-200,200 \
+ *     --title-words=3,8 --description-words=0,40
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+
+    // Date fixe : les requêtes « en retard » ou « aujourd'hui » gardent la même sélectivité
+    static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 6, 1);
+
+    private static final String[] VERBS = {
+            "Préparer", "Envoyer", "Réviser", "Valider", "Planifier", "Corriger", "Rédiger",
+            "Appeler", "Analyser", "Archiver", "Mettre à jour", "Présenter", "Relancer",
+            "Organiser", "Vérifier", "Finaliser", "Déployer", "Documenter", "Négocier", "Signer"
+    };
+    private static final String[] NOUNS = {
+            "le rapport", "le budget", "la réunion", "le client", "la facture", "le contrat",
+            "le sprint", "la présentation", "l'équipe", "le projet", "la maquette", "le planning",
+            "le devis", "les tests", "la livraison", "le fournisseur", "la revue de code",
+            "le tableau de bord", "la migration", "l'audit", "la formation", "le recrutement"
+    };
+    private static final String[] ADJECTIVES = {
+            "mensuel", "trimestriel", "annuel", "urgent", "prioritaire", "interne", "final",
+            "provisoire", "détaillé", "révisé", "commercial", "technique", "juridique"
+    };
+    private static final String[] COMPLEMENTS = {
+            "pour la direction", "avec le service client", "avant la fin du mois",
+            "du département marketing", "pour l'équipe produit", "de la filiale de Lyon",
+            "avec les partenaires", "pour le comité de pilotage", "du site de Bordeaux",
+            "après validation juridique", "en lien avec la comptabilité"
+    };
+    private static final String[] WORDS = {
+            "suivi", "échéance", "données", "chiffres", "document", "validation", "retour",
+            "équipe", "responsable", "délai", "priorité", "version", "correction", "analyse",
+            "réunion", "objectif", "indicateur", "budget", "risque", "planning", "besoin",
+            "client", "fournisseur", "commande", "livrable", "périmètre", "hypothèse",
+            "préparer", "envoyer", "vérifier", "compléter", "intégrer", "relire", "confirmer",
+            "avec", "pour", "dans", "avant", "après", "selon", "sans", "le", "la", "les",
+            "un", "une", "des", "du", "et", "ou", "mais", "donc", "très", "bien", "encore",
+            "nouveau", "précédent", "complet", "rapide", "important", "prévu", "attendu"
+    };
+
+    private long seed = DEFAULT_SEED;
+    private LocalDate referenceDate = REFERENCE_DATE;
+    private double[] priorityWeights = {1, 1, 1};
+    private double[] statusWeights = {1, 1, 1};
+    private double noDueDateRatio = 0.25;
+    private int dueDateFromDays = -200;
+    private int dueDateToDays = 200;
+    private int minTitleWords = 3;
+    private int maxTitleWords = 8;
+    private int minDescriptionWords = 0;
+    private int maxDescriptionWords = 40;
+
+    private DatasetGenerator copy() {
+        DatasetGenerator copy = new DatasetGenerator();
+        copy.seed = seed;
+        copy.referenceDate = referenceDate;
+        copy.priorityWeights = priorityWeights;
+        copy.statusWeights = statusWeights;
+        copy.noDueDateRatio = noDueDateRatio;
+        copy.dueDateFromDays = dueDateFromDays;
+        copy.dueDateToDays = dueDateToDays;
+        copy.minTitleWords = minTitleWords;
+        copy.maxTitleWords = maxTitleWords;
+        copy.minDescriptionWords = minDescriptionWords;
+        copy.maxDescriptionWords = maxDescriptionWords;
+        return copy;
+    }
+
+    public DatasetGenerator withSeed(long seed) {
+        DatasetGenerator copy = copy();
+        copy.seed = seed;
+        return copy;
+    }
+
+    /**
+     * Date autour de laquelle sont placées les échéances et les dates de création
+     */
+    public DatasetGenerator withReferenceDate(LocalDate referenceDate) {
+        DatasetGenerator copy = copy();
+        copy.referenceDate = referenceDate;
+        return copy;
+    }
+
+    /**
+     * Poids relatifs des priorités, dans l'ordre LOW, MEDIUM, HIGH
+     */
+    public DatasetGenerator withPriorityWeights(double... weights) {
+        DatasetGenerator copy = copy();
+        copy.priorityWeights = checkWeights(weights, Task.Priority.values().length);
+        return copy;
+    }
+
+    /**
+     * Poids relatifs des statuts, dans l'ordre TODO, IN_PROGRESS, COMPLETED
+     */
+    public DatasetGenerator withStatusWeights(double... weights) {
+        DatasetGenerator copy = copy();
+        copy.statusWeights = checkWeights(weights, Task.Status.values().length);
+        return copy;
+    }
+
+    /**
+     * @param noDueDateRatio part des tâches sans échéance (0 à 1)
+     * @param fromDays       première échéance possible, en jours depuis la date de référence
+     * @param toDays         dernière échéance possible
+     */
+    public DatasetGenerator withDueDates(double noDueDateRatio, int fromDays, int toDays) {
+        if (noDueDateRatio < 0 || noDueDateRatio > 1 || fromDays > toDays) {
+            throw new IllegalArgumentException("Échéances invalides: " + noDueDateRatio + ", " + fromDays + ".." + toDays);
+        }
+        DatasetGenerator copy = copy();
+        copy.noDueDateRatio = noDueDateRatio;
+        copy.dueDateFromDays = fromDays;
+        copy.dueDateToDays = toDays;
+        return copy;
+    }
+
+    public DatasetGenerator withTitleWords(int min, int max) {
+        checkRange(min, max, 1);
+        DatasetGenerator copy = copy();
+        copy.minTitleWords = min;
+        copy.maxTitleWords = max;
+        return copy;
+    }
+
+    public DatasetGenerator withDescriptionWords(int min, int max) {
+        checkRange(min, max, 0);
+        DatasetGenerator copy = copy();
+        copy.minDescriptionWords = min;
+        copy.maxDescriptionWords = max;
+        return copy;
+    }
+
+    /**
+     * Tâches numérotées de 1 à count
+     */
+    public List<Task> generate(int count) {
+        Random random = new Random(seed);
+        Task.Priority[] priorities = Task.Priority.values();
+        Task.Status[] statuses = Task.Status.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = title(random);
+            String description = description(random);
+            Task.Priority priority = priorities[pick(priorityWeights, random)];
+            Task.Status status = statuses[pick(statusWeights, random)];
+            LocalDate dueDate = random.nextDouble() < noDueDateRatio ? null
+                    : referenceDate.plusDays(dueDateFromDays + random.nextInt(dueDateToDays - dueDateFromDays + 1));
+
+            Task task = new Task(i + 1, title, description, priority, status, dueDate);
+            LocalDateTime createdAt = referenceDate.atStartOfDay().minusSeconds(random.nextInt(30_000_000));
+            task.setCreatedAt(createdAt);
+            if (status == Task.Status.COMPLETED) {
+                task.setCompletedAt(createdAt.plusMinutes(30 + random.nextInt(60 * 24 * 20)));
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Verbe et objet, puis un adjectif, des compléments et un numéro selon la longueur tirée
+     */
+    private String title(Random random) {
+        int target = between(minTitleWords, maxTitleWords, random);
+        StringBuilder title = new StringBuilder(VERBS[random.nextInt(VERBS.length)]);
+        if (target > 1) {
+            title.append(' ').append(NOUNS[random.nextInt(NOUNS.length)]);
+        }
+        if (wordCount(title) < target && random.nextBoolean()) {
+            title.append(' ').append(ADJECTIVES[random.nextInt(ADJECTIVES.length)]);
+        }
+        while (wordCount(title) + 2 < target) {
+            title.append(' ').append(COMPLEMENTS[random.nextInt(COMPLEMENTS.length)]);
+        }
+        if (wordCount(title) < target) {
+            title.append(" n°").append(random.nextInt(10_000));
+        }
+        return title.toString();
+    }
+
+    /**
+     * Phrases de quatre à douze mots, chacune commençant par une majuscule
+     */
+    private String description(Random random) {
+        int target = between(minDescriptionWords, maxDescriptionWords, random);
+        StringBuilder description = new StringBuilder();
+        int sentenceLength = 0;
+        int sentenceTarget = between(4, 12, random);
+        for (int i = 0; i < target; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (sentenceLength == 0) {
+                if (description.length() > 0) {
+                    description.append(' ');
+                }
+                description.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                description.append(' ').append(word);
+            }
+            if (++sentenceLength == sentenceTarget || i == target - 1) {
+                description.append('.');
+                sentenceLength = 0;
+                sentenceTarget = between(4, 12, random);
+            }
+        }
+        return description.toString();
+    }
+
+    private static int wordCount(CharSequence text) {
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int between(int min, int max, Random random) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private static int pick(double[] weights, Random random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double value = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static double[] checkWeights(double[] weights, int expected) {
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Poids négatif: " + weight);
+            }
+            total += weight;
+        }
+        if (weights.length != expected || total <= 0) {
+            throw new IllegalArgumentException("Il faut " + expected + " poids dont au moins un positif");
+        }
+        return weights.clone();
+    }
+
+    private static void checkRange(int min, int max, int lowest) {
+        if (min < lowest || min > max) {
+            throw new IllegalArgumentException("Intervalle invalide: " + min + ".." + max);
+        }
+    }
+
+    /**
+     * Écrit les tâches au format de l'application (tableau JSON)
+     */
+    public static Path writeJson(List<Task> tasks, Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.writeValue(file.toFile(), tasks);
+        return file;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetGenerator <nombre> <fichier.json> [--seed=N] [--priorities=l,m,h]"
+                    + " [--statuses=t,p,c] [--no-due-date=ratio] [--due-days=de,à]"
+                    + " [--title-words=min,max] [--description-words=min,max]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[0]);
+        Path file = Paths.get(args[1]);
+        DatasetGenerator generator = new DatasetGenerator();
+        double noDueDate = generator.noDueDateRatio;
+        int[] dueDays = {generator.dueDateFromDays, generator.dueDateToDays};
+        for (int i = 2; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--seed":
+                    generator = generator.withSeed(Long.parseLong(value));
+                    break;
+                case "--priorities":
+                    generator = generator.withPriorityWeights(doubles(value));
+                    break;
+                case "--statuses":
+                    generator = generator.withStatusWeights(doubles(value));
+                    break;
+                case "--no-due-date":
+                    noDueDate = Double.parseDouble(value);
+                    break;
+                case "--due-days":
+                    dueDays = ints(value);
+                    break;
+                case "--title-words":
+                    int[] title = ints(value);
+                    generator = generator.withTitleWords(title[0], title[1]);
+                    break;
+                case "--description-words":
+                    int[] description = ints(value);
+                    generator = generator.withDescriptionWords(description[0], description[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + args[i]);
+            }
+        }
+        generator = generator.withDueDates(noDueDate, dueDays[0], dueDays[1]);
+
+        long start = System.nanoTime();
+        writeJson(generator.generate(count), file);
+        System.out.printf("%d tâches écrites dans %s en %d ms%n", count, file,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static double[] doubles(String values) {
+        String[] parts = values.split(",");
+        double[] result = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Double.parseDouble(parts[i].trim());
+        }
+        return result;
+    }
+
+    private static int[] ints(String values) {
+        String[] parts = values.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Deux valeurs attendues: " + values);
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+}
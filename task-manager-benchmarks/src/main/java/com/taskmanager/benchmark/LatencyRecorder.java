@@ -0,0 +1,49 @@
+package com.taskmanager.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Durées mesurées pour une opération, conservées toutes pour des percentiles exacts
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long total;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        total += nanos;
+    }
+
+    int count() {
+        return count;
+    }
+
+    double meanNanos() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    long totalNanos() {
+        return total;
+    }
+
+    /**
+     * Percentiles au rang le plus proche, dans l'ordre demandé
+     *
+     * @param fractions par exemple 0.5, 0.99, 0.999 ; 1.0 donne le maximum
+     */
+    long[] percentiles(double... fractions) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long[] result = new long[fractions.length];
+        for (int i = 0; i < fractions.length && count > 0; i++) {
+            int rank = (int) Math.ceil(fractions[i] * count);
+            result[i] = sorted[Math.max(0, Math.min(count, rank) - 1)];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.service.SnapshotFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sauvegarde, chargement et import, dans les deux formats d'instantané
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistenceBenchmark {
+
+    public static class SnapshotState extends ServiceState {
+        @Param({"JSON", "BINARY"})
+        public SnapshotFormat format;
+
+        @Override
+        SnapshotFormat snapshotFormat() {
+            return format;
+        }
+
+        @Setup(Level.Trial)
+        public void writeSnapshot() {
+            // Après le remplissage de ServiceState : l'instantané à charger existe
+            service.saveTasks();
+            ui.runPending();
+            service.flush();
+        }
+    }
+
+    /**
+     * Liste vidée avant chaque import : chaque appel importe le jeu complet
+     */
+    public static class ImportState extends ServiceState {
+        @Setup(Level.Invocation)
+        public void clear() {
+            service.getTasks().clear();
+            ui.discardPending();
+        }
+    }
+
+    /**
+     * Capture de l'instantané sur le thread appelant, puis écriture complète (fsync compris)
+     */
+    @Benchmark
+    public void saveTasks(SnapshotState state) {
+        state.service.saveTasks();
+        state.ui.runPending();
+        state.service.flush();
+    }
+
+    @Benchmark
+    public int loadTasks(SnapshotState state) {
+        state.service.loadTasks();
+        return state.service.getTasks().size();
+    }
+
+    @Benchmark
+    public int importTasks(ImportState state) throws IOException {
+        state.service.importTasks(state.datasetFile.toFile());
+        return state.service.getTasks().size();
+    }
+}
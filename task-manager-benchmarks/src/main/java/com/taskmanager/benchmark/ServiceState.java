@@ -0,0 +1,93 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.SnapshotFormat;
+import com.taskmanager.service.StorageSettings;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Service rempli avec le jeu de tâches, dans un répertoire temporaire
+ *
+ * Les sauvegardes différées ne sont pas exécutées (voir {@link UiQueue#discardPending()}) :
+ * seuls les benchmarks de persistance écrivent sur le disque.
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    public TaskService service;
+    UiQueue ui;
+    Path directory;
+    Path datasetFile;
+    private int baseSize;
+    private final SplittableRandom random = new SplittableRandom(DatasetGenerator.DEFAULT_SEED);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("taskmanager-bench");
+        datasetFile = DatasetGenerator.writeJson(new DatasetGenerator().generate(size),
+                directory.resolve("dataset.json"));
+        ui = new UiQueue();
+        service = new TaskService(StorageSettings.defaults()
+                .withDataFile(directory.resolve(dataFileName()))
+                .withSnapshotFormat(snapshotFormat()), ui);
+        service.importTasks(datasetFile.toFile());
+        ui.discardPending();
+        baseSize = service.getTasks().size();
+    }
+
+    SnapshotFormat snapshotFormat() {
+        return SnapshotFormat.JSON;
+    }
+
+    private String dataFileName() {
+        return snapshotFormat() == SnapshotFormat.BINARY ? "tasks.bin" : "tasks.json";
+    }
+
+    /**
+     * Retire les tâches ajoutées pendant l'itération : la taille reste celle du paramètre
+     */
+    @TearDown(Level.Iteration)
+    public void trim() {
+        List<Task> tasks = service.getTasks();
+        if (tasks.size() > baseSize) {
+            service.getTasks().remove(baseSize, tasks.size());
+        }
+        ui.discardPending();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ui.discardPending();
+        service.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    int randomId() {
+        return 1 + random.nextInt(baseSize);
+    }
+
+    Task randomTask() {
+        return service.getTasks().get(random.nextInt(baseSize));
+    }
+}
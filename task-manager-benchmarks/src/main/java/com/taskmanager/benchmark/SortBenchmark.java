@@ -0,0 +1,38 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tri d'une copie des tâches, pour chaque critère de sortTasks
+ *
+ * Les tris sur un million de tâches durent plusieurs secondes : temps moyen par tri.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+    @Param({"title", "priority", "dueDate", "status", "created"})
+    public String criterion;
+
+    @Benchmark
+    public List<Task> sortTasks(ServiceState state) {
+        return state.service.sortTasks(criterion);
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.TaskFilter;
+import com.taskmanager.service.TaskQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opérations courantes du service, en débit (opérations par seconde)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SearchQuery {
+        // Requête large, requête sélective, requête sans résultat
+        @Param({"rapport", "n°4217", "zzz"})
+        public String query;
+    }
+
+    @Benchmark
+    public Task addTask(ServiceState state) {
+        Task task = new Task("Nouvelle tâche", "Ajoutée par le benchmark");
+        state.service.addTask(task);
+        return task;
+    }
+
+    @Benchmark
+    public Task updateTask(ServiceState state) {
+        Task updated = state.randomTask().clone();
+        updated.setTitle(updated.getTitle().endsWith("*") ? updated.getTitle() + "+" : updated.getTitle() + "*");
+        state.service.updateTask(updated);
+        return updated;
+    }
+
+    /**
+     * Modification sur place d'une tâche suivie par le service (index mis à jour par l'observateur)
+     */
+    @Benchmark
+    public Task setTaskStatus(ServiceState state) {
+        Task task = state.randomTask();
+        Task.Status[] statuses = Task.Status.values();
+        task.setStatus(statuses[(task.getStatus().ordinal() + 1) % statuses.length]);
+        return task;
+    }
+
+    @Benchmark
+    public Task findTaskById(ServiceState state) {
+        return state.service.findTaskById(state.randomId());
+    }
+
+    @Benchmark
+    public List<Task> searchTasks(ServiceState state, SearchQuery search) {
+        return state.service.searchTasks(search.query);
+    }
+
+    @Benchmark
+    public void countTasksByStatus(ServiceState state, Blackhole blackhole) {
+        for (Task.Status status : Task.Status.values()) {
+            blackhole.consume(state.service.countTasksByStatus(status));
+        }
+    }
+
+    @Benchmark
+    public List<Task> getOverdueTasks(ServiceState state) {
+        return state.service.getOverdueTasks();
+    }
+
+    /**
+     * Filtre de l'interface combiné à la recherche : « à faire ET en retard ET texte »
+     */
+    @Benchmark
+    public List<Task> composedQuery(ServiceState state, SearchQuery search) {
+        TaskFilter filter = TaskFilter.status(Task.Status.TODO)
+                .and(TaskFilter.overdue(LocalDate.now()))
+                .and(TaskFilter.text(search.query));
+        return state.service.query(TaskQuery.all().where(filter));
+    }
+}
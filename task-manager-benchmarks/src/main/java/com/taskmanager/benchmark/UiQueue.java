@@ -0,0 +1,37 @@
+package com.taskmanager.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Tient lieu de thread de l'interface : les traitements postés par le service
+ * (capture des sauvegardes, publication des lots) attendent un appel explicite,
+ * comme entre deux impulsions JavaFX
+ *
+ * Les benchmarks tournent sur un seul thread ; la file n'est pas synchronisée.
+ */
+final class UiQueue implements Executor {
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+        pending.add(command);
+    }
+
+    void runPending() {
+        Runnable command;
+        while ((command = pending.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /**
+     * Oublie les traitements en attente : une sauvegarde demandée n'est jamais capturée,
+     * et les demandes suivantes restent regroupées avec elle
+     */
+    void discardPending() {
+        pending.clear();
+    }
+}
@@ -0,0 +1,269 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.FsyncPolicy;
+import com.taskmanager.service.StorageSettings;
+import com.taskmanager.service.TaskService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejoue un mélange d'opérations sur TaskService, sans démarrer JavaFX, et affiche
+ * les latences p50 / p99 / p999 de chaque opération
+ *
+ * Le fil principal joue le rôle du thread de l'interface : les traitements que le
+ * service y poste (capture des sauvegardes) sont exécutés toutes les 16 ms, comme à
+ * chaque impulsion JavaFX, et mesurés à part (ligne « impulsion »).
+ * <pre>
+ * java -cp benchmarks.jar com.taskmanager.benchmark.WorkloadReplay --tasks=100000 \
+ *     --mix=read=70,status=20,search=10 --operations=50000 --warmup=5000
+ * java -cp benchmarks.jar com.taskmanager.benchmark.WorkloadReplay --data=tasks.json --journal
+ * </pre>
+ */
+public final class WorkloadReplay {
+
+    /**
+     * Opérations rejouables, nommées comme dans l'option --mix
+     */
+    enum Operation {
+        READ, STATUS, SEARCH, ADD, UPDATE, DELETE, OVERDUE, COUNT, SORT;
+
+        static Operation parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Saisies typiques de la barre de recherche, y compris des mots tapés en partie
+    private static final String[] QUERIES = {
+            "rapport", "rap", "client", "budget", "réunion", "reunion", "factu", "contrat",
+            "urgent", "lyon", "n°12", "équipe", "présentation", "migration", "audit", "sprint",
+            "revue de code", "tableau", "livraison", "zzz"
+    };
+    private static final String[] SORT_CRITERIA = {"title", "priority", "dueDate", "status", "created"};
+    private static final long PULSE_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final TaskService service;
+    private final UiQueue ui;
+    private final Random random;
+    private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+    private final LatencyRecorder pulses = new LatencyRecorder();
+    private int added;
+
+    WorkloadReplay(TaskService service, UiQueue ui, long seed) {
+        this.service = service;
+        this.ui = ui;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Joue les opérations tirées selon les poids ; seules celles après l'échauffement sont mesurées
+     */
+    void run(Map<Operation, Double> mix, int warmup, int operations) {
+        Operation[] kinds = mix.keySet().toArray(new Operation[0]);
+        double[] weights = new double[kinds.length];
+        double total = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            weights[i] = mix.get(kinds[i]);
+            total += weights[i];
+        }
+
+        long lastPulse = System.nanoTime();
+        for (int i = 0; i < warmup + operations; i++) {
+            Operation operation = kinds[pick(weights, total)];
+            long start = System.nanoTime();
+            execute(operation);
+            long end = System.nanoTime();
+            if (i >= warmup) {
+                latencies.computeIfAbsent(operation, o -> new LatencyRecorder()).record(end - start);
+            }
+            if (end - lastPulse >= PULSE_NANOS) {
+                ui.runPending();
+                lastPulse = System.nanoTime();
+                if (i >= warmup) {
+                    pulses.record(lastPulse - end);
+                }
+            }
+        }
+        ui.runPending();
+    }
+
+    private int pick(double[] weights, double total) {
+        double value = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private void execute(Operation operation) {
+        List<Task> tasks = service.getTasks();
+        switch (operation) {
+            case READ:
+                service.findTaskById(1 + random.nextInt(Math.max(1, tasks.size() + added)));
+                break;
+            case STATUS: {
+                // Comme les boutons du panneau de détails : modification puis updateTask
+                Task task = randomTask(tasks);
+                if (task != null) {
+                    Task.Status[] statuses = Task.Status.values();
+                    task.setStatus(statuses[random.nextInt(statuses.length)]);
+                    service.updateTask(task);
+                }
+                break;
+            }
+            case SEARCH:
+                service.searchTasks(QUERIES[random.nextInt(QUERIES.length)]);
+                break;
+            case ADD:
+                added++;
+                service.addTask(new Task("Nouvelle tâche " + added, "Ajoutée par le rejeu"));
+                break;
+            case UPDATE: {
+                Task task = randomTask(tasks);
+                if (task != null) {
+                    Task updated = task.clone();
+                    updated.setTitle(task.getTitle() + " (modifiée)");
+                    service.updateTask(updated);
+                }
+                break;
+            }
+            case DELETE: {
+                Task task = randomTask(tasks);
+                if (task != null) {
+                    service.deleteTask(task);
+                }
+                break;
+            }
+            case OVERDUE:
+                service.getOverdueTasks();
+                break;
+            case COUNT:
+                // Rafraîchissement de la barre de statut
+                for (Task.Status status : Task.Status.values()) {
+                    service.countTasksByStatus(status);
+                }
+                break;
+            case SORT:
+                service.sortTasks(SORT_CRITERIA[random.nextInt(SORT_CRITERIA.length)]);
+                break;
+            default:
+                throw new IllegalStateException("Opération inconnue: " + operation);
+        }
+    }
+
+    private Task randomTask(List<Task> tasks) {
+        return tasks.isEmpty() ? null : tasks.get(random.nextInt(tasks.size()));
+    }
+
+    void printReport(long elapsedNanos) {
+        int total = 0;
+        for (LatencyRecorder recorder : latencies.values()) {
+            total += recorder.count();
+        }
+        System.out.printf("%d opérations en %.1f s (%.0f op/s), %d tâches%n", total, elapsedNanos / 1e9,
+                total / (elapsedNanos / 1e9), service.getTasks().size());
+        System.out.printf("%-12s %9s %10s %10s %10s %10s %10s%n",
+                "Opération", "Nombre", "Moy. µs", "p50 µs", "p99 µs", "p999 µs", "Max µs");
+        for (Map.Entry<Operation, LatencyRecorder> entry : latencies.entrySet()) {
+            printRow(entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        if (pulses.count() > 0) {
+            printRow("impulsion", pulses);
+        }
+    }
+
+    private static void printRow(String name, LatencyRecorder recorder) {
+        long[] p = recorder.percentiles(0.5, 0.99, 0.999, 1.0);
+        System.out.printf("%-12s %9d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, recorder.count(),
+                recorder.meanNanos() / 1e3, p[0] / 1e3, p[1] / 1e3, p[2] / 1e3, p[3] / 1e3);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = 100_000;
+        Path data = null;
+        int operations = 50_000;
+        int warmup = 5_000;
+        long seed = DatasetGenerator.DEFAULT_SEED;
+        boolean journal = false;
+        Map<Operation, Double> mix = parseMix("read=70,status=20,search=10");
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--tasks":
+                    taskCount = Integer.parseInt(value);
+                    break;
+                case "--data":
+                    data = Paths.get(value);
+                    break;
+                case "--operations":
+                    operations = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--journal":
+                    journal = true;
+                    break;
+                case "--mix":
+                    mix = parseMix(value);
+                    break;
+                default:
+                    System.err.println("Option inconnue: " + arg);
+                    System.err.println("Usage: WorkloadReplay [--tasks=N | --data=tasks.json] [--operations=N]"
+                            + " [--warmup=N] [--mix=read=70,status=20,search=10] [--seed=N] [--journal]");
+                    System.exit(2);
+            }
+        }
+
+        Path directory = Files.createTempDirectory("taskmanager-replay");
+        if (data == null) {
+            data = DatasetGenerator.writeJson(new DatasetGenerator().withSeed(seed).generate(taskCount),
+                    directory.resolve("dataset.json"));
+        }
+        StorageSettings settings = StorageSettings.defaults().withDataFile(directory.resolve("tasks.json"));
+        if (journal) {
+            settings = settings.withJournal(FsyncPolicy.GROUP, 5);
+        }
+        UiQueue ui = new UiQueue();
+        TaskService service = new TaskService(settings, ui);
+        service.importTasks(data.toFile());
+        ui.runPending();
+        service.flush();
+
+        WorkloadReplay replay = new WorkloadReplay(service, ui, seed);
+        System.out.println("Mélange: " + mix);
+        long start = System.nanoTime();
+        replay.run(mix, warmup, operations);
+        long elapsed = System.nanoTime() - start;
+        service.close();
+        replay.printReport(elapsed);
+    }
+
+    static Map<Operation, Double> parseMix(String value) {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.split("=", 2);
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Mélange invalide: " + value);
+            }
+            mix.put(Operation.parse(entry[0]), Double.parseDouble(entry[1]));
+        }
+        return mix;
+    }
+}
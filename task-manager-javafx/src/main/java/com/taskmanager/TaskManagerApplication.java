@@ -1,5 +1,6 @@
 package com.taskmanager;
 
+import com.taskmanager.controller.MainController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,6 +15,7 @@ public class TaskManagerApplication extends Application {
             // Charger l'interface FXML
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/MainView.fxml"));
             Parent root = loader.load();
+            MainController controller = loader.getController();
 
             // Créer la scène
             Scene scene = new Scene(root, 1200, 800);
@@ -28,6 +30,9 @@ public class TaskManagerApplication extends Application {
             primaryStage.setMinWidth(800);
             primaryStage.setMinHeight(600);
 
+            // Écrire les sauvegardes en attente à la fermeture
+            primaryStage.setOnHidden(event -> controller.shutdown());
+
             // Afficher la fenêtre
             primaryStage.show();
 
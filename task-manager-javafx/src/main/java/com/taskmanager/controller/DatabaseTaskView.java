@@ -0,0 +1,226 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.PagedTaskList;
+import com.taskmanager.service.ServiceMetrics;
+import com.taskmanager.service.SortCriterion;
+import com.taskmanager.service.TaskFilter;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskRepository;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vue de la base embarquée : la table affiche les résultats d'une requête, page par page
+ *
+ * Filtres, recherche et tri sont exécutés par la base. Lectures et écritures passent
+ * toutes par un seul thread de stockage, jamais par celui de l'interface : une lecture
+ * soumise après une écriture en voit le résultat. Les comptages par statut sont lus en
+ * une seule requête, au chargement et après chaque écriture.
+ */
+final class DatabaseTaskView implements TaskView {
+
+    // Attente des écritures en cours à la fermeture
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Opération sur le stockage, exécutée sur son thread
+     */
+    private interface StorageAction {
+        void run() throws IOException;
+    }
+
+    private final TaskRepository repository;
+    private final Listener listener;
+    private final ExecutorService storage;
+    // Soumissions du thread de l'interface ; ignorées une fois la vue fermée
+    private final Executor storageQueue;
+    private final PagedTaskList pagedTasks;
+    // Une requête par pause de frappe, pas une par caractère
+    private final PauseTransition searchDelay;
+
+    private TaskFilter filter = TaskFilter.all();
+    private String searchText = "";
+    private String typedText = "";
+    private List<SortCriterion> criteria = List.of();
+    private boolean loaded;
+    private boolean searching;
+
+    DatabaseTaskView(TaskRepository repository, long searchDebounceMillis, int pageSize, int maxPages,
+                     Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+        this.storage = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-repository");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.storageQueue = command -> {
+            if (!storage.isShutdown()) {
+                storage.execute(command);
+            }
+        };
+        this.pagedTasks = new PagedTaskList(repository, pageSize, maxPages, storageQueue, Platform::runLater,
+                new PagedTaskList.Listener() {
+                    @Override
+                    public void onRefreshed(int size) {
+                        onResults(size);
+                    }
+
+                    @Override
+                    public void onFailed(IOException error) {
+                        System.err.println("Erreur lors de la lecture des tâches: " + error.getMessage());
+                        listener.onFailed("Erreur de lecture de la base: " + error.getMessage());
+                    }
+                });
+        this.searchDelay = new PauseTransition(Duration.millis(searchDebounceMillis));
+        searchDelay.setOnFinished(e -> {
+            searchText = typedText;
+            searching = true;
+            showQuery();
+        });
+    }
+
+    @Override
+    public ObservableList<Task> getItems() {
+        return pagedTasks;
+    }
+
+    @Override
+    public void load() {
+        showQuery();
+        refreshCounts();
+    }
+
+    private void onResults(int size) {
+        if (!loaded) {
+            loaded = true;
+            listener.onLoaded(size);
+        }
+        if (searching) {
+            searching = false;
+            listener.onSearched(size);
+        }
+    }
+
+    /**
+     * Affiche les résultats de la requête courante, dans l'ordre de tri de la table
+     */
+    private void showQuery() {
+        pagedTasks.setQuery(TaskQuery.all().where(filter).withText(searchText).withSort(criteria));
+    }
+
+    @Override
+    public void setFilter(TaskFilter newFilter) {
+        filter = newFilter;
+        showQuery();
+    }
+
+    @Override
+    public void search(String text) {
+        typedText = text;
+        searchDelay.playFromStart();
+    }
+
+    @Override
+    public void sort(List<SortCriterion> newCriteria) {
+        criteria = List.copyOf(newCriteria);
+        showQuery();
+    }
+
+    @Override
+    public void add(Task task) {
+        // Copie : la tâche de l'appelant peut encore changer pendant l'écriture
+        Task copy = task.clone();
+        write(() -> repository.insert(copy), "Impossible d'ajouter la tâche: ");
+    }
+
+    @Override
+    public void save(Task task) {
+        Task copy = task.clone();
+        write(() -> repository.save(copy), "Impossible d'enregistrer la tâche: ");
+    }
+
+    @Override
+    public void delete(Task task) {
+        int id = task.getId();
+        write(() -> repository.delete(id), "Impossible de supprimer la tâche: ");
+    }
+
+    @Override
+    public void deleteAll() {
+        write(repository::deleteAll, "Impossible de supprimer les tâches: ");
+    }
+
+    /**
+     * Écrit sur le thread de stockage puis relit la page affichée et les comptages
+     */
+    private void write(StorageAction action, String failure) {
+        storageQueue.execute(() -> {
+            try {
+                action.run();
+            } catch (IOException e) {
+                Platform.runLater(() -> listener.onFailed(failure + e.getMessage()));
+            }
+        });
+        pagedTasks.refresh();
+        refreshCounts();
+    }
+
+    private void refreshCounts() {
+        storageQueue.execute(() -> {
+            try {
+                Map<Task.Status, Integer> byStatus = repository.countByStatus();
+                int total = 0;
+                for (int count : byStatus.values()) {
+                    total += count;
+                }
+                int totalTasks = total;
+                Platform.runLater(() -> listener.onCounts(totalTasks, byStatus));
+            } catch (IOException e) {
+                System.err.println("Erreur lors du comptage des tâches: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public boolean supportsFileTransfer() {
+        return false;
+    }
+
+    @Override
+    public ServiceMetrics getMetrics() {
+        return repository.getMetrics();
+    }
+
+    /**
+     * Termine les écritures en attente puis ferme la base
+     */
+    @Override
+    public void close() {
+        searchDelay.stop();
+        storage.shutdown();
+        try {
+            if (!storage.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Erreur lors de la fermeture de la base: écritures toujours en cours");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            repository.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture de la base: " + e.getMessage());
+        }
+    }
+}
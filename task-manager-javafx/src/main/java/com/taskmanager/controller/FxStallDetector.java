@@ -0,0 +1,197 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.service.Histogram;
+import com.taskmanager.service.MetricUnit;
+import com.taskmanager.service.ServiceMetrics;
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surveillance du thread JavaFX : détecte les blocages (« l'application a gelé ») et
+ * identifie le gestionnaire responsable
+ *
+ * Un thread de surveillance poste régulièrement un battement via Platform.runLater et
+ * mesure le délai avant son exécution : c'est le temps pendant lequel le thread JavaFX
+ * était occupé ailleurs (gestionnaire d'événement, tri, filtrage...). Si le battement
+ * attend plus que le seuil, la pile du thread JavaFX est relevée sur-le-champ, pendant
+ * le blocage. À la fin du blocage, un événement Flight Recorder {@link FxStallEvent}
+ * est émis avec cette pile ; les blocages sont aussi comptés dans les mesures du service.
+ *
+ * Sans enregistrement Flight Recorder en cours, l'émission ne coûte presque rien.
+ */
+final class FxStallDetector implements AutoCloseable {
+
+    // Intervalle de vérification du thread de surveillance
+    private static final long CHECK_MILLIS = 10;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_FRAMES = 64;
+    private static final String APPLICATION_PACKAGE = "com.taskmanager.";
+
+    private final long thresholdNanos;
+    private final Histogram latency;
+    private final ServiceMetrics.Counter stalls;
+    private final ScheduledExecutorService watchdog;
+    // Fins des blocages de la dernière minute (thread de surveillance)
+    private final Deque<Long> recentStalls = new ArrayDeque<>();
+
+    private Thread fxThread;
+    // Battement posté et pas encore exécuté ; null si aucun (thread de surveillance)
+    private Heartbeat pending;
+
+    FxStallDetector(ServiceMetrics metrics, long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.latency = metrics.histogram("latence du thread JavaFX", MetricUnit.NANOSECONDS);
+        this.stalls = metrics.counter("blocages du thread JavaFX", MetricUnit.COUNT);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.gauge("blocages (dernière minute)", MetricUnit.COUNT, this::recentStallCount);
+    }
+
+    /**
+     * Démarre la surveillance ; à appeler depuis le thread JavaFX
+     */
+    void start() {
+        fxThread = Thread.currentThread();
+        watchdog.scheduleWithFixedDelay(this::check, CHECK_MILLIS, CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        Heartbeat heartbeat = pending;
+        if (heartbeat == null || heartbeat.done) {
+            Heartbeat next = new Heartbeat(now);
+            pending = next;
+            Platform.runLater(() -> beat(next));
+        } else if (heartbeat.stack == null && now - heartbeat.postedAt >= thresholdNanos) {
+            // Blocage en cours : la pile montre ce qui occupe le thread JavaFX
+            StackTraceElement[] stack = fxThread.getStackTrace();
+            if (!heartbeat.done) {
+                // Sinon le blocage venait de finir : la pile ne le concerne plus
+                heartbeat.stack = stack;
+            }
+        }
+    }
+
+    /**
+     * Thread JavaFX : le battement a enfin pu s'exécuter
+     */
+    private void beat(Heartbeat heartbeat) {
+        long delay = System.nanoTime() - heartbeat.postedAt;
+        heartbeat.done = true;
+        latency.record(delay);
+        if (delay >= thresholdNanos) {
+            // Même thread que check() : une pile en cours de relevé est déjà enregistrée
+            watchdog.execute(() -> report(delay, heartbeat));
+        }
+    }
+
+    private void report(long delay, Heartbeat heartbeat) {
+        stalls.increment();
+        long now = System.nanoTime();
+        synchronized (recentStalls) {
+            recentStalls.addLast(now);
+            trim(now);
+        }
+
+        FxStallEvent event = new FxStallEvent();
+        if (event.shouldCommit()) {
+            StackTraceElement[] stack = heartbeat.stack;
+            event.stallDuration = delay;
+            if (stack != null) {
+                event.handler = handler(stack);
+                event.topFrame = topFrame(stack);
+                event.fxStackTrace = format(stack);
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Nombre de blocages terminés au cours de la dernière minute
+     */
+    int recentStallCount() {
+        synchronized (recentStalls) {
+            trim(System.nanoTime());
+            return recentStalls.size();
+        }
+    }
+
+    private void trim(long now) {
+        while (!recentStalls.isEmpty() && now - recentStalls.peekFirst() > WINDOW_NANOS) {
+            recentStalls.removeFirst();
+        }
+    }
+
+    /**
+     * Méthode de l'application la plus proche de JavaFX dans la pile : le gestionnaire
+     * d'événement (MainController.handleSort) plutôt que le code qu'il appelle
+     */
+    private static String handler(StackTraceElement[] stack) {
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (isApplication(stack[i])) {
+                return shortName(stack[i]);
+            }
+        }
+        return null;
+    }
+
+    private static String topFrame(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (isApplication(frame)) {
+                return shortName(frame);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isApplication(StackTraceElement frame) {
+        String className = frame.getClassName();
+        // Les classes générées pour les lambdas ne font que relayer l'appel
+        return className.startsWith(APPLICATION_PACKAGE)
+                && !className.startsWith(FxStallDetector.class.getName())
+                && !className.contains("$$Lambda");
+    }
+
+    private static String shortName(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, MAX_FRAMES); i++) {
+            out.append("at ").append(stack[i]).append('\n');
+        }
+        if (stack.length > MAX_FRAMES) {
+            out.append("... ").append(stack.length - MAX_FRAMES).append(" de plus\n");
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * Battement posté sur le thread JavaFX
+     */
+    private static final class Heartbeat {
+        final long postedAt;
+        volatile boolean done;
+        // Pile relevée si le seuil est franchi avant l'exécution du battement
+        volatile StackTraceElement[] stack;
+
+        Heartbeat(long postedAt) {
+            this.postedAt = postedAt;
+        }
+    }
+}
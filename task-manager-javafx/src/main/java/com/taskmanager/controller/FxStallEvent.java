@@ -0,0 +1,38 @@
+package com.taskmanager.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Événement Flight Recorder : le thread JavaFX n'a pas répondu pendant au moins le seuil
+ *
+ * L'événement est émis par le thread de surveillance : la pile enregistrée est celle
+ * du thread JavaFX au moment où le seuil a été franchi, pas celle de l'émetteur.
+ */
+@Name("com.taskmanager.FxStall")
+@Label("Blocage du thread JavaFX")
+@Category({"Gestionnaire de tâches", "Interface"})
+@Description("Le thread JavaFX est resté occupé au-delà du seuil de blocage")
+@StackTrace(false)
+final class FxStallEvent extends Event {
+
+    @Label("Durée du blocage")
+    @Timespan(Timespan.NANOSECONDS)
+    long stallDuration;
+
+    @Label("Gestionnaire")
+    @Description("Première méthode de l'application appelée par JavaFX, par exemple MainController.handleSort")
+    String handler;
+
+    @Label("Méthode en cours")
+    @Description("Méthode de l'application la plus profonde dans la pile")
+    String topFrame;
+
+    @Label("Pile du thread JavaFX")
+    String fxStackTrace;
+}
@@ -1,29 +1,42 @@
 package com.taskmanager.controller;
 
 import com.taskmanager.model.Task;
+import com.taskmanager.service.BulkExport;
+import com.taskmanager.service.BulkImport;
+import com.taskmanager.service.H2TaskRepository;
+import com.taskmanager.service.ServiceMetrics;
+import com.taskmanager.service.SortCriterion;
+import com.taskmanager.service.StorageSettings;
+import com.taskmanager.service.TaskFilter;
+import com.taskmanager.service.TaskRepository;
 import com.taskmanager.service.TaskService;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
-import java.util.function.Predicate;
+import java.util.function.Function;
 
 /**
  * Contrôleur principal pour l'interface de gestion des tâches
@@ -31,8 +44,37 @@ import java.util.function.Predicate;
 public class MainController implements Initializable {
 
     // Services
+    private static final long SEARCH_DEBOUNCE_MILLIS = 150;
+    private static final Duration DIAGNOSTICS_REFRESH = Duration.seconds(1);
+    // Délai sans réponse du thread JavaFX considéré comme un blocage
+    private static final long STALL_THRESHOLD_MILLIS = Long.getLong("taskmanager.stallMillis", 100);
+    // « sync » crée le service avant la première image, comme avant ; sinon en arrière-plan
+    private static final boolean BACKGROUND_STARTUP =
+            !"sync".equalsIgnoreCase(System.getProperty("taskmanager.startup"));
+    // Base embarquée : lignes lues à la fois et pages gardées en mémoire
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 16;
+    // Heure des rappels d'échéance du jour (taskmanager.reminderTime, 09:00 par défaut)
+    private static final LocalTime REMINDER_TIME =
+            LocalTime.parse(System.getProperty("taskmanager.reminderTime", "09:00"));
+
+    // Tâches affichées et écritures, en mémoire ou dans la base embarquée (taskmanager.database)
+    private TaskView view;
+    // Fichier de données uniquement : import, export, fichier de conflit
     private TaskService taskService;
-    private FilteredList<Task> filteredTasks;
+    private ServiceMetrics metrics;
+    private String startupMode;
+    private BulkImport runningImport;
+    private BulkExport runningExport;
+    private Timeline diagnosticsRefresh;
+    private FxStallDetector stallDetector;
+    private final StartupTimer startupTimer = new StartupTimer();
+    private boolean shutDown;
+
+    // Dialogue de tâche, chargé une seule fois puis réutilisé
+    private Dialog<ButtonType> taskDialog;
+    private TaskDialogController taskDialogController;
+    private final Map<TableColumn<Task, ?>, Task.Field> sortFields = new HashMap<>();
 
     // Menu Items
     @FXML private MenuItem newTaskMenuItem;
@@ -68,11 +110,11 @@ public class MainController implements Initializable {
 
     // Table
     @FXML private TableView<Task> taskTableView;
-    @FXML private TableColumn<Task, String> statusColumn;
+    @FXML private TableColumn<Task, Task.Status> statusColumn;
     @FXML private TableColumn<Task, String> titleColumn;
-    @FXML private TableColumn<Task, String> priorityColumn;
-    @FXML private TableColumn<Task, String> dueDateColumn;
-    @FXML private TableColumn<Task, String> createdColumn;
+    @FXML private TableColumn<Task, Task.Priority> priorityColumn;
+    @FXML private TableColumn<Task, LocalDate> dueDateColumn;
+    @FXML private TableColumn<Task, LocalDateTime> createdColumn;
 
     // Details panel
     @FXML private VBox taskDetailsPane;
@@ -89,71 +131,172 @@ public class MainController implements Initializable {
 
     // Status bar
     @FXML private Label statusLabel;
+    @FXML private ProgressBar loadProgressBar;
+    @FXML private Button cancelOperationButton;
     @FXML private Label taskCountLabel;
     @FXML private Label todoCountLabel;
     @FXML private Label inProgressCountLabel;
     @FXML private Label completedCountLabel;
+    @FXML private ToggleButton diagnosticsToggle;
+
+    // Diagnostics
+    @FXML private VBox diagnosticsPane;
+    @FXML private TextArea diagnosticsArea;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        // Initialiser le service
-        taskService = new TaskService();
+        startupTimer.markNextFrame(taskTableView, StartupTimer.FIRST_FRAME);
 
         // Configurer la table
         setupTableView();
+        clearTaskDetails();
 
-        // Configurer les filtres
-        setupFilters();
+        // Initialiser le service : en arrière-plan, la fenêtre s'affiche sans l'attendre
+        setServiceReady(false);
+        StorageSettings settings = StorageSettings.fromSystemProperties();
+        if (settings.getDatabaseFile() != null) {
+            openRepository(settings);
+        } else if (BACKGROUND_STARTUP) {
+            statusLabel.setText("Démarrage...");
+            Thread starter = new Thread(() -> {
+                TaskService service = new TaskService(StorageSettings.fromSystemProperties(), Platform::runLater);
+                Platform.runLater(() -> onServiceReady(service));
+            }, "task-service-init");
+            starter.setDaemon(true);
+            starter.start();
+        } else {
+            onServiceReady(new TaskService(StorageSettings.fromSystemProperties(), Platform::runLater));
+        }
+    }
 
-        // Configurer les contrôles
+    /**
+     * Service créé : les tâches du fichier de données sont gardées en mémoire
+     */
+    private void onServiceReady(TaskService service) {
+        if (shutDown) {
+            // Fenêtre fermée pendant l'initialisation
+            service.close();
+            return;
+        }
+        taskService = service;
+        onViewReady(new MemoryTaskView(service, SEARCH_DEBOUNCE_MILLIS, REMINDER_TIME, new ViewListener()),
+                BACKGROUND_STARTUP ? "arrière-plan" : "synchrone");
+    }
+
+    /**
+     * Ouverture de la base en arrière-plan (création et import du fichier de données
+     * la première fois)
+     */
+    private void openRepository(StorageSettings settings) {
+        statusLabel.setText("Ouverture de la base...");
+        Thread opener = new Thread(() -> {
+            try {
+                H2TaskRepository opened = H2TaskRepository.open(settings);
+                Platform.runLater(() -> onRepositoryReady(opened));
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'ouverture de la base: " + e.getMessage());
+                Platform.runLater(() -> {
+                    statusLabel.setText("Échec de l'ouverture de la base");
+                    showAlert("Erreur", "Impossible d'ouvrir la base: " + e.getMessage());
+                });
+            }
+        }, "task-repository-init");
+        opener.setDaemon(true);
+        opener.start();
+    }
+
+    /**
+     * Base ouverte : filtres, recherche et tri sont exécutés par la base
+     */
+    private void onRepositoryReady(TaskRepository opened) {
+        if (shutDown) {
+            closeRepository(opened);
+            return;
+        }
+        onViewReady(new DatabaseTaskView(opened, SEARCH_DEBOUNCE_MILLIS, PAGE_SIZE, MAX_PAGES, new ViewListener()),
+                "base");
+    }
+
+    /**
+     * Vue prête : branchement de l'interface puis chargement des tâches
+     */
+    private void onViewReady(TaskView readyView, String mode) {
+        view = readyView;
+        startupMode = mode;
+        metrics = view.getMetrics();
+        startupTimer.mark(StartupTimer.SERVICE_READY);
+
+        // Surveiller les blocages du thread JavaFX (événements Flight Recorder)
+        stallDetector = new FxStallDetector(metrics, STALL_THRESHOLD_MILLIS);
+        stallDetector.start();
+
+        taskTableView.setItems(view.getItems());
+        taskTableView.setSortPolicy(table -> {
+            view.sort(sortCriteria());
+            return true;
+        });
+        setupFilterButtons();
         setupControls();
 
-        // Charger les données
-        loadData();
+        setServiceReady(true);
+        exportMenuItem.setDisable(!view.supportsFileTransfer());
+        setLoading(true);
+        view.load();
+        startupTimer.markNextFrame(taskTableView, StartupTimer.INTERACTIVE);
 
-        // Mettre à jour l'affichage
-        updateStatusBar();
-        clearTaskDetails();
+        // Préparer le dialogue de tâche une fois l'interface disponible
+        Platform.runLater(this::preloadTaskDialog);
+    }
+
+    private void closeRepository(TaskRepository closing) {
+        try {
+            closing.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture de la base: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Commandes qui ont besoin du service, désactivées tant qu'il n'est pas créé
+     */
+    private void setServiceReady(boolean ready) {
+        for (Control control : List.of(addButton, searchField, searchButton, sortComboBox,
+                allFilterButton, todoFilterButton, inProgressFilterButton, completedFilterButton,
+                overdueFilterButton, todayFilterButton, diagnosticsToggle)) {
+            control.setDisable(!ready);
+        }
+        for (MenuItem item : List.of(newTaskMenuItem, importMenuItem, exportMenuItem, clearAllMenuItem,
+                showAllMenuItem, showTodoMenuItem, showInProgressMenuItem, showCompletedMenuItem,
+                showOverdueMenuItem, showTodayMenuItem)) {
+            item.setDisable(!ready);
+        }
     }
 
     private void setupTableView() {
-        // Configuration des colonnes
-        statusColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getStatus().getDisplayName()));
+        // Configuration des colonnes : les propriétés des tâches directement, sans copie
+        statusColumn.setCellValueFactory(cellData -> property(cellData.getValue(), Task::statusProperty));
+        statusColumn.setCellFactory(TaskTableCell.forColumn(Task.Status::getDisplayName));
 
-        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
+        titleColumn.setCellValueFactory(cellData -> property(cellData.getValue(), Task::titleProperty));
 
-        priorityColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getPriority().getDisplayName()));
+        priorityColumn.setCellValueFactory(cellData -> property(cellData.getValue(), Task::priorityProperty));
+        priorityColumn.setCellFactory(TaskTableCell.forColumn(Task.Priority::getDisplayName));
 
-        dueDateColumn.setCellValueFactory(cellData -> {
-            LocalDate dueDate = cellData.getValue().getDueDate();
-            return new SimpleStringProperty(dueDate != null ?
-                    dueDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "");
-        });
+        dueDateColumn.setCellValueFactory(cellData -> property(cellData.getValue(), Task::dueDateProperty));
+        dueDateColumn.setCellFactory(TaskTableCell.forColumn(TaskFormats::date));
 
-        createdColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getCreatedAt()
-                        .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))));
-
-        // Style conditionnel pour les lignes
-        taskTableView.setRowFactory(tv -> {
-            TableRow<Task> row = new TableRow<>();
-            row.itemProperty().addListener((obs, oldTask, newTask) -> {
-                if (newTask != null) {
-                    row.getStyleClass().removeAll("overdue-task", "due-today-task", "completed-task");
-
-                    if (newTask.getStatus() == Task.Status.COMPLETED) {
-                        row.getStyleClass().add("completed-task");
-                    } else if (newTask.isOverdue()) {
-                        row.getStyleClass().add("overdue-task");
-                    } else if (newTask.isDueToday()) {
-                        row.getStyleClass().add("due-today-task");
-                    }
-                }
-            });
-            return row;
-        });
+        createdColumn.setCellValueFactory(cellData -> property(cellData.getValue(), Task::createdAtProperty));
+        createdColumn.setCellFactory(TaskTableCell.forColumn(TaskFormats::dateTime));
+
+        // Tri par les en-têtes : clés précalculées plutôt que les valeurs affichées
+        sortFields.put(statusColumn, Task.Field.STATUS);
+        sortFields.put(titleColumn, Task.Field.TITLE);
+        sortFields.put(priorityColumn, Task.Field.PRIORITY);
+        sortFields.put(dueDateColumn, Task.Field.DUE_DATE);
+        sortFields.put(createdColumn, Task.Field.CREATED_AT);
+
+        // Style conditionnel pour les lignes, tenu à jour quand la tâche change sur place
+        taskTableView.setRowFactory(tv -> new TaskTableRow());
 
         // Listener pour la sélection
         taskTableView.getSelectionModel().selectedItemProperty().addListener(
@@ -168,11 +311,7 @@ public class MainController implements Initializable {
                 });
     }
 
-    private void setupFilters() {
-        // Créer la liste filtrée
-        filteredTasks = new FilteredList<>(taskService.getTasks(), p -> true);
-        taskTableView.setItems(filteredTasks);
-
+    private void setupFilterButtons() {
         // Grouper les boutons de filtre
         ToggleGroup filterGroup = new ToggleGroup();
         allFilterButton.setToggleGroup(filterGroup);
@@ -186,28 +325,83 @@ public class MainController implements Initializable {
         allFilterButton.setSelected(true);
     }
 
+    /**
+     * Propriété affichée par une cellule ; aucune pour une ligne pas encore lue (base embarquée)
+     */
+    private static <T> ObservableValue<T> property(Task task, Function<Task, ObservableValue<T>> getter) {
+        return task == null ? null : getter.apply(task);
+    }
+
     private void setupControls() {
         // ComboBox de tri
         sortComboBox.setItems(FXCollections.observableArrayList(
                 "Titre", "Priorité", "Échéance", "Statut", "Date de création"));
         sortComboBox.setValue("Titre");
 
-        // Recherche en temps réel
-        searchField.textProperty().addListener((obs, oldText, newText) -> {
-            if (newText.isEmpty()) {
-                handleSearch();
-            }
-        });
+        // Recherche en temps réel, hors du thread de l'interface
+        searchField.textProperty().addListener((obs, oldText, newText) -> handleSearch());
 
         // Enter dans le champ de recherche
         searchField.setOnAction(e -> handleSearch());
     }
 
-    private void loadData() {
-        // Les données sont automatiquement chargées par le service
-        taskService.getTasks().addListener((javafx.collections.ListChangeListener<Task>) change -> {
-            updateStatusBar();
-        });
+    /**
+     * Résultats de la vue, sur le thread de l'interface
+     */
+    private final class ViewListener implements TaskView.Listener {
+        @Override
+        public void onProgress(int loadedTasks, double fraction) {
+            loadProgressBar.setProgress(fraction);
+            statusLabel.setText("Chargement: " + loadedTasks + " tâches...");
+        }
+
+        @Override
+        public void onLoaded(int totalTasks) {
+            setLoading(false);
+            statusLabel.setText(totalTasks + " tâches chargées");
+            startupTimer.mark(StartupTimer.LOADED);
+            startupTimer.report(metrics, startupMode, totalTasks);
+        }
+
+        @Override
+        public void onSearched(int results) {
+            statusLabel.setText("Recherche: " + results + " résultats");
+        }
+
+        @Override
+        public void onCounts(int totalTasks, Map<Task.Status, Integer> byStatus) {
+            taskCountLabel.setText("Total: " + totalTasks + " tâches");
+            todoCountLabel.setText("À faire: " + byStatus.getOrDefault(Task.Status.TODO, 0));
+            inProgressCountLabel.setText("En cours: " + byStatus.getOrDefault(Task.Status.IN_PROGRESS, 0));
+            completedCountLabel.setText("Terminées: " + byStatus.getOrDefault(Task.Status.COMPLETED, 0));
+        }
+
+        @Override
+        public void onNotice(String message) {
+            statusLabel.setText(message);
+        }
+
+        @Override
+        public void onFailed(String message) {
+            showAlert("Erreur", message);
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        showProgress(loading);
+
+        // Pas de création ni d'import avant de connaître tous les IDs existants
+        addButton.setDisable(loading);
+        newTaskMenuItem.setDisable(loading);
+        // Import et export passent par la liste complète en mémoire : fichier de données uniquement
+        importMenuItem.setDisable(loading || !view.supportsFileTransfer());
+        clearAllMenuItem.setDisable(loading);
+    }
+
+    private void showProgress(boolean visible) {
+        loadProgressBar.setProgress(0);
+        loadProgressBar.setVisible(visible);
+        loadProgressBar.setManaged(visible);
     }
 
     // Handlers pour les actions du menu et toolbar
@@ -238,7 +432,7 @@ public class MainController implements Initializable {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                taskService.deleteTask(selectedTask);
+                view.delete(selectedTask);
                 statusLabel.setText("Tâche supprimée");
             }
         } else {
@@ -248,15 +442,7 @@ public class MainController implements Initializable {
 
     @FXML
     private void handleSearch() {
-        String searchText = searchField.getText().trim();
-        if (searchText.isEmpty()) {
-            filteredTasks.setPredicate(null);
-        } else {
-            filteredTasks.setPredicate(task ->
-                    task.getTitle().toLowerCase().contains(searchText.toLowerCase()) ||
-                            task.getDescription().toLowerCase().contains(searchText.toLowerCase()));
-        }
-        statusLabel.setText("Recherche: " + filteredTasks.size() + " résultats");
+        view.search(searchField.getText().trim());
     }
 
     @FXML
@@ -265,62 +451,90 @@ public class MainController implements Initializable {
         if (criteria != null) {
             switch (criteria) {
                 case "Titre":
-                    taskService.sortTasks("title");
+                    sortBy(titleColumn, TableColumn.SortType.ASCENDING);
                     break;
                 case "Priorité":
-                    taskService.sortTasks("priority");
+                    sortBy(priorityColumn, TableColumn.SortType.DESCENDING);
                     break;
                 case "Échéance":
-                    taskService.sortTasks("duedate");
+                    sortBy(dueDateColumn, TableColumn.SortType.ASCENDING);
                     break;
                 case "Statut":
-                    taskService.sortTasks("status");
+                    sortBy(statusColumn, TableColumn.SortType.ASCENDING);
                     break;
                 case "Date de création":
-                    taskService.sortTasks("created");
+                    sortBy(createdColumn, TableColumn.SortType.ASCENDING);
                     break;
             }
             statusLabel.setText("Trié par " + criteria.toLowerCase());
         }
     }
 
+    private void sortBy(TableColumn<Task, ?> column, TableColumn.SortType sortType) {
+        column.setSortType(sortType);
+        taskTableView.getSortOrder().setAll(List.of(column));
+    }
+
+    /**
+     * Critères de tri correspondant à l'ordre de tri de la table (plusieurs colonnes
+     * avec Maj+clic)
+     */
+    private List<SortCriterion> sortCriteria() {
+        List<SortCriterion> criteria = new ArrayList<>();
+        for (TableColumn<Task, ?> column : taskTableView.getSortOrder()) {
+            Task.Field field = sortFields.get(column);
+            if (field != null) {
+                criteria.add(new SortCriterion(field,
+                        column.getSortType() == TableColumn.SortType.ASCENDING));
+            }
+        }
+        return criteria;
+    }
+
     // Handlers pour les filtres
     @FXML
     private void handleShowAll() {
-        filteredTasks.setPredicate(null);
+        showFiltered(TaskFilter.all());
         statusLabel.setText("Affichage: Toutes les tâches");
     }
 
     @FXML
     private void handleShowTodo() {
-        filteredTasks.setPredicate(task -> task.getStatus() == Task.Status.TODO);
+        showFiltered(TaskFilter.status(Task.Status.TODO));
         statusLabel.setText("Affichage: Tâches à faire");
     }
 
     @FXML
     private void handleShowInProgress() {
-        filteredTasks.setPredicate(task -> task.getStatus() == Task.Status.IN_PROGRESS);
+        showFiltered(TaskFilter.status(Task.Status.IN_PROGRESS));
         statusLabel.setText("Affichage: Tâches en cours");
     }
 
     @FXML
     private void handleShowCompleted() {
-        filteredTasks.setPredicate(task -> task.getStatus() == Task.Status.COMPLETED);
+        showFiltered(TaskFilter.status(Task.Status.COMPLETED));
         statusLabel.setText("Affichage: Tâches terminées");
     }
 
     @FXML
     private void handleShowOverdue() {
-        filteredTasks.setPredicate(Task::isOverdue);
+        showFiltered(TaskFilter.overdue());
         statusLabel.setText("Affichage: Tâches en retard");
     }
 
     @FXML
     private void handleShowToday() {
-        filteredTasks.setPredicate(Task::isDueToday);
+        showFiltered(TaskFilter.dueToday());
         statusLabel.setText("Affichage: Tâches dues aujourd'hui");
     }
 
+    /**
+     * Remplace le filtre des boutons ; la recherche en cours reste appliquée
+     */
+    private void showFiltered(TaskFilter filter) {
+        view.setFilter(filter);
+    }
+
     // Actions rapides sur les tâches
     @FXML
     private void handleMarkAsTodo() {
@@ -345,34 +559,240 @@ public class MainController implements Initializable {
         fileChooser.getExtensionFilters().add(
                 new FileChooser.ExtensionFilter("Fichiers JSON", "*.json"));
 
-        File selectedFile = fileChooser.showOpenDialog(getStage());
-        if (selectedFile != null) {
-            try {
-                taskService.importTasks(selectedFile);
-                statusLabel.setText("Tâches importées avec succès");
-            } catch (IOException e) {
-                showAlert("Erreur d'importation",
-                        "Impossible d'importer le fichier: " + e.getMessage());
-            }
+        List<File> selectedFiles = fileChooser.showOpenMultipleDialog(getStage());
+        if (selectedFiles == null || selectedFiles.isEmpty()) {
+            return;
+        }
+        Optional<Boolean> skipDuplicates = askSkipDuplicates();
+        if (skipDuplicates.isEmpty()) {
+            return;
+        }
+
+        // Lecture en arrière-plan, puis ajout des tâches en un seul bloc
+        setLoading(true);
+        setCancellable(true);
+        exportMenuItem.setDisable(true);
+        statusLabel.setText("Import en cours...");
+        runningImport = taskService.importTasksInBackground(selectedFiles, skipDuplicates.get(),
+                new BulkImport.Listener() {
+                    @Override
+                    public void onProgress(int parsedTasks, double fraction) {
+                        loadProgressBar.setProgress(fraction);
+                        statusLabel.setText("Import: " + parsedTasks + " tâches lues...");
+                    }
+
+                    @Override
+                    public void onImported(int importedTasks, int skippedDuplicates) {
+                        finishImport();
+                        statusLabel.setText(importedTasks + " tâches importées" + (skippedDuplicates > 0
+                                ? ", " + skippedDuplicates + " doublons ignorés" : ""));
+                    }
+
+                    @Override
+                    public void onCancelled() {
+                        finishImport();
+                        statusLabel.setText("Import annulé");
+                    }
+
+                    @Override
+                    public void onFailed(IOException error) {
+                        finishImport();
+                        statusLabel.setText("Échec de l'import");
+                        showAlert("Erreur d'importation",
+                                "Impossible d'importer le fichier: " + error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Demande s'il faut ignorer les tâches déjà présentes ; vide si l'utilisateur annule
+     */
+    private Optional<Boolean> askSkipDuplicates() {
+        ButtonType skip = new ButtonType("Ignorer les doublons");
+        ButtonType keep = new ButtonType("Tout importer");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", skip, keep, ButtonType.CANCEL);
+        alert.setTitle("Importer des tâches");
+        alert.setHeaderText("Tâches déjà présentes");
+        alert.setContentText("Ignorer les tâches ayant le même titre, la même échéance et la même date de création ?");
+
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() == ButtonType.CANCEL) {
+            return Optional.empty();
+        }
+        return Optional.of(result.get() == skip);
+    }
+
+    @FXML
+    private void handleCancelOperation() {
+        if (runningImport != null) {
+            runningImport.cancel();
+            statusLabel.setText("Annulation de l'import...");
         }
+        if (runningExport != null) {
+            runningExport.cancel();
+            statusLabel.setText("Annulation de l'export...");
+        }
+    }
+
+    private void finishImport() {
+        runningImport = null;
+        setCancellable(false);
+        exportMenuItem.setDisable(false);
+        setLoading(false);
+    }
+
+    private void setCancellable(boolean cancellable) {
+        cancelOperationButton.setVisible(cancellable);
+        cancelOperationButton.setManaged(cancellable);
     }
 
     @FXML
     private void handleExport() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Exporter les tâches");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("Fichiers JSON", "*.json"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Fichiers JSON", "*.json"),
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+                new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON compressé", "*.json.gz"),
+                new FileChooser.ExtensionFilter("JSON Lines compressé", "*.jsonl.gz"),
+                new FileChooser.ExtensionFilter("CSV compressé", "*.csv.gz"));
         fileChooser.setInitialFileName("taches_export.json");
 
+        File selectedFile = fileChooser.showSaveDialog(getStage());
+        if (selectedFile == null) {
+            return;
+        }
+        File target = withExtension(selectedFile, fileChooser.getSelectedExtensionFilter());
+        Optional<List<Task>> exported = askExportScope();
+        if (exported.isEmpty()) {
+            return;
+        }
+
+        // Écriture en arrière-plan : la table reste utilisable pendant l'export
+        showProgress(true);
+        setCancellable(true);
+        importMenuItem.setDisable(true);
+        exportMenuItem.setDisable(true);
+        statusLabel.setText("Export en cours...");
+        runningExport = taskService.exportTasksInBackground(exported.get(), target, new BulkExport.Listener() {
+            @Override
+            public void onProgress(int writtenTasks, double fraction) {
+                loadProgressBar.setProgress(fraction);
+                statusLabel.setText("Export: " + writtenTasks + " tâches écrites...");
+            }
+
+            @Override
+            public void onExported(int exportedTasks) {
+                finishExport();
+                statusLabel.setText(exportedTasks + " tâches exportées dans " + target.getName());
+            }
+
+            @Override
+            public void onCancelled() {
+                finishExport();
+                statusLabel.setText("Export annulé");
+            }
+
+            @Override
+            public void onFailed(IOException error) {
+                finishExport();
+                statusLabel.setText("Échec de l'export");
+                showAlert("Erreur d'exportation",
+                        "Impossible d'exporter le fichier: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Ajoute l'extension du filtre choisi si le nom saisi n'en a pas
+     */
+    private File withExtension(File file, FileChooser.ExtensionFilter filter) {
+        if (filter == null || file.getName().contains(".")) {
+            return file;
+        }
+        String extension = filter.getExtensions().get(0).substring(1);
+        return new File(file.getParentFile(), file.getName() + extension);
+    }
+
+    /**
+     * Vue filtrée ou toutes les tâches ; vide si l'utilisateur annule
+     */
+    private Optional<List<Task>> askExportScope() {
+        int total = taskService.getTasks().size();
+        List<Task> shown = view.getItems();
+        if (shown.size() == total) {
+            return Optional.of(taskService.getTasks());
+        }
+        ButtonType visible = new ButtonType("Vue filtrée (" + shown.size() + ")");
+        ButtonType all = new ButtonType("Toutes (" + total + ")");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", visible, all, ButtonType.CANCEL);
+        alert.setTitle("Exporter les tâches");
+        alert.setHeaderText("Tâches à exporter");
+        alert.setContentText("Exporter uniquement les tâches affichées, ou toutes les tâches ?");
+
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() == ButtonType.CANCEL) {
+            return Optional.empty();
+        }
+        return Optional.of(result.get() == visible ? shown : taskService.getTasks());
+    }
+
+    private void finishExport() {
+        runningExport = null;
+        setCancellable(false);
+        showProgress(false);
+        importMenuItem.setDisable(taskService.isLoading());
+        exportMenuItem.setDisable(false);
+    }
+
+    // Diagnostics
+    @FXML
+    private void handleToggleDiagnostics() {
+        boolean visible = diagnosticsToggle.isSelected();
+        diagnosticsPane.setVisible(visible);
+        diagnosticsPane.setManaged(visible);
+
+        // Le rapport n'est calculé que panneau affiché
+        if (visible) {
+            if (diagnosticsRefresh == null) {
+                diagnosticsRefresh = new Timeline(new KeyFrame(DIAGNOSTICS_REFRESH, e -> refreshDiagnostics()));
+                diagnosticsRefresh.setCycleCount(Timeline.INDEFINITE);
+            }
+            refreshDiagnostics();
+            diagnosticsRefresh.play();
+        } else if (diagnosticsRefresh != null) {
+            diagnosticsRefresh.stop();
+        }
+    }
+
+    private void refreshDiagnostics() {
+        double scrollTop = diagnosticsArea.getScrollTop();
+        diagnosticsArea.setText(metrics.report());
+        diagnosticsArea.setScrollTop(scrollTop);
+    }
+
+    @FXML
+    private void handleResetDiagnostics() {
+        metrics.reset();
+        refreshDiagnostics();
+    }
+
+    @FXML
+    private void handleSaveDiagnostics() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Enregistrer les diagnostics");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Fichiers texte", "*.txt"));
+        fileChooser.setInitialFileName("diagnostics.txt");
+
         File selectedFile = fileChooser.showSaveDialog(getStage());
         if (selectedFile != null) {
             try {
-                taskService.exportTasks(selectedFile);
-                statusLabel.setText("Tâches exportées avec succès");
+                metrics.dump(selectedFile.toPath());
+                statusLabel.setText("Diagnostics enregistrés dans " + selectedFile.getName());
             } catch (IOException e) {
-                showAlert("Erreur d'exportation",
-                        "Impossible d'exporter le fichier: " + e.getMessage());
+                showAlert("Erreur", "Impossible d'enregistrer les diagnostics: " + e.getMessage());
             }
         }
     }
@@ -386,16 +806,50 @@ public class MainController implements Initializable {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            taskService.clearAllTasks();
+            view.deleteAll();
             statusLabel.setText("Toutes les tâches ont été supprimées");
         }
     }
 
     @FXML
     private void handleExit() {
+        shutdown();
         getStage().close();
     }
 
+    /**
+     * Écrit les sauvegardes en attente ; appelé à la fermeture de la fenêtre
+     */
+    public void shutdown() {
+        if (shutDown) {
+            return;
+        }
+        shutDown = true;
+        if (view == null) {
+            // Service (ou base) encore en cours de création : fermé dès qu'il sera prêt
+            return;
+        }
+        if (runningImport != null) {
+            runningImport.cancel();
+        }
+        if (runningExport != null) {
+            runningExport.cancel();
+        }
+        if (diagnosticsRefresh != null) {
+            diagnosticsRefresh.stop();
+        }
+        stallDetector.close();
+        view.close();
+        if (taskService != null && taskService.getConflictFile() != null) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Modifications non fusionnées");
+            alert.setHeaderText("Le fichier de données a été modifié par une autre instance pendant la fermeture");
+            alert.setContentText("Vos dernières modifications ont été enregistrées dans "
+                    + taskService.getConflictFile() + ".");
+            alert.showAndWait();
+        }
+    }
+
     @FXML
     private void handleAbout() {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -416,25 +870,19 @@ public class MainController implements Initializable {
     // Méthodes utilitaires
     private void showTaskDialog(Task task) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TaskDialog.fxml"));
-            DialogPane dialogPane = loader.load();
-
-            TaskDialogController controller = loader.getController();
-            controller.setTask(task);
-
-            Dialog<ButtonType> dialog = new Dialog<>();
-            dialog.setDialogPane(dialogPane);
+            Dialog<ButtonType> dialog = taskDialog();
+            taskDialogController.setTask(task);
             dialog.setTitle(task == null ? "Nouvelle Tâche" : "Modifier Tâche");
 
             Optional<ButtonType> result = dialog.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                Task resultTask = controller.getResult();
+                Task resultTask = taskDialogController.getResult();
                 if (resultTask != null) {
                     if (task == null) {
-                        taskService.addTask(resultTask);
+                        view.add(resultTask);
                         statusLabel.setText("Nouvelle tâche ajoutée");
                     } else {
-                        taskService.updateTask(resultTask);
+                        view.save(resultTask);
                         statusLabel.setText("Tâche mise à jour");
                     }
                 }
@@ -444,6 +892,33 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Dialogue de tâche : le FXML n'est lu qu'une fois, le dialogue est ensuite réutilisé
+     */
+    private Dialog<ButtonType> taskDialog() throws IOException {
+        if (taskDialog == null) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TaskDialog.fxml"));
+            DialogPane dialogPane = loader.load();
+
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.setDialogPane(dialogPane);
+            if (taskTableView.getScene() != null && taskTableView.getScene().getWindow() != null) {
+                dialog.initOwner(getStage());
+            }
+            taskDialogController = loader.getController();
+            taskDialog = dialog;
+        }
+        return taskDialog;
+    }
+
+    private void preloadTaskDialog() {
+        try {
+            taskDialog();
+        } catch (IOException e) {
+            System.err.println("Erreur lors du chargement du dialogue de tâche: " + e.getMessage());
+        }
+    }
+
     private void showTaskDetails(Task task) {
         taskTitleArea.setText(task.getTitle());
         taskDescriptionArea.setText(task.getDescription());
@@ -452,18 +927,15 @@ public class MainController implements Initializable {
         taskStatusValue.setText(task.getStatus().getDisplayName());
 
         if (task.getDueDate() != null) {
-            taskDueDateValue.setText(task.getDueDate().format(
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+            taskDueDateValue.setText(TaskFormats.date(task.getDueDate()));
         } else {
             taskDueDateValue.setText("Aucune");
         }
 
-        taskCreatedValue.setText(task.getCreatedAt().format(
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        taskCreatedValue.setText(TaskFormats.dateTime(task.getCreatedAt()));
 
         if (task.getCompletedAt() != null) {
-            taskCompletedValue.setText(task.getCompletedAt().format(
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+            taskCompletedValue.setText(TaskFormats.dateTime(task.getCompletedAt()));
         } else {
             taskCompletedValue.setText("Non terminée");
         }
@@ -483,7 +955,7 @@ public class MainController implements Initializable {
         Task selectedTask = taskTableView.getSelectionModel().getSelectedItem();
         if (selectedTask != null) {
             selectedTask.setStatus(newStatus);
-            taskService.updateTask(selectedTask);
+            view.save(selectedTask);
             showTaskDetails(selectedTask);
             statusLabel.setText("Statut mis à jour: " + newStatus.getDisplayName());
         }
@@ -497,18 +969,6 @@ public class MainController implements Initializable {
         markCompletedButton.setDisable(!enable);
     }
 
-    private void updateStatusBar() {
-        long totalTasks = taskService.getTasks().size();
-        long todoCount = taskService.countTasksByStatus(Task.Status.TODO);
-        long inProgressCount = taskService.countTasksByStatus(Task.Status.IN_PROGRESS);
-        long completedCount = taskService.countTasksByStatus(Task.Status.COMPLETED);
-
-        taskCountLabel.setText("Total: " + totalTasks + " tâches");
-        todoCountLabel.setText("À faire: " + todoCount);
-        inProgressCountLabel.setText("En cours: " + inProgressCount);
-        completedCountLabel.setText("Terminées: " + completedCount);
-    }
-
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.WARNING);
         alert.setTitle(title);
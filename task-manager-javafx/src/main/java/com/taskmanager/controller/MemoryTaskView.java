@@ -0,0 +1,196 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.LiveSearch;
+import com.taskmanager.service.QueryTaskView;
+import com.taskmanager.service.ReminderScheduler;
+import com.taskmanager.service.ServiceMetrics;
+import com.taskmanager.service.SortCriterion;
+import com.taskmanager.service.SortedTaskView;
+import com.taskmanager.service.TaskFilter;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskService;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue du fichier de données : toutes les tâches en mémoire dans {@link TaskService}
+ *
+ * Les tâches retenues viennent des index du service ({@link QueryTaskView}) ou de la
+ * recherche en arrière-plan ({@link LiveSearch}), puis sont triées sans toucher à la
+ * liste du service ({@link SortedTaskView}). Les comptages par statut viennent des
+ * index, à chaque modification de la liste.
+ */
+final class MemoryTaskView implements TaskView {
+
+    private final TaskService service;
+    private final LocalTime reminderTime;
+    private final Listener listener;
+    private final QueryTaskView queryTasks;
+    private final SortedTaskView sortedTasks;
+    private final LiveSearch liveSearch;
+
+    private TaskFilter filter = TaskFilter.all();
+    private String searchText = "";
+
+    /**
+     * @param reminderTime heure des rappels d'échéance du jour
+     */
+    MemoryTaskView(TaskService service, long searchDebounceMillis, LocalTime reminderTime, Listener listener) {
+        this.service = service;
+        this.reminderTime = reminderTime;
+        this.listener = listener;
+        this.queryTasks = new QueryTaskView(service);
+        // Vue triée au-dessus de la requête : la liste principale n'est jamais réordonnée
+        this.sortedTasks = new SortedTaskView(queryTasks, Platform::runLater, service);
+        sortedTasks.sortingProperty().addListener((obs, wasSorting, sorting) -> {
+            if (sorting) {
+                listener.onNotice("Tri en cours...");
+            }
+        });
+        this.liveSearch = new LiveSearch(service, Platform::runLater, searchDebounceMillis, this::showSearchResult);
+
+        service.getTasks().addListener((ListChangeListener<Task>) change -> publishCounts());
+        // Après minuit, la table et les filtres « en retard » / « aujourd'hui » sont déjà à jour
+        service.setDayListener((today, affected) ->
+                listener.onNotice("Nouvelle journée: " + affected.size() + " tâche(s) changent d'état"));
+    }
+
+    @Override
+    public ObservableList<Task> getItems() {
+        return sortedTasks;
+    }
+
+    /**
+     * Chargement en flux hors du thread de l'interface : la table se remplit par lots
+     */
+    @Override
+    public void load() {
+        publishCounts();
+        service.loadTasksInBackground(new TaskService.LoadListener() {
+            @Override
+            public void onProgress(int loadedTasks, double fraction) {
+                listener.onProgress(loadedTasks, fraction);
+            }
+
+            @Override
+            public void onLoaded(int totalTasks) {
+                listener.onLoaded(totalTasks);
+                service.startReminders(reminderTime, new ReminderScheduler.Listener() {
+                    @Override
+                    public void onDue(LocalDate day, List<Task> tasks) {
+                        listener.onNotice("Rappel: " + tasks.size() + " tâche(s) due(s) aujourd'hui");
+                    }
+
+                    @Override
+                    public void onOverdue(List<Task> tasks) {
+                        listener.onNotice("Rappel: " + tasks.size() + " tâche(s) en retard");
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public void setFilter(TaskFilter newFilter) {
+        filter = newFilter;
+        applyQuery(null);
+    }
+
+    @Override
+    public void search(String text) {
+        liveSearch.submit(text);
+    }
+
+    private void showSearchResult(String text, Set<Task> matches) {
+        searchText = matches == null ? "" : text;
+        applyQuery(matches);
+        listener.onSearched(queryTasks.size());
+    }
+
+    /**
+     * Affiche les tâches satisfaisant le filtre et le texte recherché
+     *
+     * @param textMatches résultat de la recherche en arrière-plan pour le texte courant, ou null
+     */
+    private void applyQuery(Set<Task> textMatches) {
+        TaskQuery query = TaskQuery.all().where(filter).withText(searchText);
+        if (textMatches == null) {
+            queryTasks.setQuery(query);
+            return;
+        }
+        List<Task> matches = new ArrayList<>(textMatches.size());
+        for (Task task : textMatches) {
+            if (filter.matches(task)) {
+                matches.add(task);
+            }
+        }
+        queryTasks.setQuery(query, matches);
+    }
+
+    @Override
+    public void sort(List<SortCriterion> criteria) {
+        sortedTasks.sort(criteria);
+    }
+
+    @Override
+    public void add(Task task) {
+        service.addTask(task);
+    }
+
+    @Override
+    public void save(Task task) {
+        service.updateTask(task);
+    }
+
+    @Override
+    public void delete(Task task) {
+        service.deleteTask(task);
+    }
+
+    @Override
+    public void deleteAll() {
+        service.clearAllTasks();
+    }
+
+    @Override
+    public boolean supportsFileTransfer() {
+        return true;
+    }
+
+    @Override
+    public ServiceMetrics getMetrics() {
+        return service.getMetrics();
+    }
+
+    private void publishCounts() {
+        Map<Task.Status, Integer> byStatus = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : Task.Status.values()) {
+            long count = service.countTasksByStatus(status);
+            if (count > 0) {
+                byStatus.put(status, (int) count);
+            }
+        }
+        listener.onCounts(service.getTasks().size(), byStatus);
+    }
+
+    /**
+     * Écrit les sauvegardes en attente et ferme le service
+     */
+    @Override
+    public void close() {
+        liveSearch.close();
+        sortedTasks.close();
+        queryTasks.close();
+        service.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.service.MetricUnit;
+import com.taskmanager.service.ServiceMetrics;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mesure du démarrage, depuis le lancement du processus
+ *
+ * Les étapes sont datées en millisecondes depuis le lancement de la JVM (et non depuis
+ * le chargement de l'interface) : le chargement des classes et l'initialisation de
+ * JavaFX font partie du temps perçu. Le résultat est ajouté aux mesures du service
+ * (fenêtre de diagnostic) et, avec -Dtaskmanager.startupLog=fichier.csv, à un fichier
+ * CSV pour comparer les versions entre elles.
+ */
+final class StartupTimer {
+
+    static final String FIRST_FRAME = "première image";
+    static final String SERVICE_READY = "service prêt";
+    static final String INTERACTIVE = "interactive";
+    static final String LOADED = "tâches chargées";
+
+    private static final String[] PHASES = {FIRST_FRAME, SERVICE_READY, INTERACTIVE, LOADED};
+
+    private final long launchMillis;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    StartupTimer() {
+        this.launchMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElseGet(System::currentTimeMillis);
+    }
+
+    /**
+     * Date l'étape maintenant (la première fois seulement)
+     */
+    void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis() - launchMillis);
+    }
+
+    /**
+     * Date l'étape à la prochaine image affichée par la scène du nœud
+     */
+    void markNextFrame(Node node, String phase) {
+        Scene scene = node.getScene();
+        if (scene == null) {
+            // Interface pas encore attachée à sa fenêtre
+            node.sceneProperty().addListener((obs, oldScene, newScene) -> {
+                if (oldScene == null && newScene != null) {
+                    markNextFrame(node, phase);
+                }
+            });
+            return;
+        }
+        boolean[] done = new boolean[1];
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (!done[0]) {
+                done[0] = true;
+                mark(phase);
+                // Pas de retrait pendant le parcours des écouteurs de la scène
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+        Platform.requestNextPulse();
+    }
+
+    /**
+     * Publie la mesure : mesures du service et fichier CSV éventuel
+     */
+    void report(ServiceMetrics metrics, String mode, int taskCount) {
+        for (String phase : PHASES) {
+            Long millis = phases.get(phase);
+            if (millis != null) {
+                metrics.histogram("démarrage : " + phase, MetricUnit.NANOSECONDS).record(millis * 1_000_000);
+            }
+        }
+
+        String log = System.getProperty("taskmanager.startupLog");
+        if (log != null) {
+            appendCsv(Paths.get(log), mode, taskCount);
+        }
+    }
+
+    private void appendCsv(Path file, String mode, int taskCount) {
+        String version = StartupTimer.class.getPackage().getImplementationVersion();
+        StringBuilder line = new StringBuilder();
+        if (!Files.exists(file)) {
+            line.append("date,version,mode,taches");
+            for (String phase : PHASES) {
+                line.append(',').append(phase.replace(' ', '_')).append("_ms");
+            }
+            line.append('\n');
+        }
+        line.append(LocalDateTime.now().withNano(0))
+                .append(',').append(version != null ? version : "dev")
+                .append(',').append(mode)
+                .append(',').append(taskCount);
+        for (String phase : PHASES) {
+            Long millis = phases.get(phase);
+            line.append(',').append(millis != null ? millis.toString() : "");
+        }
+        line.append('\n');
+        try {
+            Files.writeString(file, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture de la mesure de démarrage: " + e.getMessage());
+        }
+    }
+}
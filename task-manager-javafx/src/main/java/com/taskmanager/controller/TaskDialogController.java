@@ -9,7 +9,6 @@ import javafx.util.StringConverter;
 
 import java.net.URL;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
 
 /**
@@ -91,12 +90,10 @@ public class TaskDialogController implements Initializable {
 
             // Afficher les informations supplémentaires
             additionalInfoBox.setVisible(true);
-            createdAtLabel.setText(task.getCreatedAt().format(
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+            createdAtLabel.setText(TaskFormats.dateTime(task.getCreatedAt()));
 
             if (task.getCompletedAt() != null) {
-                completedAtLabel.setText(task.getCompletedAt().format(
-                        DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+                completedAtLabel.setText(TaskFormats.dateTime(task.getCompletedAt()));
             } else {
                 completedAtLabel.setText("Non terminée");
             }
@@ -0,0 +1,83 @@
+package com.taskmanager.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats d'affichage des dates, partagés par la table et le panneau de détails
+ *
+ * Les textes formatés sont gardés dans un petit cache à correspondance directe (clé :
+ * jour ou minute) : en défilant, une cellule qui réaffiche une date déjà vue ne formate
+ * ni n'alloue rien. À utiliser depuis le thread de l'interface uniquement.
+ */
+final class TaskFormats {
+
+    static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final int CACHE_SIZE = 4096;
+
+    private static final Cache dates = new Cache();
+    private static final Cache dateTimes = new Cache();
+
+    private TaskFormats() {
+    }
+
+    /**
+     * Date au format jj/mm/aaaa, ou chaîne vide si elle est absente
+     */
+    static String date(LocalDate date) {
+        if (date == null) {
+            return "";
+        }
+        long day = date.toEpochDay();
+        String text = dates.get(day);
+        if (text == null) {
+            text = DATE.format(date);
+            dates.put(day, text);
+        }
+        return text;
+    }
+
+    /**
+     * Date et heure à la minute (jj/mm/aaaa hh:mm), ou chaîne vide si elle est absente
+     */
+    static String dateTime(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return "";
+        }
+        long minute = Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        String text = dateTimes.get(minute);
+        if (text == null) {
+            text = DATE_TIME.format(dateTime);
+            dateTimes.put(minute, text);
+        }
+        return text;
+    }
+
+    /**
+     * Cache à correspondance directe : une entrée par case, la plus récente l'emporte
+     */
+    private static final class Cache {
+        private final long[] keys = new long[CACHE_SIZE];
+        private final String[] values = new String[CACHE_SIZE];
+
+        String get(long key) {
+            int slot = slot(key);
+            return values[slot] != null && keys[slot] == key ? values[slot] : null;
+        }
+
+        void put(long key, String value) {
+            int slot = slot(key);
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private static int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 52) & (CACHE_SIZE - 1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.function.Function;
+
+/**
+ * Cellule texte de la table des tâches
+ *
+ * La valeur vient directement de la propriété de la tâche (la colonne la fournit
+ * telle quelle) : la cellule se met à jour quand la tâche change sur place. Le texte
+ * est obtenu par une fonction sans allocation (nom d'affichage d'une énumération,
+ * date formatée en cache, voir {@link TaskFormats}).
+ */
+final class TaskTableCell<T> extends TableCell<Task, T> {
+
+    private final Function<T, String> text;
+
+    private TaskTableCell(Function<T, String> text) {
+        this.text = text;
+    }
+
+    /**
+     * Fabrique de cellules pour une colonne
+     */
+    static <T> Callback<TableColumn<Task, T>, TableCell<Task, T>> forColumn(Function<T, String> text) {
+        return column -> new TaskTableCell<>(text);
+    }
+
+    @Override
+    protected void updateItem(T value, boolean empty) {
+        super.updateItem(value, empty);
+        setText(empty || value == null ? null : text.apply(value));
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskClock;
+import javafx.beans.InvalidationListener;
+import javafx.css.PseudoClass;
+import javafx.scene.control.TableRow;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de la table des tâches, colorée selon l'état de la tâche (terminée, en retard,
+ * due aujourd'hui)
+ *
+ * La ligne observe le statut et l'échéance de la tâche affichée : un changement sur
+ * place se voit immédiatement, sans attendre que la ligne change de tâche. L'écouteur
+ * est créé une fois par ligne et déplacé d'une tâche à l'autre au défilement ; l'état
+ * passe par des pseudo-classes CSS, sans toucher à la liste des classes de style.
+ * Au changement de jour, le service remplace les tâches concernées dans la liste : seules
+ * leurs lignes sont mises à jour.
+ */
+final class TaskTableRow extends TableRow<Task> {
+
+    private static final PseudoClass OVERDUE = PseudoClass.getPseudoClass("overdue");
+    private static final PseudoClass DUE_TODAY = PseudoClass.getPseudoClass("due-today");
+    private static final PseudoClass COMPLETED = PseudoClass.getPseudoClass("completed");
+
+    private final InvalidationListener restyle = observable -> restyle();
+    private Task observed;
+
+    @Override
+    protected void updateItem(Task task, boolean empty) {
+        super.updateItem(task, empty);
+        Task shown = empty ? null : task;
+        if (shown != observed) {
+            if (observed != null) {
+                observed.statusProperty().removeListener(restyle);
+                observed.dueDateProperty().removeListener(restyle);
+            }
+            observed = shown;
+            if (shown != null) {
+                shown.statusProperty().addListener(restyle);
+                shown.dueDateProperty().addListener(restyle);
+            }
+        }
+        restyle();
+    }
+
+    private void restyle() {
+        Task task = observed;
+        boolean completed = task != null && task.getStatus() == Task.Status.COMPLETED;
+        LocalDate now = task != null ? TaskClock.current().today() : null;
+        pseudoClassStateChanged(COMPLETED, completed);
+        pseudoClassStateChanged(OVERDUE, !completed && task != null && task.isOverdue(now));
+        pseudoClassStateChanged(DUE_TODAY, !completed && task != null && task.isDueToday(now));
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.service.ServiceMetrics;
+import com.taskmanager.service.SortCriterion;
+import com.taskmanager.service.TaskFilter;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tâches affichées par la table et commandes d'écriture, quel que soit le stockage :
+ * fichier de données en mémoire ({@link MemoryTaskView}) ou base embarquée
+ * ({@link DatabaseTaskView})
+ *
+ * La vue garde le filtre des boutons, le texte recherché et l'ordre de tri, et les
+ * combine (ET) dans la requête affichée. Toutes les méthodes s'appellent depuis le
+ * thread de l'interface ; les résultats et les erreurs arrivent par {@link Listener},
+ * sur ce même thread.
+ */
+interface TaskView extends AutoCloseable {
+
+    interface Listener {
+        void onProgress(int loadedTasks, double fraction);
+
+        /**
+         * Tâches chargées (ou comptées, avec la base) : l'interface est utilisable
+         */
+        void onLoaded(int totalTasks);
+
+        /**
+         * Résultats affichés pour le texte recherché
+         */
+        void onSearched(int results);
+
+        /**
+         * Nombre total de tâches et répartition par statut (les statuts sans tâche sont absents)
+         */
+        void onCounts(int totalTasks, Map<Task.Status, Integer> byStatus);
+
+        /**
+         * Information à afficher dans la barre d'état (tri, rappels, changement de jour)
+         */
+        void onNotice(String message);
+
+        void onFailed(String message);
+    }
+
+    /**
+     * Liste à afficher dans la table
+     */
+    ObservableList<Task> getItems();
+
+    /**
+     * Charge les tâches ; {@link Listener#onLoaded(int)} signale la fin
+     */
+    void load();
+
+    /**
+     * Remplace le filtre des boutons ; la recherche en cours reste appliquée
+     */
+    void setFilter(TaskFilter filter);
+
+    /**
+     * Recherche au fil de la frappe : les frappes rapprochées sont regroupées
+     */
+    void search(String text);
+
+    /**
+     * Ordre d'affichage, dans l'ordre des critères
+     */
+    void sort(List<SortCriterion> criteria);
+
+    void add(Task task);
+
+    void save(Task task);
+
+    void delete(Task task);
+
+    void deleteAll();
+
+    /**
+     * Import et export passent par la liste complète en mémoire : fichier de données uniquement
+     */
+    boolean supportsFileTransfer();
+
+    ServiceMetrics getMetrics();
+
+    @Override
+    void close();
+}
@@ -1,6 +1,7 @@
 package com.taskmanager.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import javafx.beans.property.*;
 
 import java.time.LocalDate;
@@ -9,18 +10,58 @@ import java.util.Objects;
 
 /**
  * Modèle représentant une tâche dans le gestionnaire de tâches
+ *
+ * Les valeurs sont stockées dans des champs simples ; les propriétés JavaFX ne sont
+ * créées qu'au premier appel de leur accesseur (liaison avec l'interface) puis restent
+ * synchronisées avec les champs. Une tâche jamais affichée n'en alloue aucune.
  */
 public class Task {
 
-    // Propriétés JavaFX pour le binding avec l'interface
-    private final IntegerProperty id;
-    private final StringProperty title;
-    private final StringProperty description;
-    private final ObjectProperty<Priority> priority;
-    private final ObjectProperty<Status> status;
-    private final ObjectProperty<LocalDate> dueDate;
-    private final ObjectProperty<LocalDateTime> createdAt;
-    private final ObjectProperty<LocalDateTime> completedAt;
+    // Valeurs de la tâche
+    private int id;
+    private String title;
+    private String description;
+    private Priority priority;
+    private Status status;
+    private LocalDate dueDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    // Propriétés JavaFX créées à la demande, indexées par Field.ordinal()
+    private Property<?>[] properties;
+    private ChangeObserver observer;
+
+    /**
+     * Champs observables d'une tâche
+     */
+    public enum Field {
+        ID("id"),
+        TITLE("title"),
+        DESCRIPTION("description"),
+        PRIORITY("priority"),
+        STATUS("status"),
+        DUE_DATE("dueDate"),
+        CREATED_AT("createdAt"),
+        COMPLETED_AT("completedAt");
+
+        private final String propertyName;
+
+        Field(String propertyName) {
+            this.propertyName = propertyName;
+        }
+
+        public String getPropertyName() { return propertyName; }
+    }
+
+    /**
+     * Notification de modification, sans créer de propriétés JavaFX
+     *
+     * Appelée après la mise à jour du champ et avant les écouteurs de la propriété
+     * correspondante, si elle existe.
+     */
+    public interface ChangeObserver {
+        void taskChanged(Task task, Field field, Object oldValue, Object newValue);
+    }
 
     // Énumérations pour la priorité et le statut
     public enum Priority {
@@ -64,69 +105,220 @@ public class Task {
     }
 
     public Task(int id, String title, String description, Priority priority, Status status, LocalDate dueDate) {
-        this.id = new SimpleIntegerProperty(id);
-        this.title = new SimpleStringProperty(title);
-        this.description = new SimpleStringProperty(description);
-        this.priority = new SimpleObjectProperty<>(priority);
-        this.status = new SimpleObjectProperty<>(status);
-        this.dueDate = new SimpleObjectProperty<>(dueDate);
-        this.createdAt = new SimpleObjectProperty<>(LocalDateTime.now());
-        this.completedAt = new SimpleObjectProperty<>();
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.createdAt = LocalDateTime.now();
     }
 
     // Getters et Setters pour les propriétés
-    public int getId() { return id.get(); }
-    public void setId(int id) { this.id.set(id); }
-    public IntegerProperty idProperty() { return id; }
+    public int getId() { return id; }
+    public void setId(int id) { set(Field.ID, id); }
+    public IntegerProperty idProperty() { return (IntegerProperty) property(Field.ID); }
 
-    public String getTitle() { return title.get(); }
-    public void setTitle(String title) { this.title.set(title); }
-    public StringProperty titleProperty() { return title; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { set(Field.TITLE, title); }
+    public StringProperty titleProperty() { return (StringProperty) property(Field.TITLE); }
 
-    public String getDescription() { return description.get(); }
-    public void setDescription(String description) { this.description.set(description); }
-    public StringProperty descriptionProperty() { return description; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { set(Field.DESCRIPTION, description); }
+    public StringProperty descriptionProperty() { return (StringProperty) property(Field.DESCRIPTION); }
 
-    public Priority getPriority() { return priority.get(); }
-    public void setPriority(Priority priority) { this.priority.set(priority); }
-    public ObjectProperty<Priority> priorityProperty() { return priority; }
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { set(Field.PRIORITY, priority); }
+    @SuppressWarnings("unchecked")
+    public ObjectProperty<Priority> priorityProperty() { return (ObjectProperty<Priority>) property(Field.PRIORITY); }
 
-    public Status getStatus() { return status.get(); }
+    public Status getStatus() { return status; }
     public void setStatus(Status status) {
-        this.status.set(status);
+        set(Field.STATUS, status);
         if (status == Status.COMPLETED) {
-            this.completedAt.set(LocalDateTime.now());
+            set(Field.COMPLETED_AT, LocalDateTime.now());
         } else {
-            this.completedAt.set(null);
+            set(Field.COMPLETED_AT, null);
         }
     }
-    public ObjectProperty<Status> statusProperty() { return status; }
+    @SuppressWarnings("unchecked")
+    public ObjectProperty<Status> statusProperty() { return (ObjectProperty<Status>) property(Field.STATUS); }
 
-    public LocalDate getDueDate() { return dueDate.get(); }
-    public void setDueDate(LocalDate dueDate) { this.dueDate.set(dueDate); }
-    public ObjectProperty<LocalDate> dueDateProperty() { return dueDate; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { set(Field.DUE_DATE, dueDate); }
+    @SuppressWarnings("unchecked")
+    public ObjectProperty<LocalDate> dueDateProperty() { return (ObjectProperty<LocalDate>) property(Field.DUE_DATE); }
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    public LocalDateTime getCreatedAt() { return createdAt.get(); }
-    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt.set(createdAt); }
-    public ObjectProperty<LocalDateTime> createdAtProperty() { return createdAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { set(Field.CREATED_AT, createdAt); }
+    @SuppressWarnings("unchecked")
+    public ObjectProperty<LocalDateTime> createdAtProperty() { return (ObjectProperty<LocalDateTime>) property(Field.CREATED_AT); }
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    public LocalDateTime getCompletedAt() { return completedAt.get(); }
-    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt.set(completedAt); }
-    public ObjectProperty<LocalDateTime> completedAtProperty() { return completedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { set(Field.COMPLETED_AT, completedAt); }
+    @SuppressWarnings("unchecked")
+    public ObjectProperty<LocalDateTime> completedAtProperty() { return (ObjectProperty<LocalDateTime>) property(Field.COMPLETED_AT); }
+
+    /**
+     * Attache l'observateur de la tâche (un seul : le service qui la gère)
+     */
+    public void attachObserver(ChangeObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Détache l'observateur s'il est toujours celui de la tâche
+     */
+    public void detachObserver(ChangeObserver observer) {
+        if (this.observer == observer) {
+            this.observer = null;
+        }
+    }
+
+    // Stockage des valeurs et propriétés à la demande
+    @SuppressWarnings("unchecked")
+    private void set(Field field, Object value) {
+        Property<?> property = properties != null ? properties[field.ordinal()] : null;
+        if (property != null) {
+            // La propriété notifie ses écouteurs ; invalidated() met le champ à jour
+            ((Property<Object>) property).setValue(value);
+        } else {
+            store(field, value);
+        }
+    }
+
+    private void store(Field field, Object value) {
+        Object oldValue;
+        switch (field) {
+            case ID:
+                oldValue = id;
+                id = (Integer) value;
+                break;
+            case TITLE:
+                oldValue = title;
+                title = (String) value;
+                break;
+            case DESCRIPTION:
+                oldValue = description;
+                description = (String) value;
+                break;
+            case PRIORITY:
+                oldValue = priority;
+                priority = (Priority) value;
+                break;
+            case STATUS:
+                oldValue = status;
+                status = (Status) value;
+                break;
+            case DUE_DATE:
+                oldValue = dueDate;
+                dueDate = (LocalDate) value;
+                break;
+            case CREATED_AT:
+                oldValue = createdAt;
+                createdAt = (LocalDateTime) value;
+                break;
+            default:
+                oldValue = completedAt;
+                completedAt = (LocalDateTime) value;
+                break;
+        }
+        if (observer != null && !Objects.equals(oldValue, value)) {
+            observer.taskChanged(this, field, oldValue, value);
+        }
+    }
+
+    private Property<?> property(Field field) {
+        if (properties == null) {
+            properties = new Property<?>[Field.values().length];
+        }
+        Property<?> property = properties[field.ordinal()];
+        if (property == null) {
+            property = createProperty(field);
+            properties[field.ordinal()] = property;
+        }
+        return property;
+    }
+
+    private Property<?> createProperty(Field field) {
+        // La tâche est le bean de ses propriétés
+        switch (field) {
+            case ID:
+                return new SimpleIntegerProperty(this, field.propertyName, id) {
+                    @Override
+                    protected void invalidated() {
+                        store(field, get());
+                    }
+                };
+            case TITLE:
+                return new LazyStringProperty(field, title);
+            case DESCRIPTION:
+                return new LazyStringProperty(field, description);
+            case PRIORITY:
+                return new LazyObjectProperty<>(field, priority);
+            case STATUS:
+                return new LazyObjectProperty<>(field, status);
+            case DUE_DATE:
+                return new LazyObjectProperty<>(field, dueDate);
+            case CREATED_AT:
+                return new LazyObjectProperty<>(field, createdAt);
+            default:
+                return new LazyObjectProperty<>(field, completedAt);
+        }
+    }
+
+    private final class LazyStringProperty extends SimpleStringProperty {
+        private final Field field;
+
+        LazyStringProperty(Field field, String value) {
+            super(Task.this, field.propertyName, value);
+            this.field = field;
+        }
+
+        @Override
+        protected void invalidated() {
+            store(field, get());
+        }
+    }
 
-    // Méthodes utilitaires
+    private final class LazyObjectProperty<T> extends SimpleObjectProperty<T> {
+        private final Field field;
+
+        LazyObjectProperty(Field field, T value) {
+            super(Task.this, field.propertyName, value);
+            this.field = field;
+        }
+
+        @Override
+        protected void invalidated() {
+            store(field, get());
+        }
+    }
+
+    // Méthodes utilitaires (dérivées, non sérialisées)
+    @JsonIgnore
     public boolean isOverdue() {
-        return dueDate.get() != null &&
-                dueDate.get().isBefore(LocalDate.now()) &&
-                status.get() != Status.COMPLETED;
+        return isOverdue(TaskClock.current().today());
     }
 
+    @JsonIgnore
     public boolean isDueToday() {
-        return dueDate.get() != null &&
-                dueDate.get().equals(LocalDate.now()) &&
-                status.get() != Status.COMPLETED;
+        return isDueToday(TaskClock.current().today());
+    }
+
+    // Variantes avec la date du jour fournie, pour les filtres évalués sur de nombreuses tâches
+    public boolean isOverdue(LocalDate today) {
+        return dueDate != null &&
+                dueDate.isBefore(today) &&
+                status != Status.COMPLETED;
+    }
+
+    public boolean isDueToday(LocalDate today) {
+        return dueDate != null &&
+                dueDate.equals(today) &&
+                status != Status.COMPLETED;
     }
 
     public void markAsCompleted() {
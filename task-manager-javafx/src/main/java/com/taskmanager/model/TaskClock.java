@@ -0,0 +1,95 @@
+package com.taskmanager.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Date du jour des états « en retard » et « due aujourd'hui »
+ *
+ * Le jour courant est gardé avec les bornes de la journée en millisecondes : un appel
+ * ne coûte qu'une lecture de l'horloge et deux comparaisons, la date n'est recalculée
+ * qu'une fois la journée écoulée (ou si l'horloge recule). L'horloge est injectable
+ * pour les essais et les bancs d'essai, via {@link #install(TaskClock)}, avant la
+ * création du service. Utilisable depuis n'importe quel thread.
+ */
+public final class TaskClock {
+
+    private static volatile TaskClock current = new TaskClock(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    // Remplacé d'un bloc : les trois valeurs restent cohérentes entre threads
+    private volatile Day day;
+
+    public TaskClock(Clock clock) {
+        this.clock = clock;
+        this.day = dayAt(clock.millis());
+    }
+
+    /**
+     * Horloge utilisée par {@link Task#isOverdue()}, {@link Task#isDueToday()} et le service
+     */
+    public static TaskClock current() {
+        return current;
+    }
+
+    /**
+     * Remplace l'horloge courante
+     */
+    public static void install(TaskClock clock) {
+        current = clock;
+    }
+
+    /**
+     * Date du jour dans le fuseau de l'horloge
+     */
+    public LocalDate today() {
+        return currentDay().date;
+    }
+
+    /**
+     * Instant du prochain changement de jour (minuit local, ou le début de la journée
+     * suivante un jour de changement d'heure)
+     */
+    public Instant nextDayStart() {
+        return Instant.ofEpochMilli(currentDay().endMillis);
+    }
+
+    /**
+     * Horloge sous-jacente, pour les calculs à l'heure près (rappels)
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    private Day currentDay() {
+        long nowMillis = clock.millis();
+        Day cached = day;
+        if (nowMillis < cached.startMillis || nowMillis >= cached.endMillis) {
+            cached = dayAt(nowMillis);
+            day = cached;
+        }
+        return cached;
+    }
+
+    private Day dayAt(long nowMillis) {
+        ZoneId zone = clock.getZone();
+        LocalDate date = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        return new Day(date,
+                date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    private static final class Day {
+        final LocalDate date;
+        final long startMillis;
+        final long endMillis;
+
+        Day(LocalDate date, long startMillis, long endMillis) {
+            this.date = date;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Format binaire compact de l'instantané des tâches
+ *
+ * Structure du fichier :
+ * <pre>
+ * en-tête (32 octets) : magique "TMSN", version, drapeaux, nombre de tâches,
+ *                       nombre de chaînes, longueur des données, CRC32 des données
+ * table des chaînes   : chaque chaîne distincte une seule fois (longueur varint + UTF-8)
+ * tâches              : écart d'ID (varint zigzag), indices du titre et de la
+ *                       description dans la table, un octet pour la priorité, le statut
+ *                       et les champs présents, puis l'échéance en jour epoch et les
+ *                       horodatages en secondes + nanosecondes (varints)
+ * </pre>
+ *
+ * La lecture passe par une projection mémoire du fichier (MappedByteBuffer) : le CRC
+ * est vérifié sur la projection avant tout décodage. Sous Windows, le fichier reste
+ * verrouillé tant que la projection n'a pas été libérée par le ramasse-miettes.
+ */
+final class BinarySnapshotCodec {
+
+    private static final int MAGIC = 0x544D534E; // "TMSN"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    // Rang réservé aux priorités et statuts absents (2 bits chacun)
+    private static final int NULL_ORDINAL = 3;
+    private static final int HAS_DUE_DATE = 1 << 4;
+    private static final int HAS_CREATED_AT = 1 << 5;
+    private static final int HAS_COMPLETED_AT = 1 << 6;
+
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private BinarySnapshotCodec() {
+    }
+
+    /**
+     * Écrit l'instantané dans le canal, à partir de sa position 0
+     */
+    static void write(Collection<Task> tasks, FileChannel channel) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        for (Task task : tasks) {
+            intern(task.getTitle(), strings, table);
+            intern(task.getDescription(), strings, table);
+        }
+
+        channel.position(HEADER_SIZE);
+        Encoder encoder = new Encoder(Channels.newOutputStream(channel));
+        for (String value : table) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoder.writeVarint(bytes.length);
+            encoder.writeBytes(bytes);
+        }
+
+        int previousId = 0;
+        for (Task task : tasks) {
+            encoder.writeVarint(zigzag(task.getId() - previousId));
+            previousId = task.getId();
+            encoder.writeVarint(reference(task.getTitle(), strings));
+            encoder.writeVarint(reference(task.getDescription(), strings));
+
+            int attributes = ordinal(task.getPriority()) | ordinal(task.getStatus()) << 2;
+            if (task.getDueDate() != null) {
+                attributes |= HAS_DUE_DATE;
+            }
+            if (task.getCreatedAt() != null) {
+                attributes |= HAS_CREATED_AT;
+            }
+            if (task.getCompletedAt() != null) {
+                attributes |= HAS_COMPLETED_AT;
+            }
+            encoder.writeByte(attributes);
+            if (task.getDueDate() != null) {
+                encoder.writeVarint(zigzag(task.getDueDate().toEpochDay()));
+            }
+            if (task.getCreatedAt() != null) {
+                encoder.writeDateTime(task.getCreatedAt());
+            }
+            if (task.getCompletedAt() != null) {
+                encoder.writeDateTime(task.getCompletedAt());
+            }
+        }
+        encoder.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putInt(tasks.size())
+                .putInt(table.size())
+                .putLong(encoder.length)
+                .putInt((int) encoder.crc.getValue())
+                .putInt(0)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Lit tout l'instantané
+     */
+    static List<Task> read(Path file) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        read(file, (batch, fraction) -> tasks.addAll(batch));
+        return tasks;
+    }
+
+    /**
+     * Lit l'instantané et remet les tâches par lots, comme {@link TaskStreamReader}
+     *
+     * @return le nombre de tâches lues
+     */
+    static int read(Path file, TaskStreamReader.BatchConsumer consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw corrupted(file, "fichier trop volumineux pour une projection");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw corrupted(file, "en-tête absent");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw corrupted(file, "version " + version + " non prise en charge");
+        }
+        int taskCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        long payloadLength = buffer.getLong(16);
+        int checksum = buffer.getInt(24);
+        if (taskCount < 0 || stringCount < 0 || payloadLength != buffer.limit() - HEADER_SIZE) {
+            throw corrupted(file, "longueurs incohérentes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, (int) payloadLength));
+        if ((int) crc.getValue() != checksum) {
+            throw corrupted(file, "somme de contrôle invalide");
+        }
+
+        try {
+            buffer.position(HEADER_SIZE);
+            String[] table = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < stringCount; i++) {
+                int length = (int) readVarint(buffer);
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                table[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int batchSize = TaskStreamReader.FIRST_BATCH_SIZE;
+            List<Task> batch = new ArrayList<>(batchSize);
+            int id = 0;
+            for (int i = 0; i < taskCount; i++) {
+                id += (int) unzigzag(readVarint(buffer));
+                String title = string(table, readVarint(buffer));
+                String description = string(table, readVarint(buffer));
+                int attributes = buffer.get() & 0xFF;
+                LocalDate dueDate = (attributes & HAS_DUE_DATE) != 0
+                        ? LocalDate.ofEpochDay(unzigzag(readVarint(buffer))) : null;
+                LocalDateTime createdAt = (attributes & HAS_CREATED_AT) != 0 ? readDateTime(buffer) : null;
+                LocalDateTime completedAt = (attributes & HAS_COMPLETED_AT) != 0 ? readDateTime(buffer) : null;
+
+                Task task = new Task(id, title, description,
+                        value(PRIORITIES, attributes & 0x3), value(STATUSES, attributes >> 2 & 0x3), dueDate);
+                task.setCreatedAt(createdAt);
+                task.setCompletedAt(completedAt);
+                batch.add(task);
+
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch, (double) buffer.position() / buffer.limit());
+                    batchSize = Math.min(batchSize * 2, TaskStreamReader.MAX_BATCH_SIZE);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch, 1.0);
+            }
+        } catch (RuntimeException e) {
+            // Dépassement du tampon, indice de chaîne invalide... malgré un CRC correct
+            throw corrupted(file, e.toString());
+        }
+        return taskCount;
+    }
+
+    private static IOException corrupted(Path file, String reason) {
+        return new IOException("Instantané binaire " + file.getFileName() + " illisible: " + reason);
+    }
+
+    private static void intern(String value, Map<String, Integer> strings, List<String> table) {
+        if (value != null && !strings.containsKey(value)) {
+            strings.put(value, table.size());
+            table.add(value);
+        }
+    }
+
+    // 0 pour une chaîne absente, sinon indice + 1
+    private static int reference(String value, Map<String, Integer> strings) {
+        return value == null ? 0 : strings.get(value) + 1;
+    }
+
+    private static String string(String[] table, long reference) {
+        return reference == 0 ? null : table[(int) reference - 1];
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value == null ? NULL_ORDINAL : value.ordinal();
+    }
+
+    private static <E> E value(E[] values, int ordinal) {
+        return ordinal == NULL_ORDINAL ? null : values[ordinal];
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("varint trop long");
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long seconds = unzigzag(readVarint(buffer));
+        int nanos = (int) readVarint(buffer);
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Tampon d'écriture qui calcule le CRC et la longueur des données au passage
+     */
+    private static final class Encoder {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[64 * 1024];
+        private final CRC32 crc = new CRC32();
+        private int position;
+        private long length;
+
+        Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarint(long value) throws IOException {
+            if (buffer.length - position < 10) {
+                flush();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                flush();
+                if (bytes.length > buffer.length) {
+                    crc.update(bytes);
+                    out.write(bytes);
+                    length += bytes.length;
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeDateTime(LocalDateTime dateTime) throws IOException {
+            writeVarint(zigzag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+            writeVarint(dateTime.getNano());
+        }
+
+        void flush() throws IOException {
+            crc.update(buffer, 0, position);
+            out.write(buffer, 0, position);
+            length += position;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export en flux des tâches, hors du thread de l'interface
+ *
+ * Seules les références des copies figées à exporter sont copiées au départ (voir
+ * {@link TaskSnapshot}) ; l'écriture se fait ensuite tâche par tâche dans le fichier, sans
+ * construire l'export en mémoire. Le fichier est écrit à côté puis renommé : une
+ * annulation ou une erreur laisse un éventuel fichier existant intact.
+ */
+public final class BulkExport {
+
+    /**
+     * Suivi de l'export, sur le thread de l'interface ; exactement une des trois
+     * dernières méthodes est appelée
+     */
+    public interface Listener {
+        void onProgress(int writtenTasks, double fraction);
+        void onExported(int exportedTasks);
+        void onCancelled();
+        void onFailed(IOException error);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Executor uiExecutor;
+    private final Task[] tasks;
+    private final Path file;
+    private final ExportFormat format;
+    private final boolean compressed;
+    private final Histogram timer;
+    private final Listener listener;
+    private volatile boolean cancelled;
+
+    /**
+     * À créer depuis le thread de l'interface
+     */
+    BulkExport(ObjectMapper objectMapper, Executor uiExecutor, List<Task> tasks, File file,
+               Histogram timer, Listener listener) {
+        this.objectMapper = objectMapper;
+        this.uiExecutor = uiExecutor;
+        this.tasks = tasks.toArray(new Task[0]);
+        this.file = file.toPath();
+        this.format = ExportFormat.forFile(file);
+        this.compressed = ExportFormat.isCompressed(file);
+        this.timer = timer;
+        this.listener = listener;
+    }
+
+    void start() {
+        ServiceThreads.daemon("task-export").newThread(this::run).start();
+    }
+
+    /**
+     * Abandonne l'export ; l'écriture s'arrête au prochain point de contrôle
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            int count;
+            try (OutputStream out = open(temp)) {
+                count = write(tasks, out);
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            SnapshotStore.replace(temp, file);
+            timer.recordSince(start);
+            uiExecutor.execute(() -> listener.onExported(count));
+        } catch (CancellationException e) {
+            deleteQuietly(temp);
+            uiExecutor.execute(listener::onCancelled);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            uiExecutor.execute(() -> listener.onFailed(e));
+        }
+    }
+
+    private OutputStream open(Path target) throws IOException {
+        OutputStream out = Files.newOutputStream(target);
+        return compressed
+                ? new GZIPOutputStream(out, BUFFER_SIZE)
+                : new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    private int write(Task[] exported, OutputStream out) throws IOException {
+        double total = Math.max(1, exported.length);
+        return new TaskExportWriter(objectMapper, format).write(Arrays.asList(exported).iterator(), out,
+                written -> uiExecutor.execute(() -> {
+                    if (!cancelled) {
+                        listener.onProgress(written, written / total);
+                    }
+                }),
+                () -> cancelled);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la suppression de " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Import en masse d'un ou plusieurs fichiers JSON, hors du thread de l'interface
+ *
+ * Chaque fichier est lu en flux ({@link TaskStreamReader}) ; plusieurs fichiers sont
+ * lus en parallèle. Les doublons (même titre, même échéance, même date de création)
+ * peuvent être écartés, qu'ils existent déjà ou qu'ils apparaissent plusieurs fois
+ * dans l'import. Les tâches retenues sont ensuite publiées d'un bloc sur le thread de
+ * l'interface : IDs consécutifs, un seul événement de liste et une seule sauvegarde.
+ *
+ * L'import est tout ou rien : une erreur de lecture ou une annulation n'ajoute aucune tâche.
+ */
+public final class BulkImport {
+
+    /**
+     * Suivi de l'import, sur le thread de l'interface ; exactement une des trois
+     * dernières méthodes est appelée
+     */
+    public interface Listener {
+        void onProgress(int parsedTasks, double fraction);
+        void onImported(int importedTasks, int skippedDuplicates);
+        void onCancelled();
+        void onFailed(IOException error);
+    }
+
+    private final TaskService service;
+    private final ObjectMapper objectMapper;
+    private final Executor uiExecutor;
+    private final List<File> files;
+    private final boolean skipDuplicates;
+    private final Histogram timer;
+    private final Listener listener;
+    private final List<Task> existing;
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final ExecutorService parsers;
+    private volatile boolean cancelled;
+    // Un fichier illisible arrête la lecture des autres
+    private volatile boolean failed;
+
+    /**
+     * À créer depuis le thread de l'interface (les doublons sont cherchés dans le dernier
+     * instantané des tâches, voir {@link TaskSnapshot})
+     */
+    BulkImport(TaskService service, ObjectMapper objectMapper, Executor uiExecutor,
+               List<File> files, boolean skipDuplicates, Histogram timer, Listener listener) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.uiExecutor = uiExecutor;
+        this.files = List.copyOf(files);
+        this.skipDuplicates = skipDuplicates;
+        this.timer = timer;
+        this.listener = listener;
+        this.existing = skipDuplicates ? service.getSnapshot().getTasks() : List.of();
+        int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+        this.parsers = Executors.newFixedThreadPool(threads, ServiceThreads.daemon("task-import"));
+    }
+
+    void start() {
+        ServiceThreads.daemon("task-import-coordinator").newThread(this::run).start();
+    }
+
+    /**
+     * Abandonne l'import ; sans effet une fois les tâches publiées
+     *
+     * Les lectures en cours s'arrêtent au lot suivant.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        try {
+            List<Task> imported = parseAll();
+            int total = imported.size();
+            if (skipDuplicates) {
+                imported = withoutDuplicates(imported);
+            }
+            List<Task> accepted = imported;
+            int duplicates = total - accepted.size();
+            uiExecutor.execute(() -> {
+                if (cancelled) {
+                    listener.onCancelled();
+                    return;
+                }
+                service.addImported(accepted);
+                timer.recordSince(start);
+                listener.onImported(accepted.size(), duplicates);
+            });
+        } catch (CancellationException e) {
+            uiExecutor.execute(listener::onCancelled);
+        } catch (IOException e) {
+            uiExecutor.execute(() -> listener.onFailed(e));
+        } finally {
+            parsers.shutdown();
+        }
+    }
+
+    /**
+     * Lit tous les fichiers en parallèle ; le résultat garde l'ordre des fichiers
+     */
+    private List<Task> parseAll() throws IOException {
+        long[] sizes = new long[files.size()];
+        long totalSize = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Math.max(1, files.get(i).length());
+            totalSize += sizes[i];
+        }
+        AtomicLongArray readBytes = new AtomicLongArray(sizes.length);
+        long allBytes = totalSize;
+
+        List<Future<List<Task>>> results = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            int fileIndex = i;
+            results.add(parsers.submit(() -> {
+                List<Task> fileTasks = new ArrayList<>();
+                new TaskStreamReader(objectMapper).read(files.get(fileIndex).toPath(), (batch, fraction) -> {
+                    if (cancelled || failed) {
+                        throw new CancellationException();
+                    }
+                    fileTasks.addAll(batch);
+                    readBytes.set(fileIndex, (long) (fraction * sizes[fileIndex]));
+                    reportProgress(batch.size(), readBytes, allBytes);
+                });
+                return fileTasks;
+            }));
+        }
+
+        List<Task> imported = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                imported.addAll(results.get(i).get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    throw (CancellationException) e.getCause();
+                }
+                failed = true;
+                throw new IOException(files.get(i).getName() + ": " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+        }
+        return imported;
+    }
+
+    private void reportProgress(int batchSize, AtomicLongArray readBytes, long allBytes) {
+        int count = parsed.addAndGet(batchSize);
+        long done = 0;
+        for (int i = 0; i < readBytes.length(); i++) {
+            done += readBytes.get(i);
+        }
+        double fraction = Math.min(1.0, (double) done / allBytes);
+        uiExecutor.execute(() -> {
+            if (!cancelled) {
+                listener.onProgress(count, fraction);
+            }
+        });
+    }
+
+    private List<Task> withoutDuplicates(List<Task> imported) {
+        Set<DuplicateKey> seen = new HashSet<>((existing.size() + imported.size()) * 2);
+        for (Task task : existing) {
+            seen.add(new DuplicateKey(task));
+        }
+        List<Task> accepted = new ArrayList<>(imported.size());
+        for (Task task : imported) {
+            if (seen.add(new DuplicateKey(task))) {
+                accepted.add(task);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Identité d'une tâche pour la détection des doublons : titre, échéance, création
+     *
+     * La création est comparée à la seconde, précision du fichier JSON : une tâche
+     * réimportée depuis un export est reconnue même si celle en mémoire a des nanosecondes.
+     */
+    private static final class DuplicateKey {
+        private final String title;
+        private final LocalDate dueDate;
+        private final LocalDateTime createdAt;
+
+        DuplicateKey(Task task) {
+            this.title = task.getTitle();
+            this.dueDate = task.getDueDate();
+            LocalDateTime created = task.getCreatedAt();
+            this.createdAt = created != null ? created.truncatedTo(ChronoUnit.SECONDS) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DuplicateKey)) {
+                return false;
+            }
+            DuplicateKey other = (DuplicateKey) o;
+            return Objects.equals(title, other.title)
+                    && Objects.equals(dueDate, other.dueDate)
+                    && Objects.equals(createdAt, other.createdAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(title, dueDate, createdAt);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Verrou consultatif sur le fichier de données, partagé entre instances
+ *
+ * Le verrou porte sur un fichier voisin (tasks.json.lock) : l'instantané est remplacé
+ * par renommage, un verrou posé sur le fichier lui-même ne couvrirait que l'ancienne
+ * version. Il n'est pris que le temps d'une écriture ou d'une relecture : deux
+ * instances peuvent partager le fichier, sans jamais écrire ni relire en même temps.
+ */
+final class DataFileLock implements AutoCloseable {
+
+    /**
+     * Action exécutée sous le verrou
+     */
+    interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    private final FileChannel channel;
+    private boolean held;
+
+    DataFileLock(Path dataFile) throws IOException {
+        Path lockFile = dataFile.resolveSibling(dataFile.getFileName() + ".lock");
+        this.channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Exécute l'action sous le verrou ; attend qu'une autre instance le libère
+     *
+     * Synchronisé : un même processus ne peut pas poser deux verrous sur le même
+     * fichier, les threads du service passent donc l'un après l'autre. Réentrant : une
+     * écriture peut être appelée depuis une action déjà sous le verrou.
+     */
+    synchronized <T> T withLock(LockedAction<T> action) throws IOException {
+        if (held) {
+            return action.run();
+        }
+        FileLock lock = channel.lock();
+        held = true;
+        try {
+            return action.run();
+        } finally {
+            held = false;
+            lock.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture du verrou: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surveillance du fichier de données : signale ses modifications, regroupées
+ *
+ * WatchService n'observe que des répertoires : les événements des autres fichiers,
+ * dont le fichier temporaire d'écriture, sont ignorés. Une rafale d'événements (un
+ * script qui écrit en plusieurs fois) ne donne qu'un signal, une fois le répertoire
+ * calme pendant le délai. Les écritures du service lui-même sont aussi signalées :
+ * c'est au destinataire de les reconnaître (voir {@link FileStamp}).
+ */
+final class DataFileWatcher implements AutoCloseable {
+
+    private final Path fileName;
+    private final WatchService watchService;
+    private final long quietMillis;
+    private final Runnable onChange;
+
+    DataFileWatcher(Path file, long quietMillis, Runnable onChange) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        this.fileName = absolute.getFileName();
+        this.watchService = absolute.getFileSystem().newWatchService();
+        this.quietMillis = quietMillis;
+        this.onChange = onChange;
+        absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    void start() {
+        ServiceThreads.daemon("task-file-watcher").newThread(this::run).start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!concerned(watchService.take())) {
+                    continue;
+                }
+                // Attend la fin de la rafale
+                WatchKey next;
+                while ((next = watchService.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                    concerned(next);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur lors de la prise en compte du fichier modifié: " + e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Surveillance arrêtée
+        }
+    }
+
+    private boolean concerned(WatchKey key) {
+        boolean concerned = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                concerned = true;
+            }
+        }
+        key.reset();
+        return concerned;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'arrêt de la surveillance: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.TaskClock;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changement de jour : signale sur le thread propriétaire le passage à minuit local
+ *
+ * Un seul réveil est programmé, au début de la journée suivante d'après
+ * {@link TaskClock} ; le réveil a lieu au plus tard une heure après le précédent, de
+ * sorte qu'une mise en veille ou un changement de l'heure système soit rattrapé. Le jour
+ * signalé est celui pour lequel les états « en retard » et « due aujourd'hui » ont été
+ * calculés en dernier : un saut de plusieurs jours, ou en arrière, donne un seul
+ * changement.
+ */
+final class DayRollover implements AutoCloseable {
+
+    interface Listener {
+        void onDayChanged(LocalDate previous, LocalDate today);
+    }
+
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final TaskClock clock;
+    private final Executor uiExecutor;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor timer;
+
+    // Thread propriétaire uniquement (après start)
+    private LocalDate day;
+    private volatile boolean closed;
+
+    DayRollover(TaskClock clock, Executor uiExecutor, Listener listener) {
+        this.clock = clock;
+        this.uiExecutor = uiExecutor;
+        this.listener = listener;
+        this.timer = new ScheduledThreadPoolExecutor(1, ServiceThreads.daemon("task-day-rollover"));
+    }
+
+    void start() {
+        day = clock.today();
+        schedule();
+    }
+
+    /**
+     * Jour des derniers états calculés
+     */
+    LocalDate getDay() {
+        return day;
+    }
+
+    private void schedule() {
+        if (closed) {
+            return;
+        }
+        long delay = clock.nextDayStart().toEpochMilli() - clock.getClock().millis();
+        timer.schedule(() -> uiExecutor.execute(this::check),
+                Math.min(Math.max(0, delay), MAX_SLEEP_MILLIS), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Compare le jour courant au dernier signalé, puis programme le réveil suivant
+     */
+    void check() {
+        if (closed) {
+            return;
+        }
+        LocalDate today = clock.today();
+        if (!today.equals(day)) {
+            LocalDate previous = day;
+            day = today;
+            listener.onDayChanged(previous, today);
+        }
+        schedule();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.service;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Formats d'export des tâches
+ *
+ * Le format se déduit de l'extension du fichier ; un suffixe « .gz » ajoute la
+ * compression gzip à n'importe lequel des formats.
+ */
+public enum ExportFormat {
+    /** Tableau JSON indenté, relisible par l'import */
+    JSON,
+    /** Un objet JSON compact par ligne */
+    JSON_LINES,
+    /** Valeurs séparées par des virgules, avec une ligne d'en-tête */
+    CSV;
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    public static ExportFormat forFile(File file) {
+        String name = baseName(file);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSON_LINES;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        return JSON;
+    }
+
+    public static boolean isCompressed(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(GZIP_SUFFIX);
+    }
+
+    private static String baseName(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(GZIP_SUFFIX) ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
+    }
+}
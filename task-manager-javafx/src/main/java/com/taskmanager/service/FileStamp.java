@@ -0,0 +1,58 @@
+package com.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * Empreinte d'un fichier (taille, date de modification, identifiant système)
+ *
+ * Relevée après chaque écriture du service : une empreinte différente signifie que
+ * le fichier a été remplacé ou modifié par un autre processus depuis.
+ */
+final class FileStamp {
+
+    static final FileStamp MISSING = new FileStamp(-1, null, null);
+
+    private final long size;
+    private final FileTime lastModified;
+    private final Object fileKey;
+
+    private FileStamp(long size, FileTime lastModified, Object fileKey) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.fileKey = fileKey;
+    }
+
+    static FileStamp of(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey());
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        }
+    }
+
+    boolean exists() {
+        return this != MISSING;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileStamp)) return false;
+        FileStamp other = (FileStamp) o;
+        return size == other.size
+                && Objects.equals(lastModified, other.lastModified)
+                && Objects.equals(fileKey, other.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lastModified, fileKey);
+    }
+}
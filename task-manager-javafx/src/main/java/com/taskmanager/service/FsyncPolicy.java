@@ -0,0 +1,23 @@
+package com.taskmanager.service;
+
+/**
+ * Politique de synchronisation disque (fsync) du journal des mutations
+ */
+public enum FsyncPolicy {
+    /** fsync après chaque enregistrement : durabilité maximale, écriture la plus lente */
+    ALWAYS,
+    /** fsync groupé : les enregistrements sont synchronisés ensemble toutes les N ms */
+    GROUP,
+    /** Aucun fsync explicite : le système d'exploitation décide quand écrire sur le disque */
+    OS;
+
+    /**
+     * Lit une politique depuis sa forme textuelle ("always", "group", "os")
+     */
+    public static FsyncPolicy parse(String value) {
+        if (value == null || value.isBlank()) {
+            return GROUP;
+        }
+        return FsyncPolicy.valueOf(value.trim().toUpperCase());
+    }
+}
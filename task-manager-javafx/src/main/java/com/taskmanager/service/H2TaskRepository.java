@@ -0,0 +1,490 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskClock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage dans une base H2 embarquée (fichier tasks.mv.db)
+ *
+ * Les filtres d'une {@link TaskQuery} deviennent une clause WHERE sur des colonnes
+ * indexées (statut, priorité, dates), l'ordre un ORDER BY et la page un
+ * LIMIT/OFFSET : seules les tâches affichées sont chargées en mémoire. Les titres
+ * sont comparés avec la collation française de la base, comme en mémoire.
+ *
+ * La recherche de texte porte sur des colonnes normalisées (minuscules, sans accents,
+ * voir {@link TextNormalizer}) avec LIKE '%texte%' : elle parcourt la table, aucun
+ * index ne pouvant servir un motif qui commence par un joker.
+ *
+ * À la création de la base, le fichier de données existant (instantané et journal)
+ * est importé par lots.
+ * Une seule connexion, partagée par des méthodes synchronisées : le stockage peut
+ * être appelé depuis n'importe quel thread.
+ */
+public final class H2TaskRepository implements TaskRepository {
+
+    private static final int MIGRATION_BATCH_SIZE = 1000;
+
+    private static final String COLUMNS =
+            "id, title, description, priority, status, due_date, created_at, completed_at";
+
+    private final Connection connection;
+    private final ServiceMetrics metrics = new ServiceMetrics();
+    private final Histogram queryTimer = metrics.histogram("requête (base)", MetricUnit.NANOSECONDS);
+    private final Histogram countTimer = metrics.histogram("comptage (base)", MetricUnit.NANOSECONDS);
+    private final Histogram writeTimer = metrics.histogram("écriture (base)", MetricUnit.NANOSECONDS);
+    private final Histogram migrationTimer = metrics.histogram("import du fichier de données", MetricUnit.NANOSECONDS);
+    private int nextId = 1;
+
+    private H2TaskRepository(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Ouvre (ou crée) la base désignée par les réglages ; à la création, les tâches du
+     * fichier de données sont importées
+     */
+    public static H2TaskRepository open(StorageSettings settings) throws IOException {
+        Path database = settings.getDatabaseFile().toAbsolutePath();
+        try {
+            Connection connection = DriverManager.getConnection("jdbc:h2:file:" + database, "sa", "");
+            H2TaskRepository repository = new H2TaskRepository(connection);
+            try {
+                if (repository.createSchema()) {
+                    repository.migrate(settings);
+                }
+                repository.nextId = repository.maxId() + 1;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+            return repository;
+        } catch (SQLException e) {
+            throw new IOException("Ouverture de la base " + database + " impossible", e);
+        }
+    }
+
+    /**
+     * Crée la table si besoin, et les index qui manquent
+     *
+     * @return true si la base vient d'être créée
+     */
+    private boolean createSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            boolean created;
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TASKS'")) {
+                rs.next();
+                created = rs.getInt(1) == 0;
+            }
+            if (created) {
+                // La collation ne peut être changée que sur une base vide
+                statement.execute("SET COLLATION FRENCH");
+                statement.execute("CREATE TABLE tasks ("
+                        + "id INT PRIMARY KEY, "
+                        + "title VARCHAR, "
+                        + "description VARCHAR, "
+                        + "priority TINYINT, "
+                        + "status TINYINT, "
+                        + "due_date DATE, "
+                        + "created_at TIMESTAMP(9), "
+                        + "completed_at TIMESTAMP(9), "
+                        + "search_title VARCHAR, "
+                        + "search_description VARCHAR)");
+            }
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_status ON tasks(status, due_date)");
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_priority ON tasks(priority)");
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_due_date ON tasks(due_date)");
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_title ON tasks(title)");
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_created_at ON tasks(created_at)");
+            statement.execute("CREATE INDEX IF NOT EXISTS tasks_completed_at ON tasks(completed_at)");
+            return created;
+        }
+    }
+
+    /**
+     * Importe le fichier de données par lots, dans une seule transaction
+     *
+     * Sans journal, l'instantané est lu en flux, sans être chargé entièrement. Si le
+     * journal des mutations contient des enregistrements, ils sont rejoués sur
+     * l'instantané avant l'import : les tâches qui ne sont que dans le journal
+     * entrent aussi dans la base.
+     */
+    private void migrate(StorageSettings settings) throws IOException, SQLException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        SnapshotStore store = new SnapshotStore(settings.getDataFile(), objectMapper, settings.getSnapshotFormat());
+        boolean journaled = TaskJournal.hasRecords(settings);
+        if (!journaled && !store.exists()) {
+            return;
+        }
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "MERGE INTO tasks (" + COLUMNS + ", search_title, search_description) KEY (id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            List<Task> pending = new ArrayList<>(MIGRATION_BATCH_SIZE);
+            try {
+                if (journaled) {
+                    for (Task task : TaskJournal.replay(settings, store, objectMapper)) {
+                        pending.add(task);
+                        if (pending.size() >= MIGRATION_BATCH_SIZE) {
+                            insertBatch(insert, pending);
+                        }
+                    }
+                } else {
+                    store.read((batch, fraction) -> {
+                        pending.addAll(batch);
+                        if (pending.size() >= MIGRATION_BATCH_SIZE) {
+                            insertBatch(insert, pending);
+                        }
+                    });
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            insertBatch(insert, pending);
+            connection.commit();
+        } catch (IOException | SQLException | RuntimeException e) {
+            // Table retirée : l'import sera retenté à la prochaine ouverture
+            connection.rollback();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE tasks");
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        migrationTimer.recordSince(start);
+    }
+
+    private void insertBatch(PreparedStatement insert, List<Task> tasks) {
+        try {
+            for (Task task : tasks) {
+                bind(insert, task);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            tasks.clear();
+        } catch (SQLException e) {
+            throw new UncheckedIOException(new IOException("Import du fichier de données impossible", e));
+        }
+    }
+
+    private int maxId() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM tasks")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Override
+    public synchronized int count(TaskQuery query) throws IOException {
+        long start = System.nanoTime();
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM tasks" + where(query, parameters);
+        try (PreparedStatement statement = prepare(sql, parameters);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new IOException("Erreur de comptage des tâches", e);
+        } finally {
+            countTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized Map<Task.Status, Integer> countByStatus() throws IOException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT status, COUNT(*) FROM tasks GROUP BY status")) {
+            Map<Task.Status, Integer> counts = new HashMap<>();
+            while (rs.next()) {
+                int status = rs.getInt(1);
+                counts.put(rs.wasNull() ? null : Task.Status.values()[status], rs.getInt(2));
+            }
+            return counts;
+        } catch (SQLException e) {
+            throw new IOException("Erreur de comptage des tâches", e);
+        } finally {
+            countTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized List<Task> find(TaskQuery query, int offset, int limit) throws IOException {
+        long start = System.nanoTime();
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM tasks" + where(query, parameters)
+                + orderBy(query) + " LIMIT ? OFFSET ?";
+        parameters.add(limit);
+        parameters.add(offset);
+        try (PreparedStatement statement = prepare(sql, parameters);
+             ResultSet rs = statement.executeQuery()) {
+            List<Task> page = new ArrayList<>(Math.min(limit, 1024));
+            while (rs.next()) {
+                page.add(read(rs));
+            }
+            return page;
+        } catch (SQLException e) {
+            throw new IOException("Erreur de lecture des tâches", e);
+        } finally {
+            queryTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized Task findById(int id) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + COLUMNS + " FROM tasks WHERE id = ?")) {
+            statement.setInt(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? read(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erreur de lecture de la tâche " + id, e);
+        }
+    }
+
+    @Override
+    public synchronized void insert(Task task) throws IOException {
+        long start = System.nanoTime();
+        task.setId(nextId);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO tasks (" + COLUMNS + ", search_title, search_description) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            bind(statement, task);
+            statement.executeUpdate();
+            nextId++;
+        } catch (SQLException e) {
+            throw new IOException("Erreur d'écriture de la tâche " + task.getId(), e);
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized void save(Task task) throws IOException {
+        long start = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE tasks SET title = ?, description = ?, priority = ?, status = ?, due_date = ?, "
+                        + "created_at = ?, completed_at = ?, search_title = ?, search_description = ? "
+                        + "WHERE id = ?")) {
+            bindValues(statement, task, 1);
+            statement.setInt(10, task.getId());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("Erreur d'écriture de la tâche " + task.getId(), e);
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized void delete(int id) throws IOException {
+        long start = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM tasks WHERE id = ?")) {
+            statement.setInt(1, id);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("Erreur de suppression de la tâche " + id, e);
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public synchronized void deleteAll() throws IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE tasks");
+        } catch (SQLException e) {
+            throw new IOException("Erreur de suppression des tâches", e);
+        }
+    }
+
+    @Override
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Erreur de fermeture de la base", e);
+        }
+    }
+
+    /**
+     * Clause WHERE de la requête ; les valeurs sont ajoutées aux paramètres, dans l'ordre
+     */
+    static String where(TaskQuery query, List<Object> parameters) {
+        TaskFilter filter = query.getFilter().atDay(TaskClock.current().today());
+        return filter.isAll() ? "" : " WHERE " + condition(filter, parameters);
+    }
+
+    /**
+     * Traduction SQL d'une condition, ET et OU entre parenthèses
+     */
+    private static String condition(TaskFilter filter, List<Object> parameters) {
+        switch (filter.kind) {
+            case ALL:
+                return "TRUE";
+            case ID:
+                parameters.add(filter.id);
+                return "id = ?";
+            case STATUS:
+                parameters.add(filter.status.ordinal());
+                return "status = ?";
+            case OPEN:
+                parameters.add(Task.Status.COMPLETED.ordinal());
+                return "(status IS NULL OR status <> ?)";
+            case PRIORITY:
+                parameters.add(filter.priority.ordinal());
+                return "priority = ?";
+            case DUE:
+                return range("due_date", filter.from, filter.to != null ? filter.to.plusDays(1) : null, parameters);
+            case CREATED:
+                return range("created_at", filter.fromTime(), filter.toTimeExclusive(), parameters);
+            case COMPLETED:
+                return range("completed_at", filter.fromTime(), filter.toTimeExclusive(), parameters);
+            case TEXT:
+                String pattern = "%" + escapeLike(filter.text) + "%";
+                parameters.add(pattern);
+                parameters.add(pattern);
+                return "(search_title LIKE ? ESCAPE '\\' OR search_description LIKE ? ESCAPE '\\')";
+            default:
+                List<String> operands = new ArrayList<>();
+                for (TaskFilter operand : filter.operands) {
+                    operands.add(condition(operand, parameters));
+                }
+                return "(" + String.join(filter.kind == TaskFilter.Kind.AND ? " AND " : " OR ", operands) + ")";
+        }
+    }
+
+    /**
+     * Intervalle [début, fin[ sur une colonne ; sans borne, la valeur doit seulement exister
+     */
+    private static String range(String column, Object from, Object toExclusive, List<Object> parameters) {
+        List<String> bounds = new ArrayList<>();
+        if (from != null) {
+            bounds.add(column + " >= ?");
+            parameters.add(from);
+        }
+        if (toExclusive != null) {
+            bounds.add(column + " < ?");
+            parameters.add(toExclusive);
+        }
+        if (bounds.isEmpty()) {
+            return column + " IS NOT NULL";
+        }
+        return "(" + String.join(" AND ", bounds) + ")";
+    }
+
+    /**
+     * Clause ORDER BY : les valeurs absentes en dernier dans l'ordre croissant, en
+     * premier dans l'ordre décroissant (comme le tri en mémoire), puis l'ID
+     */
+    static String orderBy(TaskQuery query) {
+        StringBuilder order = new StringBuilder(" ORDER BY ");
+        for (SortCriterion criterion : query.getSort()) {
+            if (criterion.getField() == Task.Field.ID) {
+                continue;
+            }
+            order.append(column(criterion.getField()))
+                    .append(criterion.isAscending() ? " ASC NULLS LAST, " : " DESC NULLS FIRST, ");
+        }
+        boolean idDescending = query.getSort().stream()
+                .anyMatch(c -> c.getField() == Task.Field.ID && !c.isAscending());
+        return order.append(idDescending ? "id DESC" : "id").toString();
+    }
+
+    private static String column(Task.Field field) {
+        switch (field) {
+            case TITLE: return "title";
+            case DESCRIPTION: return "description";
+            case PRIORITY: return "priority";
+            case STATUS: return "status";
+            case DUE_DATE: return "due_date";
+            case CREATED_AT: return "created_at";
+            case COMPLETED_AT: return "completed_at";
+            default: throw new IllegalArgumentException("Champ non triable: " + field);
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private PreparedStatement prepare(String sql, List<Object> parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+        return statement;
+    }
+
+    private static void bind(PreparedStatement statement, Task task) throws SQLException {
+        statement.setInt(1, task.getId());
+        bindValues(statement, task, 2);
+    }
+
+    /**
+     * Lie titre, description, priorité, statut, dates et colonnes de recherche à partir
+     * du paramètre donné
+     */
+    private static void bindValues(PreparedStatement statement, Task task, int first) throws SQLException {
+        int i = first;
+        statement.setString(i++, task.getTitle());
+        statement.setString(i++, task.getDescription());
+        setOrdinal(statement, i++, task.getPriority());
+        setOrdinal(statement, i++, task.getStatus());
+        statement.setObject(i++, task.getDueDate(), Types.DATE);
+        statement.setObject(i++, task.getCreatedAt(), Types.TIMESTAMP);
+        statement.setObject(i++, task.getCompletedAt(), Types.TIMESTAMP);
+        statement.setString(i++, TextNormalizer.normalize(task.getTitle()));
+        statement.setString(i, TextNormalizer.normalize(task.getDescription()));
+    }
+
+    private static void setOrdinal(PreparedStatement statement, int index, Enum<?> value) throws SQLException {
+        if (value != null) {
+            statement.setInt(index, value.ordinal());
+        } else {
+            statement.setNull(index, Types.TINYINT);
+        }
+    }
+
+    private static Task read(ResultSet rs) throws SQLException {
+        int priority = rs.getInt(4);
+        Task.Priority taskPriority = rs.wasNull() ? null : Task.Priority.values()[priority];
+        int status = rs.getInt(5);
+        Task.Status taskStatus = rs.wasNull() ? null : Task.Status.values()[status];
+        Task task = new Task(rs.getInt(1), rs.getString(2), rs.getString(3),
+                taskPriority, taskStatus, rs.getObject(6, LocalDate.class));
+        task.setCreatedAt(rs.getObject(7, LocalDateTime.class));
+        task.setCompletedAt(rs.getObject(8, LocalDateTime.class));
+        return task;
+    }
+}
@@ -0,0 +1,137 @@
+package com.taskmanager.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de valeurs positives (durées en nanosecondes, tailles en octets),
+ * sans verrou
+ *
+ * Les valeurs sont rangées dans des intervalles log-linéaires : chaque puissance de
+ * deux est découpée en 8 intervalles, soit au plus 12,5 % d'erreur sur un centile.
+ * Un enregistrement coûte quelques incréments atomiques et n'alloue rien ; il peut
+ * se faire depuis n'importe quel thread. La lecture n'est pas un instantané atomique :
+ * un enregistrement concurrent peut n'être compté qu'en partie.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Valeurs exactes de 0 à 15, puis 8 intervalles par puissance de deux jusqu'à 2^63
+    private static final int BUCKETS = (65 - SUB_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final MetricUnit unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name, MetricUnit unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public MetricUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Enregistre une valeur ; les valeurs négatives comptent pour zéro
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        count.incrementAndGet();
+        total.addAndGet(v);
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis un {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Centile approché (rang le plus proche), borné par le maximum observé
+     *
+     * @param percentile entre 0 et 100
+     * @return 0 si rien n'a été enregistré
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Remet l'histogramme à zéro
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return (exponent - SUB_BITS) * SUB_BUCKETS + (int) (value >>> (exponent - SUB_BITS));
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        long limit = (mantissa + 1) << (exponent - SUB_BITS);
+        return limit <= 0 ? Long.MAX_VALUE : limit - 1;
+    }
+}
@@ -0,0 +1,115 @@
+package com.taskmanager.service;
+
+/**
+ * Table de hachage à clés int primitives (sondage linéaire)
+ *
+ * Utilisée pour les listes de postings de l'index plein texte, indexées par
+ * trigramme encodé. La suppression recule les clés suivantes de la même grappe, sans
+ * marqueur de case supprimée : la table ne se dégrade pas au fil des suppressions.
+ */
+final class IntObjectHashMap<V> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    IntObjectHashMap() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    void put(int key, V value) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            grow();
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    void remove(int key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Vide la case et y ramène les clés suivantes de la grappe dont la position idéale
+     * la précède, pour qu'aucune ne devienne inaccessible
+     */
+    private void shiftBack(int hole) {
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int ideal = slot(keys[next]);
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recherche au fil de la frappe, évaluée hors du thread de l'interface
+ *
+ * Les frappes rapprochées sont regroupées : seule la dernière requête est évaluée
+ * une fois le délai écoulé, et une évaluation devenue obsolète s'interrompt dès
+ * qu'une nouvelle requête arrive. L'évaluation porte sur le dernier instantané des
+ * tâches ({@link TaskSnapshot}), filtré par l'index plein texte. Quand la nouvelle requête prolonge la
+ * précédente (« reu » puis « reun »), seul le résultat précédent est filtré à nouveau.
+ *
+ * Le résultat est remis en une seule fois via l'exécuteur de l'interface, où les IDs
+ * trouvés sont rapportés aux tâches de la liste. Si les tâches ont changé pendant
+ * l'évaluation (nouvelle version de l'instantané), la requête est relancée.
+ */
+public final class LiveSearch implements AutoCloseable {
+
+    /**
+     * Réception des résultats, sur le thread de l'interface
+     */
+    public interface ResultListener {
+        /**
+         * @param matches tâches trouvées (ensemble par identité), ou null si la requête est vide
+         */
+        void onResult(String query, Set<Task> matches);
+    }
+
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final TaskService service;
+    private final Executor uiExecutor;
+    private final long debounceMillis;
+    private final ResultListener listener;
+    private final Histogram timer;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Thread de l'interface
+    private ScheduledFuture<?> pending;
+
+    // Thread de recherche : dernier résultat complet, base des affinages
+    private TaskSnapshot lastSnapshot;
+    private String lastQuery;
+    private List<Task> lastMatches;
+
+    public LiveSearch(TaskService service, Executor uiExecutor, long debounceMillis,
+                      ResultListener listener) {
+        this.service = service;
+        this.uiExecutor = uiExecutor;
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.timer = service.getMetrics().histogram("recherche en direct", MetricUnit.NANOSECONDS);
+        this.worker = Executors.newSingleThreadScheduledExecutor(ServiceThreads.daemon("task-search"));
+    }
+
+    /**
+     * Nouvelle saisie ; à appeler depuis le thread de l'interface
+     */
+    public void submit(String query) {
+        schedule(query, debounceMillis);
+    }
+
+    private void schedule(String query, long delayMillis) {
+        long current = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (query == null || query.trim().isEmpty()) {
+            listener.onResult(query, null);
+            return;
+        }
+        TaskSnapshot snapshot = service.getSnapshot();
+        String normalizedQuery = TextNormalizer.normalize(query);
+        pending = worker.schedule(() -> evaluate(current, query, normalizedQuery, snapshot),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluate(long current, String query, String normalizedQuery, TaskSnapshot snapshot) {
+        long start = System.nanoTime();
+        List<Task> matches;
+        if (snapshot == lastSnapshot && normalizedQuery.contains(lastQuery)) {
+            matches = refine(current, lastMatches, normalizedQuery);
+        } else {
+            matches = scan(current, snapshot.getTasks(), normalizedQuery);
+        }
+        if (matches == null) {
+            // Remplacée par une requête plus récente
+            return;
+        }
+        timer.recordSince(start);
+        lastSnapshot = snapshot;
+        lastQuery = normalizedQuery;
+        lastMatches = matches;
+
+        int[] ids = new int[matches.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = matches.get(i).getId();
+        }
+        uiExecutor.execute(() -> deliver(current, query, ids, snapshot));
+    }
+
+    private void deliver(long current, String query, int[] ids, TaskSnapshot snapshot) {
+        if (current != generation.get()) {
+            return;
+        }
+        pending = null;
+        if (snapshot != service.getSnapshot()) {
+            // Tâches ajoutées, supprimées ou modifiées pendant l'évaluation
+            schedule(query, 0);
+            return;
+        }
+        // Instantané à jour : chaque ID correspond à une tâche de la liste
+        Set<Task> result = Collections.newSetFromMap(new IdentityHashMap<>(ids.length * 2));
+        for (int id : ids) {
+            result.add(service.findTaskById(id));
+        }
+        listener.onResult(query, result);
+    }
+
+    private List<Task> scan(long current, List<Task> tasks, String normalizedQuery) {
+        int[] ids = service.textIndex().candidates(normalizedQuery);
+        BitSet candidates = null;
+        if (ids != null) {
+            candidates = new BitSet();
+            for (int id : ids) {
+                if (id >= 0) {
+                    candidates.set(id);
+                }
+            }
+        }
+        boolean verify = candidates == null || !TaskTextIndex.isExact(normalizedQuery);
+
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && current != generation.get()) {
+                return null;
+            }
+            Task task = tasks.get(i);
+            if (candidates != null && (task.getId() < 0 || !candidates.get(task.getId()))) {
+                continue;
+            }
+            if (!verify || TaskTextIndex.matches(task, normalizedQuery)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private List<Task> refine(long current, List<Task> previous, String normalizedQuery) {
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < previous.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && current != generation.get()) {
+                return null;
+            }
+            Task task = previous.get(i);
+            if (TaskTextIndex.matches(task, normalizedQuery)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Abandonne la recherche en cours ; à appeler depuis le thread de l'interface
+     */
+    @Override
+    public void close() {
+        generation.incrementAndGet();
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.taskmanager.service;
+
+import java.util.Locale;
+
+/**
+ * Unité d'une mesure, pour l'affichage des diagnostics
+ */
+public enum MetricUnit {
+    NANOSECONDS,
+    BYTES,
+    COUNT;
+
+    /**
+     * Valeur lisible : « 1,2 ms », « 3,4 Mo », « 12 345 »
+     */
+    public String format(double value) {
+        switch (this) {
+            case NANOSECONDS:
+                if (value < 1_000) {
+                    return String.format(Locale.FRANCE, "%.0f ns", value);
+                }
+                if (value < 1_000_000) {
+                    return String.format(Locale.FRANCE, "%.1f µs", value / 1_000);
+                }
+                if (value < 1_000_000_000) {
+                    return String.format(Locale.FRANCE, "%.1f ms", value / 1_000_000);
+                }
+                return String.format(Locale.FRANCE, "%.2f s", value / 1_000_000_000);
+            case BYTES:
+                if (value < 1024) {
+                    return String.format(Locale.FRANCE, "%.0f o", value);
+                }
+                if (value < 1024 * 1024) {
+                    return String.format(Locale.FRANCE, "%.1f Ko", value / 1024);
+                }
+                if (value < 1024L * 1024 * 1024) {
+                    return String.format(Locale.FRANCE, "%.1f Mo", value / (1024 * 1024));
+                }
+                return String.format(Locale.FRANCE, "%.2f Go", value / (1024L * 1024 * 1024));
+            default:
+                return String.format(Locale.FRANCE, "%,.0f", value);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import javafx.collections.ObservableListBase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Liste observable des résultats d'une requête, chargée page par page
+ *
+ * La taille vient d'un comptage ; une page n'est lue qu'au premier accès à l'une de
+ * ses lignes (une TableView ne demande que les lignes visibles) et seules les
+ * dernières pages lues restent en mémoire. Le tas reste donc borné quel que soit le
+ * nombre de tâches stockées.
+ *
+ * Comptages et pages sont lus sur l'exécuteur du stockage, jamais sur le thread de
+ * l'interface : en attendant, la liste garde sa taille précédente et une ligne pas
+ * encore lue vaut null ; elle est remplacée à l'arrivée de sa page. Une réponse
+ * arrivée après un changement de requête est ignorée.
+ *
+ * Les tâches de la liste sont des copies : après une écriture dans le stockage,
+ * {@link #refresh()} relit le comptage et signale les lignes chargées comme modifiées.
+ * Toutes les méthodes s'appellent depuis le thread de l'interface.
+ */
+public final class PagedTaskList extends ObservableListBase<Task> {
+
+    /**
+     * Suivi des lectures, sur le thread de l'interface
+     */
+    public interface Listener {
+        /**
+         * Comptage lu et appliqué à la liste
+         */
+        void onRefreshed(int size);
+
+        /**
+         * Échec de lecture d'un comptage, ou d'une page dont les lignes restent alors vides
+         */
+        void onFailed(IOException error);
+    }
+
+    private final TaskRepository repository;
+    private final int pageSize;
+    private final Executor storageExecutor;
+    private final Executor uiExecutor;
+    private final Listener listener;
+    private final Map<Integer, List<Task>> pages;
+    // Pages en cours de lecture, avec la génération de la requête qui les a demandées
+    private final Map<Integer, Long> loading = new HashMap<>();
+
+    private TaskQuery query = TaskQuery.all();
+    private int size;
+    // Incrémentée à chaque relecture : les réponses d'une génération dépassée sont ignorées
+    private long generation;
+
+    /**
+     * @param pageSize        nombre de lignes lues à la fois
+     * @param maxPages        nombre de pages gardées en mémoire (les moins récemment lues partent)
+     * @param storageExecutor exécuteur des lectures (un seul thread : les lectures suivent
+     *                        les écritures soumises avant elles)
+     * @param uiExecutor      exécuteur du thread de l'interface
+     */
+    public PagedTaskList(TaskRepository repository, int pageSize, int maxPages,
+                         Executor storageExecutor, Executor uiExecutor, Listener listener) {
+        this.repository = repository;
+        this.pageSize = pageSize;
+        this.storageExecutor = storageExecutor;
+        this.uiExecutor = uiExecutor;
+        this.listener = listener;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Task>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    public TaskQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Remplace la requête et relit les résultats
+     */
+    public void setQuery(TaskQuery query) {
+        this.query = query;
+        refresh();
+    }
+
+    /**
+     * Relit le comptage puis vide les pages chargées
+     */
+    public void refresh() {
+        long requested = ++generation;
+        TaskQuery counted = query;
+        storageExecutor.execute(() -> {
+            try {
+                int newSize = repository.count(counted);
+                uiExecutor.execute(() -> {
+                    if (requested == generation) {
+                        applySize(newSize);
+                        listener.onRefreshed(newSize);
+                    }
+                });
+            } catch (IOException e) {
+                uiExecutor.execute(() -> listener.onFailed(e));
+            }
+        });
+    }
+
+    private void applySize(int newSize) {
+        int oldSize = size;
+        List<Integer> loaded = new ArrayList<>(pages.keySet());
+        pages.clear();
+        size = newSize;
+
+        beginChange();
+        // Seules les lignes déjà chargées peuvent être affichées : inutile de signaler les autres
+        int common = Math.min(oldSize, newSize);
+        for (int page : loaded) {
+            int end = Math.min(common, (page + 1) * pageSize);
+            for (int i = page * pageSize; i < end; i++) {
+                nextUpdate(i);
+            }
+        }
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else if (newSize < oldSize) {
+            nextRemove(newSize, Collections.nCopies(oldSize - newSize, (Task) null));
+        }
+        endChange();
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " hors de la liste de taille " + size);
+        }
+        int page = index / pageSize;
+        List<Task> tasks = pages.get(page);
+        if (tasks == null) {
+            load(page);
+            return null;
+        }
+        int offset = index - page * pageSize;
+        // Stockage modifié depuis le comptage : ligne vide jusqu'au prochain refresh()
+        return offset < tasks.size() ? tasks.get(offset) : null;
+    }
+
+    /**
+     * Demande la lecture d'une page, sauf si elle est déjà en cours pour cette requête
+     */
+    private void load(int page) {
+        long requested = generation;
+        Long pending = loading.get(page);
+        if (pending != null && pending == requested) {
+            return;
+        }
+        loading.put(page, requested);
+        TaskQuery read = query;
+        storageExecutor.execute(() -> {
+            try {
+                List<Task> tasks = repository.find(read, page * pageSize, pageSize);
+                uiExecutor.execute(() -> onPageLoaded(page, requested, tasks));
+            } catch (IOException e) {
+                // Page vide jusqu'à la prochaine relecture, plutôt qu'une nouvelle lecture à chaque affichage
+                uiExecutor.execute(() -> {
+                    onPageLoaded(page, requested, List.of());
+                    if (requested == generation) {
+                        listener.onFailed(e);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(int page, long requested, List<Task> tasks) {
+        if (loading.get(page) != null && loading.get(page) == requested) {
+            loading.remove(page);
+        }
+        if (requested != generation) {
+            return;
+        }
+        pages.put(page, tasks);
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from < to) {
+            beginChange();
+            nextReplace(from, to, Collections.nCopies(to - from, (Task) null));
+            endChange();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Nombre de pages actuellement en mémoire
+     */
+    public int loadedPages() {
+        return pages.size();
+    }
+}
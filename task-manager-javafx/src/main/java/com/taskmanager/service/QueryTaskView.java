@@ -0,0 +1,268 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vue des tâches du service satisfaisant une requête, dans l'ordre de la liste
+ *
+ * Au changement de requête, les tâches retenues viennent du planificateur
+ * ({@link TaskService#query(TaskQuery)}) : seules elles sont parcourues, jamais la
+ * liste entière comme le ferait une FilteredList. Les modifications de la liste sont
+ * ensuite appliquées une à une, en évaluant la requête sur les seules tâches ajoutées
+ * ou remplacées (y compris les remplacements par elles-mêmes du changement de jour).
+ *
+ * Toutes les méthodes s'appellent depuis le thread propriétaire des tâches.
+ */
+public final class QueryTaskView extends ObservableListBase<Task> implements AutoCloseable {
+
+    private final TaskService service;
+    private final ObservableList<Task> source;
+    private final ListChangeListener<Task> sourceListener = this::onSourceChanged;
+
+    private TaskQuery query = TaskQuery.all();
+    // Positions croissantes des tâches retenues dans la source ; null : toute la source
+    private int[] positions;
+    private int size;
+
+    public QueryTaskView(TaskService service) {
+        this.service = service;
+        this.source = service.getTasks();
+        source.addListener(sourceListener);
+    }
+
+    @Override
+    public Task get(int index) {
+        if (positions == null) {
+            return source.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", taille: " + size);
+        }
+        return source.get(positions[index]);
+    }
+
+    @Override
+    public int size() {
+        return positions == null ? source.size() : size;
+    }
+
+    public TaskQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Affiche les tâches satisfaisant la requête, évaluée par les index du service ;
+     * l'ordre de la requête est ignoré
+     */
+    public void setQuery(TaskQuery query) {
+        TaskQuery unsorted = query.withSort(List.of());
+        show(unsorted, unsorted.getFilter().isAll() ? null : service.query(unsorted));
+    }
+
+    /**
+     * Affiche un résultat déjà calculé pour la requête (recherche en arrière-plan)
+     *
+     * @param matches tâches de la liste satisfaisant la requête, dans un ordre quelconque ;
+     *                celles qui n'y sont plus sont ignorées
+     */
+    public void setQuery(TaskQuery query, Collection<Task> matches) {
+        show(query.withSort(List.of()), matches);
+    }
+
+    private void show(TaskQuery newQuery, Collection<Task> matches) {
+        int[] newPositions = null;
+        int newSize = 0;
+        if (matches != null) {
+            newPositions = new int[Math.max(16, matches.size())];
+            for (Task task : matches) {
+                int position = service.positionOf(task);
+                if (position >= 0) {
+                    newPositions[newSize++] = position;
+                }
+            }
+            Arrays.sort(newPositions, 0, newSize);
+        }
+
+        List<Task> previous = new ArrayList<>(this);
+        query = newQuery;
+        positions = newPositions;
+        size = newSize;
+        beginChange();
+        nextRemove(0, previous);
+        nextAdd(0, size());
+        endChange();
+    }
+
+    private void onSourceChanged(ListChangeListener.Change<? extends Task> change) {
+        beginChange();
+        while (change.next()) {
+            if (positions == null) {
+                forward(change);
+            } else if (change.wasPermutated()) {
+                permute(change);
+            } else if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    update(i);
+                }
+            } else {
+                removeRange(change.getFrom(), change.getRemoved());
+                insertRange(change.getFrom(), change.getTo());
+            }
+        }
+        endChange();
+    }
+
+    /**
+     * Toute la source est affichée : la modification est transmise telle quelle
+     */
+    private void forward(ListChangeListener.Change<? extends Task> change) {
+        int from = change.getFrom();
+        int to = change.getTo();
+        if (change.wasPermutated()) {
+            int[] permutation = new int[to - from];
+            for (int i = from; i < to; i++) {
+                permutation[i - from] = change.getPermutation(i);
+            }
+            nextPermutation(from, to, permutation);
+        } else if (change.wasUpdated()) {
+            for (int i = from; i < to; i++) {
+                nextUpdate(i);
+            }
+        } else if (change.wasReplaced()) {
+            nextReplace(from, to, new ArrayList<>(change.getRemoved()));
+        } else if (change.wasRemoved()) {
+            nextRemove(from, new ArrayList<>(change.getRemoved()));
+        } else {
+            nextAdd(from, to);
+        }
+    }
+
+    /**
+     * Retire les tâches retenues parmi celles retirées de la source à partir de from
+     */
+    private void removeRange(int from, List<? extends Task> removed) {
+        int start = lowerBound(from);
+        int end = lowerBound(from + removed.size());
+        if (end > start) {
+            List<Task> removedHere = new ArrayList<>(end - start);
+            for (int k = start; k < end; k++) {
+                removedHere.add(removed.get(positions[k] - from));
+            }
+            System.arraycopy(positions, end, positions, start, size - end);
+            size -= end - start;
+            nextRemove(start, removedHere);
+        }
+        for (int k = start; k < size; k++) {
+            positions[k] -= removed.size();
+        }
+    }
+
+    /**
+     * Ajoute celles des tâches [from, to) de la source qui satisfont la requête
+     */
+    private void insertRange(int from, int to) {
+        int start = lowerBound(from);
+        for (int k = start; k < size; k++) {
+            positions[k] += to - from;
+        }
+        int count = 0;
+        int[] added = null;
+        for (int i = from; i < to; i++) {
+            if (query.matches(source.get(i))) {
+                if (added == null) {
+                    added = new int[to - i];
+                }
+                added[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        if (size + count > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(size + count, positions.length * 2));
+        }
+        System.arraycopy(positions, start, positions, start + count, size - start);
+        System.arraycopy(added, 0, positions, start, count);
+        size += count;
+        nextAdd(start, start + count);
+    }
+
+    /**
+     * Tâche modifiée sur place : retenue, écartée ou simplement signalée
+     */
+    private void update(int sourceIndex) {
+        int k = lowerBound(sourceIndex);
+        boolean shown = k < size && positions[k] == sourceIndex;
+        boolean matches = query.matches(source.get(sourceIndex));
+        if (shown && matches) {
+            nextUpdate(k);
+        } else if (shown) {
+            Task task = source.get(sourceIndex);
+            System.arraycopy(positions, k + 1, positions, k, size - k - 1);
+            size--;
+            nextRemove(k, task);
+        } else if (matches) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            System.arraycopy(positions, k, positions, k + 1, size - k);
+            positions[k] = sourceIndex;
+            size++;
+            nextAdd(k, k + 1);
+        }
+    }
+
+    /**
+     * Source réordonnée : mêmes tâches retenues, à leurs nouvelles positions
+     */
+    private void permute(ListChangeListener.Change<? extends Task> change) {
+        int from = change.getFrom();
+        int to = change.getTo();
+        // Nouvelle position dans la source (bits hauts) et ancien rang dans la vue (bits bas)
+        long[] moved = new long[size];
+        for (int k = 0; k < size; k++) {
+            int position = positions[k];
+            if (position >= from && position < to) {
+                position = change.getPermutation(position);
+            }
+            moved[k] = (long) position << 32 | k;
+        }
+        Arrays.sort(moved);
+        int[] permutation = new int[size];
+        for (int k = 0; k < size; k++) {
+            positions[k] = (int) (moved[k] >>> 32);
+            permutation[(int) moved[k]] = k;
+        }
+        nextPermutation(0, size, permutation);
+    }
+
+    /**
+     * Premier rang dont la position dans la source est au moins position
+     */
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() {
+        source.removeListener(sourceListener);
+    }
+}
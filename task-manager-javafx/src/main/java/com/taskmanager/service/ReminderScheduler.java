@@ -0,0 +1,181 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rappels d'échéance : une tâche non terminée est signalée due à l'heure de rappel de
+ * son jour d'échéance, puis en retard à minuit
+ *
+ * Aucune tâche n'est parcourue en attendant : l'index des échéances du service
+ * ({@link TaskDueDateIndex}, trié par jour) donne directement le prochain jour
+ * concerné, et un seul réveil est programmé sur un unique thread, à l'instant du
+ * prochain rappel. Une modification d'échéance ou de statut ne fait que demander un
+ * nouveau calcul de cet instant (une recherche dans l'index), regroupé à la fin du
+ * traitement en cours.
+ *
+ * Le réveil a lieu au plus tard une heure après le précédent : après une mise en
+ * veille ou un changement de l'heure système, les rappels manqués sont rattrapés en un
+ * seul lot. Les rappels sont calculés et remis sur le thread propriétaire du service.
+ */
+public final class ReminderScheduler implements AutoCloseable {
+
+    /**
+     * Destinataire des rappels, appelé sur le thread de l'interface
+     */
+    public interface Listener {
+
+        /**
+         * Tâches non terminées dues ce jour-là, à l'heure de rappel
+         */
+        void onDue(LocalDate day, List<Task> tasks);
+
+        /**
+         * Tâches non terminées dont l'échéance vient de passer (au démarrage : toutes
+         * celles en retard)
+         */
+        void onOverdue(List<Task> tasks);
+    }
+
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final TaskDueDateIndex index;
+    private final Executor uiExecutor;
+    private final Clock clock;
+    private final LocalTime reminderTime;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor timer;
+    private final AtomicBoolean rescheduleScheduled = new AtomicBoolean();
+
+    // Thread propriétaire uniquement
+    private ScheduledFuture<?> pending;
+    private LocalDateTime pendingAt;
+    // Instant jusqu'auquel les rappels ont été remis ; null avant le premier passage
+    private LocalDateTime checkedThrough;
+    private volatile boolean closed;
+
+    ReminderScheduler(TaskDueDateIndex index, Executor uiExecutor, Clock clock, LocalTime reminderTime,
+                      Listener listener) {
+        this.index = index;
+        this.uiExecutor = uiExecutor;
+        this.clock = clock;
+        this.reminderTime = reminderTime;
+        this.listener = listener;
+        this.timer = new ScheduledThreadPoolExecutor(1, ServiceThreads.daemon("task-reminders"));
+        // Un réveil annulé est retiré de la file aussitôt
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Remet les rappels en attente (tâches déjà en retard, dues aujourd'hui si l'heure
+     * est passée) puis programme le suivant. Depuis le thread propriétaire.
+     */
+    void start() {
+        fire();
+    }
+
+    /**
+     * Échéances ou statuts modifiés : le prochain réveil est recalculé une seule fois,
+     * après le traitement en cours
+     */
+    void dueDatesChanged() {
+        if (!closed && rescheduleScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(() -> {
+                rescheduleScheduled.set(false);
+                reschedule();
+            });
+        }
+    }
+
+    /**
+     * Prochain instant de rappel d'après l'index, ou null sans tâche à venir
+     */
+    LocalDateTime nextReminder(LocalDateTime now) {
+        LocalDate day = index.firstDayFrom(now.toLocalDate());
+        if (day == null) {
+            return null;
+        }
+        LocalDateTime due = day.atTime(reminderTime);
+        if (due.isAfter(now)) {
+            return due;
+        }
+        // Heure de rappel passée aujourd'hui : prochain rappel quand ces tâches passent en retard
+        return day.plusDays(1).atStartOfDay();
+    }
+
+    private void reschedule() {
+        if (closed) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime next = nextReminder(now);
+        if (pending != null && Objects.equals(next, pendingAt)) {
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        long delay = next != null ? Math.max(0, Duration.between(now, next).toMillis()) : MAX_SLEEP_MILLIS;
+        pendingAt = next;
+        pending = timer.schedule(() -> uiExecutor.execute(this::onTimer),
+                Math.min(delay, MAX_SLEEP_MILLIS), TimeUnit.MILLISECONDS);
+    }
+
+    private void onTimer() {
+        pending = null;
+        pendingAt = null;
+        fire();
+    }
+
+    /**
+     * Remet les rappels échus depuis le dernier passage, puis programme le suivant
+     */
+    private void fire() {
+        if (closed) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        if (checkedThrough != null && now.isBefore(checkedThrough)) {
+            // Heure système reculée : les rappels reprennent à partir de la nouvelle heure
+            checkedThrough = now;
+        }
+
+        // En retard : échéances des jours écoulés depuis le dernier passage
+        LocalDate from = checkedThrough != null ? checkedThrough.toLocalDate() : null;
+        if (from == null || from.isBefore(today)) {
+            List<Task> overdue = index.range(from, today.minusDays(1));
+            if (!overdue.isEmpty()) {
+                listener.onOverdue(overdue);
+            }
+        }
+        // Dues aujourd'hui : heure de rappel atteinte depuis le dernier passage
+        LocalDateTime dueAt = today.atTime(reminderTime);
+        if ((checkedThrough == null || dueAt.isAfter(checkedThrough)) && !dueAt.isAfter(now)) {
+            List<Task> due = index.on(today);
+            if (!due.isEmpty()) {
+                listener.onDue(today, due);
+            }
+        }
+        checkedThrough = now;
+        reschedule();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,167 @@
+package com.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Mesures de fonctionnement du service : histogrammes (durées, tailles), compteurs
+ * cumulés et jauges
+ *
+ * Les histogrammes et compteurs sont alimentés en continu, sans verrou, depuis
+ * n'importe quel thread. Les jauges (taille de la liste, des index, du tas) ne
+ * coûtent rien tant qu'on ne les lit pas : elles sont évaluées à la lecture du
+ * rapport, qui se fait depuis le thread de l'interface puisqu'elles consultent les
+ * index du service.
+ */
+public final class ServiceMetrics {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    // Enregistrement (rare) synchronisé ; les listes sont remplacées, jamais modifiées
+    private volatile List<Histogram> histograms = List.of();
+    private volatile List<Counter> counters = List.of();
+    private volatile List<Gauge> gauges = List.of();
+
+    /**
+     * Histogramme de ce nom, créé au premier appel
+     */
+    public synchronized Histogram histogram(String name, MetricUnit unit) {
+        for (Histogram histogram : histograms) {
+            if (histogram.getName().equals(name)) {
+                return histogram;
+            }
+        }
+        Histogram histogram = new Histogram(name, unit);
+        histograms = append(histograms, histogram);
+        return histogram;
+    }
+
+    /**
+     * Compteur de ce nom, créé au premier appel
+     */
+    public synchronized Counter counter(String name, MetricUnit unit) {
+        for (Counter counter : counters) {
+            if (counter.name.equals(name)) {
+                return counter;
+            }
+        }
+        Counter counter = new Counter(name, unit);
+        counters = append(counters, counter);
+        return counter;
+    }
+
+    /**
+     * Ajoute une jauge, évaluée à chaque lecture du rapport
+     */
+    public synchronized void gauge(String name, MetricUnit unit, LongSupplier value) {
+        gauges = append(gauges, new Gauge(name, unit, value));
+    }
+
+    private static <T> List<T> append(List<T> list, T element) {
+        List<T> copy = new ArrayList<>(list);
+        copy.add(element);
+        return List.copyOf(copy);
+    }
+
+    public List<Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Remet à zéro les histogrammes et les compteurs
+     */
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (Counter counter : counters) {
+            counter.adder.reset();
+        }
+    }
+
+    /**
+     * Rapport texte de toutes les mesures ; à appeler depuis le thread de l'interface
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("Diagnostics du ").append(LocalDateTime.now().format(TIMESTAMP)).append("\n\n");
+
+        out.append(String.format(Locale.FRANCE, "%-28s %10s %10s %10s %10s %10s %10s%n",
+                "Opération", "nombre", "moyenne", "p50", "p99", "p99,9", "max"));
+        for (Histogram histogram : histograms) {
+            MetricUnit unit = histogram.getUnit();
+            out.append(String.format(Locale.FRANCE, "%-28s %10s %10s %10s %10s %10s %10s%n",
+                    histogram.getName(),
+                    MetricUnit.COUNT.format(histogram.getCount()),
+                    unit.format(histogram.getMean()),
+                    unit.format(histogram.getPercentile(50)),
+                    unit.format(histogram.getPercentile(99)),
+                    unit.format(histogram.getPercentile(99.9)),
+                    unit.format(histogram.getMax())));
+        }
+
+        out.append('\n');
+        for (Counter counter : counters) {
+            out.append(String.format(Locale.FRANCE, "%-28s %10s%n", counter.name, counter.unit.format(counter.get())));
+        }
+        for (Gauge gauge : gauges) {
+            out.append(String.format(Locale.FRANCE, "%-28s %10s%n", gauge.name,
+                    gauge.unit.format(gauge.value.getAsLong())));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Écrit le rapport dans un fichier ; à appeler depuis le thread de l'interface
+     */
+    public void dump(Path file) throws IOException {
+        Files.writeString(file, report(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Total cumulé (octets écrits, erreurs...), sans verrou
+     */
+    public static final class Counter {
+        private final String name;
+        private final MetricUnit unit;
+        private final LongAdder adder = new LongAdder();
+
+        Counter(String name, MetricUnit unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        public void add(long value) {
+            adder.add(value);
+        }
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    private static final class Gauge {
+        private final String name;
+        private final MetricUnit unit;
+        private final LongSupplier value;
+
+        Gauge(String name, MetricUnit unit, LongSupplier value) {
+            this.name = name;
+            this.unit = unit;
+            this.value = value;
+        }
+    }
+}
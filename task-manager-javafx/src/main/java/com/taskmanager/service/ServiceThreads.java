@@ -0,0 +1,25 @@
+package com.taskmanager.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabrique de threads d'arrière-plan pour les services
+ */
+final class ServiceThreads {
+
+    private ServiceThreads() {
+    }
+
+    /**
+     * Threads démons nommés : ils n'empêchent pas l'application de se fermer
+     */
+    static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.service;
+
+/**
+ * Format de l'instantané principal des tâches
+ */
+public enum SnapshotFormat {
+    /** Tableau JSON lisible (tasks.json), format historique */
+    JSON,
+    /** Format binaire compact lu par projection mémoire (voir {@link BinarySnapshotCodec}) */
+    BINARY;
+
+    /**
+     * Lit un format depuis sa forme textuelle ("json", "binary")
+     */
+    public static SnapshotFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return JSON;
+        }
+        return SnapshotFormat.valueOf(value.trim().toUpperCase());
+    }
+}
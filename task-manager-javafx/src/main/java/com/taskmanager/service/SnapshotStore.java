@@ -0,0 +1,176 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lecture et écriture de l'instantané complet des tâches (tasks.json ou tasks.bin)
+ *
+ * Le format (JSON lisible ou binaire compact, voir {@link SnapshotFormat}) est fixé
+ * par les réglages ; l'import et l'export restent en JSON.
+ *
+ * L'écriture passe par un fichier temporaire renommé ensuite sur le fichier
+ * cible : un arrêt brutal pendant l'écriture laisse l'ancien instantané intact.
+ *
+ * Avec un verrou ({@link DataFileLock}), chaque écriture se fait sous le verrou et
+ * l'empreinte de la dernière version connue est tenue à jour : un fichier modifié par
+ * un autre processus se reconnaît à une empreinte différente. Une écriture par-dessus
+ * une version inconnue (compactage du journal) ne met pas l'empreinte à jour, pour que
+ * la modification extérieure soit quand même relue.
+ */
+class SnapshotStore {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final SnapshotFormat format;
+    private final DataFileLock lock;
+    private volatile FileStamp knownStamp;
+
+    SnapshotStore(Path file, ObjectMapper objectMapper) {
+        this(file, objectMapper, SnapshotFormat.JSON);
+    }
+
+    SnapshotStore(Path file, ObjectMapper objectMapper, SnapshotFormat format) {
+        this(file, objectMapper, format, null);
+    }
+
+    /**
+     * @param lock verrou du fichier, ou null pour ne pas suivre les modifications extérieures
+     */
+    SnapshotStore(Path file, ObjectMapper objectMapper, SnapshotFormat format, DataFileLock lock) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.lock = lock;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    boolean exists() {
+        return Files.exists(file);
+    }
+
+    /**
+     * Lit l'instantané, ou retourne une liste vide s'il n'existe pas
+     */
+    List<Task> read() throws IOException {
+        if (!exists()) {
+            return new ArrayList<>();
+        }
+        if (format == SnapshotFormat.BINARY) {
+            return BinarySnapshotCodec.read(file);
+        }
+        return objectMapper.readValue(file.toFile(), new TypeReference<List<Task>>() {});
+    }
+
+    /**
+     * Lit l'instantané par lots (chargement progressif)
+     *
+     * @return le nombre de tâches lues
+     */
+    int read(TaskStreamReader.BatchConsumer consumer) throws IOException {
+        if (format == SnapshotFormat.BINARY) {
+            return BinarySnapshotCodec.read(file, consumer);
+        }
+        return new TaskStreamReader(objectMapper).read(file, consumer);
+    }
+
+    /**
+     * Exécute l'action sous le verrou du fichier (directement sans verrou)
+     */
+    <T> T locked(DataFileLock.LockedAction<T> action) throws IOException {
+        return lock != null ? lock.withLock(action) : action.run();
+    }
+
+    /**
+     * Empreinte actuelle du fichier, ou null sans suivi
+     */
+    FileStamp stamp() throws IOException {
+        return lock != null ? FileStamp.of(file) : null;
+    }
+
+    /**
+     * Retient la version du fichier qui vient d'être lue
+     */
+    void setKnownStamp(FileStamp stamp) {
+        knownStamp = stamp;
+    }
+
+    /**
+     * Indique si le fichier a été modifié par ailleurs depuis la dernière version connue
+     */
+    boolean changedExternally() throws IOException {
+        FileStamp known = knownStamp;
+        FileStamp current = stamp();
+        return known != null && current != null && current.exists() && !current.equals(known);
+    }
+
+    /**
+     * Remplace atomiquement l'instantané par les tâches données
+     */
+    void write(Collection<Task> tasks) throws IOException {
+        locked(() -> {
+            boolean known = !changedExternally();
+            replaceContent(file, tasks);
+            if (known) {
+                knownStamp = stamp();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Écrit les tâches dans un autre fichier, au même format, sans toucher à l'instantané
+     */
+    void writeCopy(Path target, Collection<Task> tasks) throws IOException {
+        replaceContent(target, tasks);
+    }
+
+    private void replaceContent(Path target, Collection<Task> tasks) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (format == SnapshotFormat.BINARY) {
+                BinarySnapshotCodec.write(tasks, channel);
+            } else {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                objectMapper.writerWithDefaultPrettyPrinter()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValue(out, tasks);
+                out.flush();
+            }
+            // Le contenu doit être sur le disque avant le renommage
+            channel.force(true);
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Renomme le fichier temporaire sur la cible, atomiquement si le système le permet
+     */
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.Objects;
+
+/**
+ * Critère de tri : un champ de la tâche et un sens
+ */
+public final class SortCriterion {
+
+    private final Task.Field field;
+    private final boolean ascending;
+
+    public SortCriterion(Task.Field field, boolean ascending) {
+        this.field = Objects.requireNonNull(field, "field");
+        this.ascending = ascending;
+    }
+
+    public Task.Field getField() {
+        return field;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Les champs texte sont comparés par clé de collation (ordre alphabétique français)
+     */
+    boolean isText() {
+        return field == Task.Field.TITLE || field == Task.Field.DESCRIPTION;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SortCriterion)) return false;
+        SortCriterion other = (SortCriterion) o;
+        return field == other.field && ascending == other.ascending;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, ascending);
+    }
+
+    @Override
+    public String toString() {
+        return field.getPropertyName() + (ascending ? " croissant" : " décroissant");
+    }
+}
@@ -0,0 +1,362 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Vue triée d'une liste de tâches, sans modifier la liste source
+ *
+ * Contrairement à un tri de la liste principale, l'ordre sauvegardé reste intact et
+ * les autres écouteurs ne voient aucune permutation. Le tri compare des clés
+ * précalculées (voir {@link TaskSortKey}) et accepte plusieurs critères, comme
+ * l'ordre de tri d'une TableView.
+ *
+ * Au-delà de quelques dizaines de milliers de tâches, les clés sont calculées et
+ * triées sur un thread d'arrière-plan, à partir de copies figées prises sur le thread
+ * de l'interface (celles du service quand il est fourni, sinon des clones) : les
+ * tâches elles-mêmes ne sont jamais lues hors de ce thread. La vue garde son ordre
+ * précédent en attendant, puis bascule en une seule permutation (la sélection de la
+ * table est conservée).
+ * Les petites modifications de la source sont insérées à leur place ; une grosse
+ * modification (changement de filtre, chargement) repasse par un tri complet.
+ *
+ * Toutes les méthodes s'appellent depuis le thread de l'interface.
+ */
+public final class SortedTaskView extends ObservableListBase<Task> implements AutoCloseable {
+
+    // Taille à partir de laquelle le tri complet se fait en arrière-plan
+    private static final int BACKGROUND_THRESHOLD = 20_000;
+    // Nombre d'éléments modifiés au-delà duquel on retrie plutôt que d'insérer un à un
+    private static final int INCREMENTAL_LIMIT = 4096;
+
+    private final ObservableList<Task> source;
+    private final Executor uiExecutor;
+    private final ExecutorService sorter;
+    private final UnaryOperator<Task[]> frozenCopies;
+    private final ListChangeListener<Task> sourceListener = this::onSourceChanged;
+    private final Collator collator = TaskSortKey.newCollator();
+    private final ReadOnlyBooleanWrapper sorting = new ReadOnlyBooleanWrapper(this, "sorting");
+
+    // Critères demandés ; l'ordre affiché peut encore suivre les précédents
+    private List<SortCriterion> criteria = List.of();
+
+    // Ordre affiché : null tant que la vue suit l'ordre de la source
+    private TaskSortKey[] order;
+    private int size;
+    private List<SortCriterion> orderCriteria;
+    private Comparator<TaskSortKey> orderComparator;
+    private Map<Task, TaskSortKey> keys;
+    // Dernier ordre trié, gardé pour réutiliser ses clés de collation
+    private TaskSortKey[] lastOrder;
+
+    private long sequence;
+    private long sourceVersion;
+    // Lue par le thread de tri pour abandonner un tri devenu inutile
+    private final AtomicLong generation = new AtomicLong();
+
+    public SortedTaskView(ObservableList<Task> source, Executor uiExecutor) {
+        this(source, uiExecutor, SortedTaskView::cloneAll);
+    }
+
+    /**
+     * Vue d'une liste de tâches du service : le tri en arrière-plan lit ses copies
+     * figées, déjà à jour, au lieu de cloner les tâches
+     */
+    public SortedTaskView(ObservableList<Task> source, Executor uiExecutor, TaskService service) {
+        this(source, uiExecutor, service::frozenCopies);
+    }
+
+    private SortedTaskView(ObservableList<Task> source, Executor uiExecutor, UnaryOperator<Task[]> frozenCopies) {
+        this.source = source;
+        this.uiExecutor = uiExecutor;
+        this.frozenCopies = frozenCopies;
+        this.sorter = Executors.newSingleThreadExecutor(ServiceThreads.daemon("task-sort"));
+        source.addListener(sourceListener);
+    }
+
+    @Override
+    public Task get(int index) {
+        if (order == null) {
+            return source.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", taille: " + size);
+        }
+        return order[index].task;
+    }
+
+    @Override
+    public int size() {
+        return order == null ? source.size() : size;
+    }
+
+    /**
+     * Indique si un tri est en cours en arrière-plan
+     */
+    public ReadOnlyBooleanProperty sortingProperty() {
+        return sorting.getReadOnlyProperty();
+    }
+
+    public List<SortCriterion> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Trie la vue selon les critères donnés, dans l'ordre ; une liste vide rétablit
+     * l'ordre de la source
+     */
+    public void sort(List<SortCriterion> newCriteria) {
+        criteria = List.copyOf(newCriteria);
+        generation.incrementAndGet();
+        if (criteria.isEmpty()) {
+            sorting.set(false);
+            showSourceOrder();
+            lastOrder = null;
+        } else {
+            resort();
+        }
+    }
+
+    private void resort() {
+        long current = generation.get();
+        long version = sourceVersion;
+        List<SortCriterion> requested = criteria;
+        Task[] snapshot = source.toArray(new Task[0]);
+        long firstSequence = sequence;
+        sequence += snapshot.length;
+
+        if (snapshot.length < BACKGROUND_THRESHOLD) {
+            sorting.set(false);
+            apply(TaskSortKey.sort(snapshot, requested, collator, firstSequence), requested);
+            return;
+        }
+        sorting.set(true);
+        Collator copy = (Collator) collator.clone();
+        TaskSortKey[] previous = order != null ? Arrays.copyOf(order, size) : lastOrder;
+        Task[] copies = frozenCopies.apply(snapshot);
+        sorter.execute(() -> {
+            TaskSortKey[] sorted = TaskSortKey.sort(snapshot, copies, requested, copy, firstSequence,
+                    previous, () -> current != generation.get());
+            if (sorted == null) {
+                return;
+            }
+            uiExecutor.execute(() -> {
+                if (current != generation.get()) {
+                    return;
+                }
+                if (version != sourceVersion) {
+                    // La source a changé pendant le tri : on recommence sur son état actuel
+                    resort();
+                    return;
+                }
+                sorting.set(false);
+                apply(sorted, requested);
+            });
+        });
+    }
+
+    /**
+     * Remplace l'ordre affiché par un ordre trié de même contenu
+     */
+    private void apply(TaskSortKey[] sorted, List<SortCriterion> sortedCriteria) {
+        Map<Task, TaskSortKey> newKeys = new IdentityHashMap<>(sorted.length * 2);
+        Map<Task, Integer> newPositions = new IdentityHashMap<>(sorted.length * 2);
+        for (int i = 0; i < sorted.length; i++) {
+            newKeys.put(sorted[i].task, sorted[i]);
+            newPositions.put(sorted[i].task, i);
+        }
+
+        List<Task> previous = newPositions.size() == sorted.length ? null : new ArrayList<>(this);
+        int[] permutation = previous == null ? permutationTo(newPositions) : null;
+
+        beginChange();
+        order = sorted;
+        size = sorted.length;
+        orderCriteria = sortedCriteria;
+        orderComparator = TaskSortKey.comparator(sortedCriteria);
+        keys = newKeys;
+        lastOrder = null;
+        if (permutation != null) {
+            nextPermutation(0, size, permutation);
+        } else {
+            // Tâche présente plusieurs fois : pas de permutation possible
+            nextRemove(0, previous);
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Rétablit l'ordre de la source (même contenu, autre ordre)
+     */
+    private void showSourceOrder() {
+        if (order == null) {
+            return;
+        }
+        Map<Task, Integer> sourcePositions = new IdentityHashMap<>(source.size() * 2);
+        for (int i = 0; i < source.size(); i++) {
+            sourcePositions.put(source.get(i), i);
+        }
+        List<Task> previous = sourcePositions.size() == size ? null : new ArrayList<>(this);
+        int[] permutation = previous == null ? permutationTo(sourcePositions) : null;
+
+        beginChange();
+        clearOrder();
+        if (permutation != null) {
+            nextPermutation(0, source.size(), permutation);
+        } else {
+            nextRemove(0, previous);
+            nextAdd(0, source.size());
+        }
+        endChange();
+    }
+
+    private int[] permutationTo(Map<Task, Integer> newPositions) {
+        int[] permutation = new int[size()];
+        for (int i = 0; i < permutation.length; i++) {
+            permutation[i] = newPositions.get(get(i));
+        }
+        return permutation;
+    }
+
+    private void clearOrder() {
+        lastOrder = order != null ? Arrays.copyOf(order, size) : lastOrder;
+        order = null;
+        size = 0;
+        orderCriteria = null;
+        orderComparator = null;
+        keys = null;
+    }
+
+    private void onSourceChanged(ListChangeListener.Change<? extends Task> change) {
+        sourceVersion++;
+        if (order == null) {
+            forward(change);
+            return;
+        }
+
+        int touched = 0;
+        while (change.next()) {
+            if (!change.wasPermutated() && !change.wasUpdated()) {
+                touched += change.getRemovedSize() + change.getAddedSize();
+            }
+        }
+        change.reset();
+
+        if (touched > INCREMENTAL_LIMIT) {
+            // Grosse modification : la vue suit la source le temps d'un nouveau tri
+            List<Task> previous = new ArrayList<>(this);
+            beginChange();
+            clearOrder();
+            nextRemove(0, previous);
+            nextAdd(0, source.size());
+            endChange();
+            generation.incrementAndGet();
+            resort();
+            return;
+        }
+
+        beginChange();
+        while (change.next()) {
+            // Les permutations de la source ne changent pas l'ordre trié
+            if (change.wasPermutated() || change.wasUpdated()) {
+                continue;
+            }
+            for (Task removed : change.getRemoved()) {
+                removeSorted(removed);
+            }
+            for (int i = change.getFrom(); i < change.getTo(); i++) {
+                insertSorted(change.getList().get(i));
+            }
+        }
+        endChange();
+    }
+
+    /**
+     * Ordre de la source : les modifications sont retransmises telles quelles
+     */
+    private void forward(ListChangeListener.Change<? extends Task> change) {
+        beginChange();
+        while (change.next()) {
+            int from = change.getFrom();
+            int to = change.getTo();
+            if (change.wasPermutated()) {
+                int[] permutation = new int[to - from];
+                for (int i = from; i < to; i++) {
+                    permutation[i - from] = change.getPermutation(i);
+                }
+                nextPermutation(from, to, permutation);
+            } else if (change.wasUpdated()) {
+                for (int i = from; i < to; i++) {
+                    nextUpdate(i);
+                }
+            } else if (change.wasReplaced()) {
+                nextReplace(from, to, new ArrayList<>(change.getRemoved()));
+            } else if (change.wasRemoved()) {
+                nextRemove(from, new ArrayList<>(change.getRemoved()));
+            } else if (change.wasAdded()) {
+                nextAdd(from, to);
+            }
+        }
+        endChange();
+    }
+
+    private void removeSorted(Task task) {
+        TaskSortKey key = keys.remove(task);
+        int index = key != null ? Arrays.binarySearch(order, 0, size, key, orderComparator) : -1;
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(order, index + 1, order, index, size - index - 1);
+        order[--size] = null;
+        nextRemove(index, task);
+    }
+
+    private void insertSorted(Task task) {
+        TaskSortKey key = new TaskSortKey(task, orderCriteria, collator, sequence++);
+        int index = -Arrays.binarySearch(order, 0, size, key, orderComparator) - 1;
+        if (size == order.length) {
+            order = Arrays.copyOf(order, Math.max(16, size + (size >> 1)));
+        }
+        System.arraycopy(order, index, order, index + 1, size - index);
+        order[index] = key;
+        size++;
+        keys.put(task, key);
+        nextAdd(index, index + 1);
+    }
+
+    private static Task[] cloneAll(Task[] tasks) {
+        Task[] copies = new Task[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            copies[i] = tasks[i].clone();
+        }
+        return copies;
+    }
+
+    /**
+     * Détache la vue de sa source et arrête le tri en arrière-plan
+     */
+    @Override
+    public void close() {
+        generation.incrementAndGet();
+        source.removeListener(sourceListener);
+        sorter.shutdownNow();
+    }
+}
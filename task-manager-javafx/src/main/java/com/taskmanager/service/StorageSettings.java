@@ -0,0 +1,153 @@
+package com.taskmanager.service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Paramètres de stockage des tâches (fichier de données, format, journal, fsync)
+ *
+ * Les valeurs par défaut reproduisent le comportement historique : un seul fichier
+ * tasks.json réécrit à chaque modification. Les propriétés système suivantes
+ * permettent de les surcharger au lancement :
+ * <ul>
+ *     <li>taskmanager.dataFile : chemin du fichier de données (par défaut tasks.json,
+ *     ou tasks.bin au format binaire)</li>
+ *     <li>taskmanager.format : json ou binary, format de l'instantané</li>
+ *     <li>taskmanager.journal : true pour activer le journal des mutations</li>
+ *     <li>taskmanager.fsync : always, group ou os</li>
+ *     <li>taskmanager.groupCommitMillis : intervalle du fsync groupé</li>
+ *     <li>taskmanager.compactionSeconds : intervalle du compacteur</li>
+ *     <li>taskmanager.writeBehindMillis : délai de regroupement des sauvegardes</li>
+ *     <li>taskmanager.watch : false pour ne pas relire le fichier modifié par un autre
+ *     processus</li>
+ * </ul>
+ */
+public final class StorageSettings {
+
+    private static final String DEFAULT_DATA_FILE = "tasks.json";
+    private static final String DEFAULT_BINARY_DATA_FILE = "tasks.bin";
+
+    // Champs non finaux uniquement pour les méthodes with*, qui travaillent sur une copie
+    private Path dataFile = Paths.get(DEFAULT_DATA_FILE);
+    private SnapshotFormat snapshotFormat = SnapshotFormat.JSON;
+    private boolean journalEnabled;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.GROUP;
+    private long groupCommitMillis = 50;
+    private long compactionSeconds = 30;
+    private long writeBehindMillis = 200;
+    private boolean watchEnabled = true;
+    private Path databaseFile;
+
+    private StorageSettings() {
+    }
+
+    private StorageSettings copy() {
+        StorageSettings copy = new StorageSettings();
+        copy.dataFile = dataFile;
+        copy.snapshotFormat = snapshotFormat;
+        copy.journalEnabled = journalEnabled;
+        copy.fsyncPolicy = fsyncPolicy;
+        copy.groupCommitMillis = groupCommitMillis;
+        copy.compactionSeconds = compactionSeconds;
+        copy.writeBehindMillis = writeBehindMillis;
+        copy.watchEnabled = watchEnabled;
+        copy.databaseFile = databaseFile;
+        return copy;
+    }
+
+    /**
+     * Paramètres par défaut : tasks.json dans le répertoire courant, sans journal
+     */
+    public static StorageSettings defaults() {
+        return new StorageSettings();
+    }
+
+    /**
+     * Paramètres lus depuis les propriétés système
+     */
+    public static StorageSettings fromSystemProperties() {
+        StorageSettings settings = new StorageSettings();
+        settings.snapshotFormat = SnapshotFormat.parse(System.getProperty("taskmanager.format"));
+        String defaultFile = settings.snapshotFormat == SnapshotFormat.BINARY
+                ? DEFAULT_BINARY_DATA_FILE : DEFAULT_DATA_FILE;
+        settings.dataFile = Paths.get(System.getProperty("taskmanager.dataFile", defaultFile));
+        settings.journalEnabled = Boolean.getBoolean("taskmanager.journal");
+        settings.fsyncPolicy = FsyncPolicy.parse(System.getProperty("taskmanager.fsync"));
+        settings.groupCommitMillis = Long.getLong("taskmanager.groupCommitMillis", settings.groupCommitMillis);
+        settings.compactionSeconds = Long.getLong("taskmanager.compactionSeconds", settings.compactionSeconds);
+        settings.writeBehindMillis = Long.getLong("taskmanager.writeBehindMillis", settings.writeBehindMillis);
+        settings.watchEnabled = !"false".equalsIgnoreCase(System.getProperty("taskmanager.watch"));
+        String database = System.getProperty("taskmanager.database");
+        settings.databaseFile = database != null && !database.isBlank() ? Paths.get(database) : null;
+        return settings;
+    }
+
+    public StorageSettings withDataFile(Path dataFile) {
+        StorageSettings copy = copy();
+        copy.dataFile = dataFile;
+        return copy;
+    }
+
+    public StorageSettings withSnapshotFormat(SnapshotFormat snapshotFormat) {
+        StorageSettings copy = copy();
+        copy.snapshotFormat = snapshotFormat;
+        return copy;
+    }
+
+    public StorageSettings withJournal(FsyncPolicy fsyncPolicy, long groupCommitMillis) {
+        StorageSettings copy = copy();
+        copy.journalEnabled = true;
+        copy.fsyncPolicy = fsyncPolicy;
+        copy.groupCommitMillis = groupCommitMillis;
+        return copy;
+    }
+
+    public StorageSettings withCompactionSeconds(long compactionSeconds) {
+        StorageSettings copy = copy();
+        copy.compactionSeconds = compactionSeconds;
+        return copy;
+    }
+
+    public StorageSettings withWriteBehindMillis(long writeBehindMillis) {
+        StorageSettings copy = copy();
+        copy.writeBehindMillis = writeBehindMillis;
+        return copy;
+    }
+
+    public StorageSettings withWatch(boolean watchEnabled) {
+        StorageSettings copy = copy();
+        copy.watchEnabled = watchEnabled;
+        return copy;
+    }
+
+    /**
+     * Stocke les tâches dans la base embarquée (voir {@link H2TaskRepository}) ;
+     * null revient au fichier de données
+     */
+    public StorageSettings withDatabase(Path databaseFile) {
+        StorageSettings copy = copy();
+        copy.databaseFile = databaseFile;
+        return copy;
+    }
+
+    public Path getDataFile() { return dataFile; }
+    public SnapshotFormat getSnapshotFormat() { return snapshotFormat; }
+    public boolean isJournalEnabled() { return journalEnabled; }
+    public FsyncPolicy getFsyncPolicy() { return fsyncPolicy; }
+    public long getGroupCommitMillis() { return groupCommitMillis; }
+    public long getCompactionSeconds() { return compactionSeconds; }
+    public long getWriteBehindMillis() { return writeBehindMillis; }
+    public boolean isWatchEnabled() { return watchEnabled; }
+
+    /**
+     * Chemin de la base embarquée, sans extension, ou null en stockage par fichier
+     */
+    public Path getDatabaseFile() { return databaseFile; }
+
+    /**
+     * Fichier du journal associé au fichier de données (tasks.json.journal)
+     */
+    public Path getJournalFile() {
+        return dataFile.resolveSibling(dataFile.getFileName() + ".journal");
+    }
+}
@@ -0,0 +1,66 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index secondaire des tâches par valeur d'une énumération (statut, priorité)
+ *
+ * Chaque valeur possède son ensemble de tâches, comparées par identité ; la taille
+ * de l'ensemble sert de compteur en temps constant.
+ */
+final class TaskAttributeIndex<E extends Enum<E>> {
+
+    private final Map<E, Set<Task>> buckets;
+
+    TaskAttributeIndex(Class<E> type) {
+        this.buckets = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            buckets.put(value, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+    }
+
+    void add(Task task, E value) {
+        if (value != null) {
+            buckets.get(value).add(task);
+        }
+    }
+
+    void remove(Task task, E value) {
+        if (value != null) {
+            buckets.get(value).remove(task);
+        }
+    }
+
+    /**
+     * Déplace une tâche modifiée sur place d'une valeur à une autre
+     */
+    void move(Task task, E oldValue, E newValue) {
+        if (oldValue != newValue) {
+            remove(task, oldValue);
+            add(task, newValue);
+        }
+    }
+
+    int count(E value) {
+        return buckets.get(value).size();
+    }
+
+    /**
+     * Tâches ayant cette valeur, sans ordre particulier (vue non modifiable)
+     */
+    Set<Task> tasks(E value) {
+        return Collections.unmodifiableSet(buckets.get(value));
+    }
+
+    void clear() {
+        for (Set<Task> bucket : buckets.values()) {
+            bucket.clear();
+        }
+    }
+}
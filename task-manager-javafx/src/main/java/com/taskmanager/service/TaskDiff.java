@@ -0,0 +1,127 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Différences entre deux versions du fichier de données, par ID de tâche
+ *
+ * Sert à la relecture d'un fichier modifié par une autre instance : seules les tâches
+ * ajoutées, modifiées ou retirées depuis la dernière version connue sont appliquées.
+ * Les dates sont comparées à la seconde, précision du format JSON.
+ */
+final class TaskDiff {
+
+    private final List<Task> added;
+    private final List<Task> changed;
+    private final int[] removed;
+
+    private TaskDiff(List<Task> added, List<Task> changed, int[] removed) {
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    /**
+     * Compare la version précédente du fichier à sa version actuelle
+     */
+    static TaskDiff between(List<Task> previous, List<Task> current) {
+        IntObjectHashMap<Task> before = new IntObjectHashMap<>();
+        for (Task task : previous) {
+            before.put(task.getId(), task);
+        }
+        IntObjectHashMap<Task> after = new IntObjectHashMap<>();
+        List<Task> added = new ArrayList<>();
+        List<Task> changed = new ArrayList<>();
+        for (Task task : current) {
+            after.put(task.getId(), task);
+            Task old = before.get(task.getId());
+            if (old == null) {
+                added.add(task);
+            } else if (!sameValues(old, task)) {
+                changed.add(task);
+            }
+        }
+        int[] removed = new int[16];
+        int removedCount = 0;
+        for (Task task : previous) {
+            if (after.get(task.getId()) == null) {
+                if (removedCount == removed.length) {
+                    removed = Arrays.copyOf(removed, removedCount * 2);
+                }
+                removed[removedCount++] = task.getId();
+            }
+        }
+        return new TaskDiff(added, changed, Arrays.copyOf(removed, removedCount));
+    }
+
+    /**
+     * Tâches absentes de la version précédente
+     */
+    List<Task> added() {
+        return added;
+    }
+
+    /**
+     * Tâches modifiées, dans leur version actuelle
+     */
+    List<Task> changed() {
+        return changed;
+    }
+
+    /**
+     * IDs des tâches retirées
+     */
+    int[] removed() {
+        return removed;
+    }
+
+    boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.length == 0;
+    }
+
+    static boolean sameValues(Task a, Task b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getPriority() == b.getPriority()
+                && a.getStatus() == b.getStatus()
+                && Objects.equals(a.getDueDate(), b.getDueDate())
+                && sameSecond(a.getCreatedAt(), b.getCreatedAt())
+                && sameSecond(a.getCompletedAt(), b.getCompletedAt());
+    }
+
+    private static boolean sameSecond(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.truncatedTo(ChronoUnit.SECONDS).equals(b.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Recopie les valeurs sur une tâche existante, qui garde son identité (sélection,
+     * cellules liées) ; seuls les champs différents sont notifiés
+     */
+    static void copyValues(Task source, Task target) {
+        target.setTitle(source.getTitle());
+        target.setDescription(source.getDescription());
+        target.setPriority(source.getPriority());
+        if (target.getStatus() != source.getStatus()) {
+            target.setStatus(source.getStatus());
+        }
+        target.setDueDate(source.getDueDate());
+        if (!sameSecond(target.getCreatedAt(), source.getCreatedAt())) {
+            target.setCreatedAt(source.getCreatedAt());
+        }
+        // Après le statut, qui date la fin à l'instant du changement
+        if (!sameSecond(target.getCompletedAt(), source.getCompletedAt())) {
+            target.setCompletedAt(source.getCompletedAt());
+        }
+    }
+}
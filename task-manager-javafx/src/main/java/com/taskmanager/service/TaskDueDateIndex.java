@@ -0,0 +1,161 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index trié des tâches non terminées par date d'échéance (clé : jour epoch)
+ *
+ * Les requêtes « en retard », « aujourd'hui » et « cette semaine » deviennent des
+ * lectures d'intervalle : leur coût dépend du nombre de tâches retournées et non du
+ * nombre total de tâches. Les tâches sans échéance ou terminées ne sont pas indexées.
+ */
+final class TaskDueDateIndex {
+
+    private final NavigableMap<Long, Set<Task>> byDay = new TreeMap<>();
+
+    private static boolean indexed(LocalDate dueDate, Task.Status status) {
+        return dueDate != null && status != Task.Status.COMPLETED;
+    }
+
+    /**
+     * Nombre de jours d'échéance distincts indexés
+     */
+    int dayCount() {
+        return byDay.size();
+    }
+
+    void add(Task task) {
+        add(task, task.getDueDate(), task.getStatus());
+    }
+
+    void remove(Task task) {
+        remove(task, task.getDueDate(), task.getStatus());
+    }
+
+    private void add(Task task, LocalDate dueDate, Task.Status status) {
+        if (indexed(dueDate, status)) {
+            byDay.computeIfAbsent(dueDate.toEpochDay(),
+                    day -> Collections.newSetFromMap(new IdentityHashMap<>())).add(task);
+        }
+    }
+
+    private void remove(Task task, LocalDate dueDate, Task.Status status) {
+        if (!indexed(dueDate, status)) {
+            return;
+        }
+        long day = dueDate.toEpochDay();
+        Set<Task> bucket = byDay.get(day);
+        if (bucket != null && bucket.remove(task) && bucket.isEmpty()) {
+            byDay.remove(day);
+        }
+    }
+
+    /**
+     * Échéance modifiée sur place
+     */
+    void dueDateChanged(Task task, LocalDate oldDueDate, LocalDate newDueDate) {
+        remove(task, oldDueDate, task.getStatus());
+        add(task, newDueDate, task.getStatus());
+    }
+
+    /**
+     * Statut modifié sur place : une tâche terminée sort de l'index, une tâche rouverte y revient
+     */
+    void statusChanged(Task task, Task.Status oldStatus, Task.Status newStatus) {
+        remove(task, task.getDueDate(), oldStatus);
+        add(task, task.getDueDate(), newStatus);
+    }
+
+    /**
+     * Tâches dont l'échéance est strictement antérieure au jour donné
+     */
+    List<Task> before(LocalDate day) {
+        return flatten(byDay.headMap(day.toEpochDay(), false).values());
+    }
+
+    /**
+     * Tâches dont l'échéance est le jour donné
+     */
+    List<Task> on(LocalDate day) {
+        Set<Task> bucket = byDay.get(day.toEpochDay());
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+    }
+
+    /**
+     * Tâches dont l'échéance est comprise entre les deux jours, inclus
+     */
+    List<Task> between(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return new ArrayList<>();
+        }
+        return flatten(byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values());
+    }
+
+    /**
+     * Tâches dont l'échéance est dans l'intervalle, bornes incluses (null : ouverte)
+     */
+    List<Task> range(LocalDate from, LocalDate to) {
+        return flatten(days(from, to).values());
+    }
+
+    /**
+     * Premier jour d'échéance indexé à partir du jour donné (inclus), ou null
+     */
+    LocalDate firstDayFrom(LocalDate day) {
+        Long first = byDay.ceilingKey(day.toEpochDay());
+        return first != null ? LocalDate.ofEpochDay(first) : null;
+    }
+
+    /**
+     * Nombre de tâches de l'intervalle, sans les copier
+     *
+     * Le parcours des jours s'arrête dès que le nombre dépasse la limite : au-delà, seul
+     * le dépassement compte et la valeur retournée est alors un minorant.
+     */
+    int count(LocalDate from, LocalDate to, int limit) {
+        int count = 0;
+        for (Set<Task> bucket : days(from, to).values()) {
+            count += bucket.size();
+            if (count > limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private NavigableMap<Long, Set<Task>> days(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return Collections.emptyNavigableMap();
+        }
+        NavigableMap<Long, Set<Task>> days = byDay;
+        if (from != null) {
+            days = days.tailMap(from.toEpochDay(), true);
+        }
+        if (to != null) {
+            days = days.headMap(to.toEpochDay(), true);
+        }
+        return days;
+    }
+
+    void clear() {
+        byDay.clear();
+    }
+
+    private static List<Task> flatten(Collection<Set<Task>> buckets) {
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> bucket : buckets) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
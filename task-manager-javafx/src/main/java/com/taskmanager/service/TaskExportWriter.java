@@ -0,0 +1,136 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.taskmanager.model.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Écriture en flux des tâches dans un format d'export
+ *
+ * Les tâches sont écrites une à une depuis un itérateur, directement dans le flux
+ * de sortie : ni arbre JSON ni texte complet en mémoire.
+ */
+final class TaskExportWriter {
+
+    // Fréquence des rappels d'avancement et des vérifications d'annulation
+    static final int PROGRESS_INTERVAL = 4096;
+
+    private static final String CSV_HEADER =
+            "id,title,description,priority,status,dueDate,createdAt,completedAt";
+
+    private final ObjectMapper objectMapper;
+    private final ExportFormat format;
+
+    TaskExportWriter(ObjectMapper objectMapper, ExportFormat format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    /**
+     * Écrit les tâches sans fermer le flux
+     *
+     * @param progress reçoit le nombre de tâches écrites, tous les {@link #PROGRESS_INTERVAL}
+     * @param cancelled consulté au même rythme ; l'écriture s'arrête par une CancellationException
+     * @return le nombre de tâches écrites
+     */
+    int write(Iterator<Task> tasks, OutputStream out, IntConsumer progress,
+              BooleanSupplier cancelled) throws IOException {
+        if (format == ExportFormat.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            int count = writeCsv(tasks, writer, progress, cancelled);
+            writer.flush();
+            return count;
+        }
+
+        int count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            ObjectWriter taskWriter = objectMapper.writerFor(Task.class);
+            if (format == ExportFormat.JSON) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartArray();
+            } else {
+                // Pas d'espace entre les objets : une ligne commence par son objet
+                generator.setRootValueSeparator(null);
+            }
+            while (tasks.hasNext()) {
+                taskWriter.writeValue(generator, tasks.next());
+                if (format == ExportFormat.JSON_LINES) {
+                    generator.writeRaw('\n');
+                }
+                count = checkpoint(count + 1, progress, cancelled);
+            }
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return count;
+    }
+
+    private static int writeCsv(Iterator<Task> tasks, Writer writer, IntConsumer progress,
+                                BooleanSupplier cancelled) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        int count = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            writer.write(Integer.toString(task.getId()));
+            writeCsvField(writer, task.getTitle());
+            writeCsvField(writer, task.getDescription());
+            writeCsvField(writer, task.getPriority());
+            writeCsvField(writer, task.getStatus());
+            writeCsvField(writer, task.getDueDate());
+            writeCsvField(writer, task.getCreatedAt());
+            writeCsvField(writer, task.getCompletedAt());
+            writer.write("\r\n");
+            count = checkpoint(count + 1, progress, cancelled);
+        }
+        return count;
+    }
+
+    /**
+     * Champ précédé d'une virgule ; guillemets autour des valeurs qui contiennent
+     * un séparateur, un guillemet ou un saut de ligne (RFC 4180)
+     */
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+        boolean quoted = false;
+        for (int i = 0; i < text.length() && !quoted; i++) {
+            char c = text.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static int checkpoint(int count, IntConsumer progress, BooleanSupplier cancelled) {
+        if (count % PROGRESS_INTERVAL == 0) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            progress.accept(count);
+        }
+        return count;
+    }
+}
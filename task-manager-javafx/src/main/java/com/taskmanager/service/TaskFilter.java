@@ -0,0 +1,350 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskClock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Condition sur les tâches, composable par ET et OU
+ *
+ * Une condition simple porte sur un seul attribut (ID, statut, priorité, échéance,
+ * date de création ou de fin, texte) ; {@link #and} et {@link #or} les combinent.
+ * Immuable. En mémoire, {@link TaskQueryPlanner} choisit l'index le plus sélectif
+ * pour l'évaluer ; une base la traduit en SQL (voir {@link H2TaskRepository}).
+ *
+ * Les intervalles de dates sont inclusifs, et une borne null reste ouverte ; les
+ * tâches sans la date concernée n'y figurent jamais. {@link #overdue()} et
+ * {@link #dueToday()} suivent au contraire la date du jour de {@link TaskClock} : une
+ * liste filtrée ainsi reste juste après minuit sans être recalculée.
+ */
+public final class TaskFilter {
+
+    enum Kind { ALL, ID, STATUS, OPEN, PRIORITY, DUE, CREATED, COMPLETED, TEXT, OVERDUE, DUE_TODAY, AND, OR }
+
+    private static final TaskFilter ALL = new TaskFilter(Kind.ALL);
+    private static final TaskFilter OPEN = new TaskFilter(Kind.OPEN);
+    private static final TaskFilter OVERDUE = new TaskFilter(Kind.OVERDUE);
+    private static final TaskFilter DUE_TODAY = new TaskFilter(Kind.DUE_TODAY);
+
+    final Kind kind;
+    // Renseignés par les fabriques, jamais modifiés ensuite ; lus par le planificateur et la base
+    int id;
+    Task.Status status;
+    Task.Priority priority;
+    LocalDate from;
+    LocalDate to;
+    String text;
+    List<TaskFilter> operands = List.of();
+
+    private TaskFilter(Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Toutes les tâches
+     */
+    public static TaskFilter all() {
+        return ALL;
+    }
+
+    public static TaskFilter id(int id) {
+        TaskFilter filter = new TaskFilter(Kind.ID);
+        filter.id = id;
+        return filter;
+    }
+
+    public static TaskFilter status(Task.Status status) {
+        TaskFilter filter = new TaskFilter(Kind.STATUS);
+        filter.status = Objects.requireNonNull(status, "status");
+        return filter;
+    }
+
+    /**
+     * Tâches non terminées
+     */
+    public static TaskFilter open() {
+        return OPEN;
+    }
+
+    public static TaskFilter priority(Task.Priority priority) {
+        TaskFilter filter = new TaskFilter(Kind.PRIORITY);
+        filter.priority = Objects.requireNonNull(priority, "priority");
+        return filter;
+    }
+
+    /**
+     * Échéance comprise entre les deux jours
+     */
+    public static TaskFilter dueBetween(LocalDate from, LocalDate to) {
+        return range(Kind.DUE, from, to);
+    }
+
+    /**
+     * Créées entre les deux jours (heure ignorée)
+     */
+    public static TaskFilter createdBetween(LocalDate from, LocalDate to) {
+        return range(Kind.CREATED, from, to);
+    }
+
+    /**
+     * Terminées entre les deux jours (heure ignorée)
+     */
+    public static TaskFilter completedBetween(LocalDate from, LocalDate to) {
+        return range(Kind.COMPLETED, from, to);
+    }
+
+    private static TaskFilter range(Kind kind, LocalDate from, LocalDate to) {
+        TaskFilter filter = new TaskFilter(kind);
+        filter.from = from;
+        filter.to = to;
+        return filter;
+    }
+
+    /**
+     * Texte contenu dans le titre ou la description, sans tenir compte de la casse ni
+     * des accents ; vide ou null : toutes les tâches
+     */
+    public static TaskFilter text(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return ALL;
+        }
+        TaskFilter filter = new TaskFilter(Kind.TEXT);
+        filter.text = TextNormalizer.normalize(text.trim());
+        return filter;
+    }
+
+    /**
+     * Tâches non terminées dont l'échéance est passée
+     */
+    public static TaskFilter overdue(LocalDate today) {
+        return OPEN.and(dueBetween(null, today.minusDays(1)));
+    }
+
+    /**
+     * Tâches non terminées dues ce jour-là
+     */
+    public static TaskFilter dueOn(LocalDate day) {
+        return OPEN.and(dueBetween(day, day));
+    }
+
+    /**
+     * Tâches non terminées en retard à la date du jour courante
+     */
+    public static TaskFilter overdue() {
+        return OVERDUE;
+    }
+
+    /**
+     * Tâches non terminées dues à la date du jour courante
+     */
+    public static TaskFilter dueToday() {
+        return DUE_TODAY;
+    }
+
+    /**
+     * Condition où « en retard » et « due aujourd'hui » sont fixés au jour donné, pour
+     * l'évaluer par index ou la traduire en SQL ; la condition elle-même si elle n'en
+     * contient pas
+     */
+    TaskFilter atDay(LocalDate today) {
+        switch (kind) {
+            case OVERDUE:
+                return overdue(today);
+            case DUE_TODAY:
+                return dueOn(today);
+            case AND:
+            case OR:
+                List<TaskFilter> resolved = new ArrayList<>(operands.size());
+                boolean changed = false;
+                for (TaskFilter operand : operands) {
+                    TaskFilter fixed = operand.atDay(today);
+                    changed |= fixed != operand;
+                    resolved.add(fixed);
+                }
+                if (!changed) {
+                    return this;
+                }
+                return kind == Kind.AND ? allOf(resolved) : anyOf(resolved);
+            default:
+                return this;
+        }
+    }
+
+    /**
+     * Les deux conditions ; les ET imbriqués sont mis à plat
+     */
+    public TaskFilter and(TaskFilter other) {
+        return combine(Kind.AND, this, other);
+    }
+
+    /**
+     * L'une ou l'autre condition ; les OU imbriqués sont mis à plat
+     */
+    public TaskFilter or(TaskFilter other) {
+        return combine(Kind.OR, this, other);
+    }
+
+    public static TaskFilter allOf(List<TaskFilter> filters) {
+        TaskFilter result = ALL;
+        for (TaskFilter filter : filters) {
+            result = result.and(filter);
+        }
+        return result;
+    }
+
+    public static TaskFilter anyOf(List<TaskFilter> filters) {
+        if (filters.isEmpty()) {
+            return ALL;
+        }
+        TaskFilter result = filters.get(0);
+        for (int i = 1; i < filters.size(); i++) {
+            result = result.or(filters.get(i));
+        }
+        return result;
+    }
+
+    private static TaskFilter combine(Kind kind, TaskFilter left, TaskFilter right) {
+        // ALL est neutre pour ET et absorbant pour OU
+        if (left.kind == Kind.ALL) {
+            return kind == Kind.AND ? right : left;
+        }
+        if (right.kind == Kind.ALL) {
+            return kind == Kind.AND ? left : right;
+        }
+        List<TaskFilter> operands = new ArrayList<>();
+        for (TaskFilter operand : List.of(left, right)) {
+            if (operand.kind == kind) {
+                operands.addAll(operand.operands);
+            } else {
+                operands.add(operand);
+            }
+        }
+        TaskFilter filter = new TaskFilter(kind);
+        filter.operands = List.copyOf(operands);
+        return filter;
+    }
+
+    /**
+     * Indique si la condition est toujours vraie
+     */
+    public boolean isAll() {
+        return kind == Kind.ALL;
+    }
+
+    /**
+     * Évalue la condition sur une tâche, sans index
+     */
+    public boolean matches(Task task) {
+        switch (kind) {
+            case ALL:
+                return true;
+            case ID:
+                return task.getId() == id;
+            case STATUS:
+                return task.getStatus() == status;
+            case OPEN:
+                return task.getStatus() != Task.Status.COMPLETED;
+            case PRIORITY:
+                return task.getPriority() == priority;
+            case DUE:
+                return inRange(task.getDueDate());
+            case CREATED:
+                return task.getCreatedAt() != null && inRange(task.getCreatedAt().toLocalDate());
+            case COMPLETED:
+                return task.getCompletedAt() != null && inRange(task.getCompletedAt().toLocalDate());
+            case TEXT:
+                return TaskTextIndex.matches(task, text);
+            case OVERDUE:
+                return task.isOverdue();
+            case DUE_TODAY:
+                return task.isDueToday();
+            case AND:
+                for (TaskFilter operand : operands) {
+                    if (!operand.matches(task)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (TaskFilter operand : operands) {
+                    if (operand.matches(task)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                throw new IllegalStateException("Condition inconnue: " + kind);
+        }
+    }
+
+    private boolean inRange(LocalDate day) {
+        return day != null && (from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to));
+    }
+
+    /**
+     * Début de l'intervalle pour une comparaison sur des dates-heures (inclus)
+     */
+    LocalDateTime fromTime() {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    /**
+     * Fin de l'intervalle pour une comparaison sur des dates-heures : le lendemain de
+     * la borne haute, exclu
+     */
+    LocalDateTime toTimeExclusive() {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskFilter)) return false;
+        TaskFilter other = (TaskFilter) o;
+        return kind == other.kind
+                && id == other.id
+                && status == other.status
+                && priority == other.priority
+                && Objects.equals(from, other.from)
+                && Objects.equals(to, other.to)
+                && Objects.equals(text, other.text)
+                && operands.equals(other.operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, id, status, priority, from, to, text, operands);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case ALL: return "toutes";
+            case ID: return "id = " + id;
+            case STATUS: return "statut = " + status.getDisplayName();
+            case OPEN: return "non terminée";
+            case PRIORITY: return "priorité = " + priority.getDisplayName();
+            case DUE: return "échéance " + rangeText();
+            case CREATED: return "créée " + rangeText();
+            case COMPLETED: return "terminée " + rangeText();
+            case TEXT: return "texte « " + text + " »";
+            case OVERDUE: return "en retard";
+            case DUE_TODAY: return "due aujourd'hui";
+            default:
+                List<String> parts = new ArrayList<>();
+                for (TaskFilter operand : operands) {
+                    parts.add(operand.toString());
+                }
+                return "(" + String.join(kind == Kind.AND ? " et " : " ou ", parts) + ")";
+        }
+    }
+
+    private String rangeText() {
+        return "du " + (from != null ? from : "…") + " au " + (to != null ? to : "…");
+    }
+}
@@ -0,0 +1,150 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.Arrays;
+
+/**
+ * Index des tâches par ID : clé int primitive vers la tâche et sa position dans la liste
+ *
+ * Table à adressage ouvert (sondage linéaire, suppression par décalage arrière) :
+ * aucune clé n'est convertie en Integer. Les positions sont tenues à jour par le
+ * service à chaque modification de la liste observable.
+ */
+final class TaskIdIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] keys;
+    private Task[] values;
+    private int[] positions;
+    private int size;
+    private int mask;
+
+    TaskIdIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Task[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Position du slot de la clé, ou -1 si elle est absente
+     */
+    private int find(int key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Task get(int id) {
+        int slot = find(id);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Position de la tâche dans la liste, ou -1 si l'ID est inconnu
+     */
+    int position(int id) {
+        int slot = find(id);
+        return slot == -1 ? -1 : positions[slot];
+    }
+
+    /**
+     * Ajoute ou remplace la tâche de même ID
+     */
+    void put(Task task, int position) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            grow();
+        }
+        insert(task.getId(), task, position);
+    }
+
+    private void insert(int key, Task task, int position) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = task;
+                positions[slot] = position;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = task;
+        positions[slot] = position;
+        size++;
+    }
+
+    /**
+     * Met à jour la position d'une tâche déjà indexée
+     */
+    void setPosition(int id, int position) {
+        int slot = find(id);
+        if (slot != -1) {
+            positions[slot] = position;
+        }
+    }
+
+    /**
+     * Retire l'entrée de l'ID si elle désigne bien cette tâche
+     */
+    boolean remove(int id, Task expected) {
+        int slot = find(id);
+        if (slot == -1 || values[slot] != expected) {
+            return false;
+        }
+        // Décalage arrière : recolle les entrées suivantes de la même grappe
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                positions[hole] = positions[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Task[] oldValues = values;
+        int[] oldPositions = positions;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i], oldPositions[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.taskmanager.model.Task;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal des mutations en ajout seul (tasks.json.journal)
+ *
+ * Chaque mutation est ajoutée sous la forme d'une ligne JSON compacte au lieu de
+ * réécrire tout l'instantané. Un compacteur en arrière-plan replie périodiquement
+ * le journal dans l'instantané. Au démarrage, l'état est reconstruit en rejouant
+ * l'instantané puis le journal.
+ *
+ * Format d'une ligne : {"op":"put","task":{...}}, {"op":"del","id":42} ou {"op":"clear"}
+ *
+ * Les enregistrements sont encodés sur le thread appelant (l'état de la tâche est
+ * capturé au moment de la mutation) puis écrits, dans l'ordre, par le thread
+ * d'écriture du {@link WriteBehindPersister}.
+ */
+class TaskJournal implements AutoCloseable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path journalFile;
+    private final Path rotatedFile;
+    private final SnapshotStore snapshotStore;
+    private final ObjectMapper objectMapper;
+    private final FsyncPolicy fsyncPolicy;
+    private final ScheduledExecutorService scheduler;
+    private final Executor writer;
+    private final ServiceMetrics.Counter bytesWritten;
+
+    // Empêche un compactage de s'exécuter pendant un point de contrôle (et inversement)
+    private final Object compactionLock = new Object();
+
+    private FileChannel channel;
+    private boolean dirty;
+
+    TaskJournal(StorageSettings settings, SnapshotStore snapshotStore, ObjectMapper objectMapper,
+                Executor writer, ServiceMetrics.Counter bytesWritten) throws IOException {
+        this.journalFile = settings.getJournalFile();
+        this.rotatedFile = rotatedFile(journalFile);
+        this.snapshotStore = snapshotStore;
+        this.objectMapper = objectMapper;
+        this.fsyncPolicy = settings.getFsyncPolicy();
+        this.writer = writer;
+        this.bytesWritten = bytesWritten;
+        this.channel = openChannel();
+        this.scheduler = Executors.newScheduledThreadPool(2, ServiceThreads.daemon("task-journal"));
+
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            long period = Math.max(1, settings.getGroupCommitMillis());
+            scheduler.scheduleWithFixedDelay(this::groupCommit, period, period, TimeUnit.MILLISECONDS);
+        }
+        long compaction = Math.max(1, settings.getCompactionSeconds());
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, compaction, compaction, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ajoute (ou remplace) une tâche
+     */
+    void appendPut(Task task) {
+        append(List.of(putRecord(task)));
+    }
+
+    /**
+     * Ajoute plusieurs tâches en une seule écriture
+     */
+    void appendPuts(Collection<Task> tasks) {
+        List<ObjectNode> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(putRecord(task));
+        }
+        append(records);
+    }
+
+    /**
+     * Supprime une tâche par son ID
+     */
+    void appendDelete(int taskId) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", "del");
+        record.put("id", taskId);
+        append(List.of(record));
+    }
+
+    /**
+     * Efface toutes les tâches
+     */
+    void appendClear() {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", "clear");
+        append(List.of(record));
+    }
+
+    private ObjectNode putRecord(Task task) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", "put");
+        record.set("task", objectMapper.valueToTree(task));
+        return record;
+    }
+
+    private void append(List<ObjectNode> records) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * records.size());
+        try {
+            for (ObjectNode record : records) {
+                objectMapper.writeValue(buffer, record);
+                buffer.write(NEWLINE);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'encodage du journal: " + e.getMessage());
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        writer.execute(() -> write(bytes));
+    }
+
+    private synchronized void write(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                bytesWritten.add(channel.write(bytes));
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                channel.force(false);
+            } else {
+                dirty = true;
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture du journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Synchronise sur le disque les enregistrements accumulés depuis le dernier fsync
+     */
+    private synchronized void groupCommit() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la synchronisation du journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indique si le journal contient des enregistrements non repliés
+     */
+    synchronized boolean hasRecords() {
+        try {
+            return channel.size() > 0 || Files.exists(rotatedFile);
+        } catch (IOException e) {
+            // Dans le doute, on rejoue : le rejeu signalera l'erreur réelle
+            return true;
+        }
+    }
+
+    /**
+     * Indique si le journal des réglages contient des enregistrements, sans l'ouvrir
+     */
+    static boolean hasRecords(StorageSettings settings) throws IOException {
+        Path journalFile = settings.getJournalFile();
+        return (Files.exists(journalFile) && Files.size(journalFile) > 0) || Files.exists(rotatedFile(journalFile));
+    }
+
+    private static Path rotatedFile(Path journalFile) {
+        return journalFile.resolveSibling(journalFile.getFileName() + ".compacting");
+    }
+
+    /**
+     * Reçoit les enregistrements rejoués, dans l'ordre du journal
+     */
+    interface Visitor {
+        void put(Task task);
+        void delete(int taskId);
+        void clear();
+    }
+
+    /**
+     * Lecture de l'instantané effectuée sous le verrou de compactage
+     */
+    interface SnapshotReader {
+        void read() throws IOException;
+    }
+
+    /**
+     * Rejoue l'instantané puis le journal et retourne l'état obtenu, dans l'ordre
+     */
+    List<Task> replay() throws IOException {
+        StateVisitor state = new StateVisitor();
+        replay(() -> state.putAll(snapshotStore.read()), state);
+        return new ArrayList<>(state.tasks.values());
+    }
+
+    /**
+     * Rejoue l'instantané puis le journal des réglages sans ouvrir le journal en
+     * écriture (import dans la base embarquée)
+     */
+    static List<Task> replay(StorageSettings settings, SnapshotStore snapshotStore, ObjectMapper objectMapper)
+            throws IOException {
+        StateVisitor state = new StateVisitor();
+        state.putAll(snapshotStore.read());
+        Path journalFile = settings.getJournalFile();
+        replayFile(rotatedFile(journalFile), objectMapper, state);
+        replayFile(journalFile, objectMapper, state);
+        return new ArrayList<>(state.tasks.values());
+    }
+
+    /**
+     * Lit l'instantané avec le lecteur donné puis rejoue le journal vers le visiteur
+     *
+     * Aucun compactage ne peut modifier les fichiers pendant la lecture.
+     */
+    void replay(SnapshotReader snapshotReader, Visitor visitor) throws IOException {
+        synchronized (compactionLock) {
+            snapshotReader.read();
+            replayFile(rotatedFile, objectMapper, visitor);
+            replayFile(journalFile, objectMapper, visitor);
+        }
+    }
+
+    private static void replayFile(Path file, ObjectMapper objectMapper, Visitor visitor) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode record;
+                try {
+                    record = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    // Dernière ligne tronquée par un arrêt brutal : on l'ignore
+                    System.err.println("Enregistrement de journal illisible ignoré: " + e.getMessage());
+                    continue;
+                }
+                switch (record.path("op").asText()) {
+                    case "put":
+                        visitor.put(objectMapper.treeToValue(record.get("task"), Task.class));
+                        break;
+                    case "del":
+                        visitor.delete(record.path("id").asInt());
+                        break;
+                    case "clear":
+                        visitor.clear();
+                        break;
+                    default:
+                        System.err.println("Opération de journal inconnue ignorée: " + line);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replie le journal dans l'instantané
+     *
+     * Le journal courant est d'abord renommé, sous verrou, pour que les ajouts
+     * continuent dans un nouveau fichier pendant le repliement. Si l'application
+     * s'arrête en cours de route, le fichier renommé est rejoué au démarrage :
+     * rejouer deux fois les mêmes enregistrements donne le même état.
+     */
+    void compact() throws IOException {
+        synchronized (compactionLock) {
+            if (Files.exists(rotatedFile)) {
+                foldRotated();
+            }
+            synchronized (this) {
+                if (channel.size() == 0) {
+                    return;
+                }
+                channel.force(false);
+                channel.close();
+                SnapshotStore.replace(journalFile, rotatedFile);
+                channel = openChannel();
+                dirty = false;
+            }
+            foldRotated();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException e) {
+            System.err.println("Erreur lors du compactage du journal: " + e.getMessage());
+        }
+    }
+
+    private void foldRotated() throws IOException {
+        StateVisitor state = new StateVisitor();
+        state.putAll(snapshotStore.read());
+        replayFile(rotatedFile, objectMapper, state);
+        snapshotStore.write(state.tasks.values());
+        Files.deleteIfExists(rotatedFile);
+    }
+
+    /**
+     * Écrit un instantané complet puis vide le journal qu'il rend obsolète
+     *
+     * Appelé sur le thread d'écriture, après les ajouts demandés avant lui.
+     */
+    void checkpoint(Collection<Task> tasks) throws IOException {
+        synchronized (compactionLock) {
+            snapshotStore.write(tasks);
+            synchronized (this) {
+                channel.truncate(0);
+                channel.force(false);
+                dirty = false;
+            }
+            Files.deleteIfExists(rotatedFile);
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Arrête le compacteur et synchronise les derniers enregistrements
+     */
+    @Override
+    public void close() {
+        // Laisse un compactage en cours se terminer plutôt que de l'interrompre en pleine écriture
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                if (channel.isOpen()) {
+                    channel.force(false);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la fermeture du journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * État reconstruit en mémoire, indexé par ID dans l'ordre d'insertion
+     */
+    private static class StateVisitor implements Visitor {
+        private final Map<Integer, Task> tasks = new LinkedHashMap<>();
+
+        void putAll(List<Task> snapshot) {
+            for (Task task : snapshot) {
+                put(task);
+            }
+        }
+
+        @Override
+        public void put(Task task) {
+            tasks.put(task.getId(), task);
+        }
+
+        @Override
+        public void delete(int taskId) {
+            tasks.remove(taskId);
+        }
+
+        @Override
+        public void clear() {
+            tasks.clear();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Requête sur les tâches : une condition ({@link TaskFilter}) et un ordre
+ *
+ * Immuable ; chaque méthode with* retourne une copie modifiée, en ajoutant sa
+ * condition (ET) à celles déjà présentes. En mémoire, la requête est évaluée par
+ * {@link TaskService#query(TaskQuery)} à l'aide des index ; une base de données la
+ * traduit en SQL (voir {@link H2TaskRepository}). {@link #matches(Task)} applique les
+ * mêmes règles tâche par tâche.
+ */
+public final class TaskQuery {
+
+    private static final TaskQuery ALL = new TaskQuery(TaskFilter.all(), List.of());
+
+    private final TaskFilter filter;
+    private final List<SortCriterion> sort;
+
+    private TaskQuery(TaskFilter filter, List<SortCriterion> sort) {
+        this.filter = filter;
+        this.sort = sort;
+    }
+
+    /**
+     * Toutes les tâches, dans l'ordre des IDs
+     */
+    public static TaskQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Tâches non terminées dont l'échéance est passée
+     */
+    public static TaskQuery overdue(LocalDate today) {
+        return ALL.where(TaskFilter.overdue(today));
+    }
+
+    /**
+     * Tâches non terminées dues ce jour-là
+     */
+    public static TaskQuery dueOn(LocalDate day) {
+        return ALL.where(TaskFilter.dueOn(day));
+    }
+
+    /**
+     * Remplace la condition
+     */
+    public TaskQuery where(TaskFilter filter) {
+        return new TaskQuery(filter, sort);
+    }
+
+    /**
+     * Ajoute une condition à celles déjà présentes
+     */
+    public TaskQuery and(TaskFilter condition) {
+        return new TaskQuery(filter.and(condition), sort);
+    }
+
+    public TaskQuery withStatus(Task.Status status) {
+        return and(TaskFilter.status(status));
+    }
+
+    /**
+     * Écarte les tâches terminées
+     */
+    public TaskQuery withOpenOnly() {
+        return and(TaskFilter.open());
+    }
+
+    public TaskQuery withPriority(Task.Priority priority) {
+        return and(TaskFilter.priority(priority));
+    }
+
+    /**
+     * Échéance comprise entre les deux dates incluses ; null laisse la borne ouverte.
+     * Les tâches sans échéance sont écartées.
+     */
+    public TaskQuery withDueBetween(LocalDate from, LocalDate to) {
+        return and(TaskFilter.dueBetween(from, to));
+    }
+
+    /**
+     * Texte recherché dans le titre ou la description, sans tenir compte de la casse
+     * ni des accents ; null ou vide n'applique aucun filtre
+     */
+    public TaskQuery withText(String text) {
+        return and(TaskFilter.text(text));
+    }
+
+    /**
+     * Ordre des résultats ; à critères égaux (ou sans critère), ordre des IDs
+     */
+    public TaskQuery withSort(List<SortCriterion> sort) {
+        return new TaskQuery(filter, List.copyOf(sort));
+    }
+
+    public TaskFilter getFilter() { return filter; }
+    public List<SortCriterion> getSort() { return sort; }
+
+    /**
+     * Indique si la tâche satisfait la condition (l'ordre n'intervient pas)
+     */
+    public boolean matches(Task task) {
+        return filter.matches(task);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskQuery)) return false;
+        TaskQuery other = (TaskQuery) o;
+        return filter.equals(other.filter) && sort.equals(other.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filter, sort);
+    }
+
+    @Override
+    public String toString() {
+        return filter + (sort.isEmpty() ? "" : ", tri " + sort);
+    }
+}
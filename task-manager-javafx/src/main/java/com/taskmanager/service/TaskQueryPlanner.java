@@ -0,0 +1,235 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Choix du chemin d'accès d'une condition parmi les index du service
+ *
+ * Chaque condition simple indexée (ID, statut, priorité, texte, échéance des tâches
+ * non terminées) propose ses candidats et leur nombre, connu sans les copier. Pour un
+ * ET, l'index le plus sélectif est retenu et les autres conditions sont vérifiées sur
+ * ses seuls candidats ; pour un OU, les candidats de chaque branche sont réunis, à
+ * condition que toutes soient indexées. Sans index utilisable, ou si les candidats
+ * dépassent la moitié des tâches, la liste est parcourue en entier.
+ *
+ * Les index de l'échéance ne contiennent que les tâches non terminées : ils ne servent
+ * qu'à une condition d'échéance combinée (ET) à « non terminée » ou à un statut ouvert.
+ *
+ * Depuis le thread propriétaire du service uniquement, comme les index.
+ */
+final class TaskQueryPlanner {
+
+    private final List<Task> tasks;
+    private final TaskIdIndex idIndex;
+    private final TaskAttributeIndex<Task.Status> statusIndex;
+    private final TaskAttributeIndex<Task.Priority> priorityIndex;
+    private final TaskDueDateIndex dueDateIndex;
+    private final TaskTextIndex textIndex;
+
+    TaskQueryPlanner(List<Task> tasks, TaskIdIndex idIndex, TaskAttributeIndex<Task.Status> statusIndex,
+                     TaskAttributeIndex<Task.Priority> priorityIndex, TaskDueDateIndex dueDateIndex,
+                     TaskTextIndex textIndex) {
+        this.tasks = tasks;
+        this.idIndex = idIndex;
+        this.statusIndex = statusIndex;
+        this.priorityIndex = priorityIndex;
+        this.dueDateIndex = dueDateIndex;
+        this.textIndex = textIndex;
+    }
+
+    /**
+     * Chemin d'accès retenu : candidats d'un ou plusieurs index, ou parcours complet
+     */
+    static final class Plan {
+        final String description;
+        final int estimate;
+        private final Supplier<Collection<Task>> candidates;
+
+        private Plan(String description, int estimate, Supplier<Collection<Task>> candidates) {
+            this.description = description;
+            this.estimate = estimate;
+            this.candidates = candidates;
+        }
+
+        boolean isScan() {
+            return candidates == null;
+        }
+
+        @Override
+        public String toString() {
+            return description + " (" + estimate + (isScan() ? " tâches)" : " candidats)");
+        }
+    }
+
+    /**
+     * Plan d'évaluation de la condition
+     */
+    Plan plan(TaskFilter filter) {
+        Plan plan = access(filter, false);
+        if (plan == null || plan.estimate > scanThreshold()) {
+            return new Plan("parcours complet", tasks.size(), null);
+        }
+        return plan;
+    }
+
+    /**
+     * Au-delà de ce nombre de candidats, la liste est parcourue en entier
+     */
+    private int scanThreshold() {
+        return tasks.size() / 2;
+    }
+
+    /**
+     * Tâches satisfaisant la condition, dans l'ordre de la liste
+     */
+    List<Task> execute(TaskFilter filter, Plan plan) {
+        List<Task> result = new ArrayList<>();
+        if (plan.isScan()) {
+            for (Task task : tasks) {
+                if (filter.matches(task)) {
+                    result.add(task);
+                }
+            }
+            return result;
+        }
+        // Condition complète vérifiée sur les candidats : les autres branches du ET,
+        // et le texte quand l'index ne donne qu'un sur-ensemble
+        for (Task task : plan.candidates.get()) {
+            if (filter.matches(task)) {
+                result.add(task);
+            }
+        }
+        Task[] ordered = result.toArray(new Task[0]);
+        int[] positions = new int[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            positions[i] = idIndex.position(ordered[i].getId());
+        }
+        sortByPosition(ordered, positions);
+        return new ArrayList<>(List.of(ordered));
+    }
+
+    /**
+     * Meilleur accès par index à la condition, ou null s'il n'y en a pas
+     *
+     * @param open les tâches terminées sont exclues par ailleurs (autre branche d'un ET)
+     */
+    private Plan access(TaskFilter filter, boolean open) {
+        switch (filter.kind) {
+            case ID: {
+                Task task = idIndex.get(filter.id);
+                List<Task> candidates = task != null ? List.of(task) : List.of();
+                return new Plan("index des IDs", candidates.size(), () -> candidates);
+            }
+            case STATUS: {
+                Set<Task> candidates = statusIndex.tasks(filter.status);
+                return new Plan("index des statuts", candidates.size(), () -> candidates);
+            }
+            case PRIORITY: {
+                Set<Task> candidates = priorityIndex.tasks(filter.priority);
+                return new Plan("index des priorités", candidates.size(), () -> candidates);
+            }
+            case DUE:
+                if (!open) {
+                    return null;
+                }
+                // Estimation bornée : un intervalle ouvert peut couvrir des années de jours
+                return new Plan("index des échéances", dueDateIndex.count(filter.from, filter.to, scanThreshold()),
+                        () -> dueDateIndex.range(filter.from, filter.to));
+            case TEXT: {
+                int[] ids = textIndex.candidates(filter.text);
+                if (ids == null) {
+                    return null;
+                }
+                return new Plan("index texte", ids.length, () -> resolve(ids));
+            }
+            case AND:
+                return bestOf(filter.operands, open || excludesCompleted(filter.operands));
+            case OR:
+                return unionOf(filter.operands, open);
+            default:
+                // Toutes, non terminée, dates de création et de fin : pas d'index
+                return null;
+        }
+    }
+
+    private static boolean excludesCompleted(List<TaskFilter> operands) {
+        for (TaskFilter operand : operands) {
+            if (operand.kind == TaskFilter.Kind.OPEN
+                    || (operand.kind == TaskFilter.Kind.STATUS && operand.status != Task.Status.COMPLETED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Plan bestOf(List<TaskFilter> operands, boolean open) {
+        Plan best = null;
+        for (TaskFilter operand : operands) {
+            Plan plan = access(operand, open);
+            if (plan != null && (best == null || plan.estimate < best.estimate)) {
+                best = plan;
+            }
+        }
+        return best;
+    }
+
+    private Plan unionOf(List<TaskFilter> operands, boolean open) {
+        List<Plan> plans = new ArrayList<>();
+        int estimate = 0;
+        for (TaskFilter operand : operands) {
+            Plan plan = access(operand, open);
+            if (plan == null) {
+                // Une branche sans index : le parcours complet est de toute façon nécessaire
+                return null;
+            }
+            plans.add(plan);
+            estimate += plan.estimate;
+        }
+        List<String> descriptions = new ArrayList<>();
+        for (Plan plan : plans) {
+            descriptions.add(plan.description);
+        }
+        return new Plan("union (" + String.join(", ", descriptions) + ")", estimate, () -> {
+            Set<Task> union = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Plan plan : plans) {
+                union.addAll(plan.candidates.get());
+            }
+            return union;
+        });
+    }
+
+    private List<Task> resolve(int[] ids) {
+        List<Task> candidates = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = idIndex.get(id);
+            if (task != null) {
+                candidates.add(task);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Trie par position dans la liste : clés primitives (position, indice), sans comparateur
+     */
+    private static void sortByPosition(Task[] tasks, int[] positions) {
+        long[] keys = new long[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            keys[i] = ((long) positions[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        Task[] copy = tasks.clone();
+        for (int i = 0; i < keys.length; i++) {
+            tasks[i] = copy[(int) keys[i]];
+        }
+    }
+}
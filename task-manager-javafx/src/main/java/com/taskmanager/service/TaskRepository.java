@@ -0,0 +1,67 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage des tâches interrogeable par requêtes et par pages
+ *
+ * Implémenté par {@link H2TaskRepository}, base embarquée sur disque où les filtres
+ * et l'ordre sont exécutés par la base : seules les pages demandées sont chargées en
+ * mémoire. Le fichier de données, lui, est entièrement en mémoire et passe par
+ * {@link TaskService}.
+ *
+ * Les tâches retournées sont des copies : les modifier n'a pas d'effet tant qu'elles
+ * ne sont pas repassées à {@link #save(Task)}.
+ */
+public interface TaskRepository extends AutoCloseable {
+
+    /**
+     * Nombre de tâches satisfaisant la requête
+     */
+    int count(TaskQuery query) throws IOException;
+
+    /**
+     * Nombre de tâches par statut, en une seule lecture ; les tâches sans statut sont
+     * comptées sous la clé null, les statuts sans tâche n'ont pas d'entrée
+     */
+    Map<Task.Status, Integer> countByStatus() throws IOException;
+
+    /**
+     * Page de résultats de la requête, dans son ordre
+     *
+     * @param offset position du premier résultat
+     * @param limit  nombre maximal de résultats
+     */
+    List<Task> find(TaskQuery query, int offset, int limit) throws IOException;
+
+    /**
+     * Tâche d'ID donné, ou null
+     */
+    Task findById(int id) throws IOException;
+
+    /**
+     * Ajoute une nouvelle tâche ; son ID est attribué par le stockage
+     */
+    void insert(Task task) throws IOException;
+
+    /**
+     * Enregistre une tâche existante (mêmes règles que {@link TaskService#updateTask(Task)})
+     */
+    void save(Task task) throws IOException;
+
+    void delete(int id) throws IOException;
+
+    void deleteAll() throws IOException;
+
+    /**
+     * Mesures de fonctionnement du stockage
+     */
+    ServiceMetrics getMetrics();
+
+    @Override
+    void close() throws IOException;
+}
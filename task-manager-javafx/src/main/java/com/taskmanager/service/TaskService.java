@@ -1,37 +1,381 @@
 package com.taskmanager.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskClock;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service pour la gestion des tâches avec sauvegarde locale en JSON
+ *
+ * Les sauvegardes sont différées et écrites en arrière-plan (voir {@link WriteBehindPersister}).
+ * En mode journal, chaque mutation est ajoutée au journal au lieu de réécrire
+ * tout le fichier (voir {@link TaskJournal}).
+ *
+ * La liste observable et les index appartiennent au thread propriétaire (celui de
+ * l'exécuteur de l'interface). Les autres threads lisent les tâches via
+ * {@link #getSnapshot()}, sans verrou ; les ajouts, modifications et suppressions
+ * qu'ils demandent sont transmis au thread propriétaire et appliqués par lots, en une
+ * seule impulsion pour toutes les demandes arrivées entre-temps.
+ *
+ * Le fichier de données est surveillé : modifié par une autre instance ou un script,
+ * il est relu et seules les différences avec la dernière version connue sont
+ * appliquées (voir {@link TaskDiff}). Les tâches modifiées le sont sur place, ce qui
+ * préserve la sélection et la position dans la table. Un fichier modifié n'est jamais
+ * écrasé sans avoir été relu ; écritures et relectures passent par un verrou
+ * consultatif ({@link DataFileLock}).
  */
 public class TaskService {
 
-    private static final String DATA_FILE = "tasks.json";
+    private static final long WATCH_QUIET_MILLIS = 250;
+
     private final ObservableList<Task> tasks;
     private final ObjectMapper objectMapper;
     private final AtomicInteger nextId;
+    private final TaskIdIndex idIndex;
+    private final TaskAttributeIndex<Task.Status> statusIndex;
+    private final TaskAttributeIndex<Task.Priority> priorityIndex;
+    private final TaskDueDateIndex dueDateIndex;
+    private final TaskTextIndex textIndex;
+    private final TaskQueryPlanner planner;
+    // Rappels d'échéance, créés par startReminders
+    private ReminderScheduler reminders;
+    // Date du jour des états « en retard » et « due aujourd'hui », et son changement à minuit
+    private final TaskClock clock;
+    private final DayRollover dayRollover;
+    private DayListener dayListener;
+    private final Task.ChangeObserver changeObserver = this::onTaskChanged;
+    private final SnapshotStore snapshotStore;
+    private final WriteBehindPersister persister;
+    private final TaskJournal journal;
+    private final DataFileLock fileLock;
+    private final DataFileWatcher watcher;
+    private final Executor uiExecutor;
+    private final ServiceMetrics metrics = new ServiceMetrics();
+    private final Histogram addTimer = metrics.histogram("ajout", MetricUnit.NANOSECONDS);
+    private final Histogram updateTimer = metrics.histogram("modification", MetricUnit.NANOSECONDS);
+    private final Histogram deleteTimer = metrics.histogram("suppression", MetricUnit.NANOSECONDS);
+    private final Histogram searchTimer = metrics.histogram("recherche", MetricUnit.NANOSECONDS);
+    private final Histogram filterTimer = metrics.histogram("filtre", MetricUnit.NANOSECONDS);
+    private final Histogram queryTimer = metrics.histogram("requête", MetricUnit.NANOSECONDS);
+    private final ServiceMetrics.Counter queryScans = metrics.counter("requêtes par parcours complet", MetricUnit.COUNT);
+    private final Histogram sortTimer = metrics.histogram("tri", MetricUnit.NANOSECONDS);
+    private final Histogram loadTimer = metrics.histogram("chargement", MetricUnit.NANOSECONDS);
+    private final Histogram importTimer = metrics.histogram("import", MetricUnit.NANOSECONDS);
+    private final Histogram exportTimer = metrics.histogram("export", MetricUnit.NANOSECONDS);
+    private final Histogram captureTimer = metrics.histogram("capture de l'instantané", MetricUnit.NANOSECONDS);
+    private final Histogram persistTimer = metrics.histogram("écriture de l'instantané", MetricUnit.NANOSECONDS);
+    private final Histogram snapshotSize = metrics.histogram("taille de l'instantané", MetricUnit.BYTES);
+    private final Histogram reloadTimer = metrics.histogram("relecture du fichier modifié", MetricUnit.NANOSECONDS);
+    private final Histogram rolloverTimer = metrics.histogram("changement de jour", MetricUnit.NANOSECONDS);
+    private final ServiceMetrics.Counter bytesWritten = metrics.counter("octets écrits", MetricUnit.BYTES);
+    private final ServiceMetrics.Counter saveErrors = metrics.counter("erreurs de sauvegarde", MetricUnit.COUNT);
+    // Copies figées des tâches dans l'ordre de la liste (thread propriétaire), publiées
+    // en instantanés immuables au plus une fois par impulsion
+    private Task[] frozen = new Task[16];
+    private int frozenSize;
+    private boolean frozenChanged;
+    private long version;
+    private volatile TaskSnapshot published = TaskSnapshot.EMPTY;
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+    // Mutations demandées depuis d'autres threads, en attente du thread propriétaire
+    private final Queue<Runnable> pendingMutations = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mutationsScheduled = new AtomicBoolean();
+    private volatile Thread ownerThread;
+    // Dernière version connue du fichier : tâches lues ou écrites
+    private volatile List<Task> synced = List.of();
+    private volatile boolean mergePending;
+    private volatile boolean loading;
+    private boolean saveAfterLoad;
+    private volatile boolean closed;
+    // Copie des modifications locales écrite à la fermeture (voir writeConflictCopy)
+    private volatile Path conflictFile;
 
     public TaskService() {
+        this(StorageSettings.fromSystemProperties());
+    }
+
+    /**
+     * Crée le service et charge immédiatement les tâches sur le thread appelant
+     *
+     * Sans exécuteur, rien ne peut être remis au thread appelant : le fichier n'est pas
+     * surveillé.
+     */
+    public TaskService(StorageSettings settings) {
+        this(settings.withWatch(false), Runnable::run);
+        loadTasks();
+    }
+
+    /**
+     * Crée le service sans charger les tâches : appeler ensuite {@link #loadTasks()}
+     * ou {@link #loadTasksInBackground(LoadListener)}
+     *
+     * @param uiExecutor exécuteur du thread propriétaire des tâches (Platform::runLater
+     *                   pour l'interface) ; la capture des instantanés à sauvegarder y est
+     *                   reportée afin de regrouper les mutations d'un même traitement, et
+     *                   les lots du chargement en arrière-plan y sont publiés
+     */
+    public TaskService(StorageSettings settings, Executor uiExecutor) {
         this.tasks = FXCollections.observableArrayList();
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.nextId = new AtomicInteger(1);
+        this.idIndex = new TaskIdIndex();
+        this.statusIndex = new TaskAttributeIndex<>(Task.Status.class);
+        this.priorityIndex = new TaskAttributeIndex<>(Task.Priority.class);
+        this.dueDateIndex = new TaskDueDateIndex();
+        this.textIndex = new TaskTextIndex();
+        this.planner = new TaskQueryPlanner(tasks, idIndex, statusIndex, priorityIndex, dueDateIndex, textIndex);
+        this.fileLock = settings.isWatchEnabled() ? openFileLock(settings) : null;
+        this.snapshotStore = new SnapshotStore(settings.getDataFile(), objectMapper, settings.getSnapshotFormat(),
+                fileLock);
+        this.persister = new WriteBehindPersister(this::writeSnapshot, this::snapshot,
+                uiExecutor, settings.getWriteBehindMillis());
+        this.journal = settings.isJournalEnabled() ? openJournal(settings) : null;
+        this.watcher = fileLock != null ? openWatcher(settings) : null;
+        this.uiExecutor = uiExecutor;
+        this.clock = TaskClock.current();
+        this.dayRollover = new DayRollover(clock, uiExecutor, this::onDayChanged);
+        // Le thread propriétaire est celui de l'exécuteur ; en attendant qu'il s'exécute,
+        // celui qui crée le service (exécuteur direct, bancs d'essai)
+        this.ownerThread = Thread.currentThread();
+        uiExecutor.execute(() -> ownerThread = Thread.currentThread());
+        registerGauges();
 
-        loadTasks();
+        // Premier écouteur : les index sont à jour avant que l'interface ne soit notifiée
+        tasks.addListener(this::onTasksChanged);
+        if (watcher != null) {
+            watcher.start();
+        }
+        dayRollover.start();
+    }
+
+    private void registerGauges() {
+        Runtime runtime = Runtime.getRuntime();
+        metrics.gauge("tâches", MetricUnit.COUNT, tasks::size);
+        metrics.gauge("version de l'instantané", MetricUnit.COUNT, () -> published.getVersion());
+        metrics.gauge("index des IDs", MetricUnit.COUNT, idIndex::size);
+        metrics.gauge("index texte (trigrammes)", MetricUnit.COUNT, textIndex::keyCount);
+        metrics.gauge("index des échéances (jours)", MetricUnit.COUNT, dueDateIndex::dayCount);
+        metrics.gauge("tas utilisé", MetricUnit.BYTES, () -> runtime.totalMemory() - runtime.freeMemory());
+        metrics.gauge("tas réservé", MetricUnit.BYTES, runtime::totalMemory);
+        metrics.gauge("tas maximum", MetricUnit.BYTES, runtime::maxMemory);
+    }
+
+    /**
+     * Tient les index à jour pour toute modification de la liste (ajouts, suppressions,
+     * remplacements, permutations dues au tri)
+     */
+    private void onTasksChanged(ListChangeListener.Change<? extends Task> change) {
+        if (tasks.isEmpty()) {
+            // Liste vidée (effacement, rechargement) : les index repartent de zéro d'un coup
+            while (change.next()) {
+                for (Task removed : change.getRemoved()) {
+                    removed.detachObserver(changeObserver);
+                }
+            }
+            idIndex.clear();
+            statusIndex.clear();
+            priorityIndex.clear();
+            dueDateIndex.clear();
+            textIndex.clear();
+            dueDatesChanged();
+            frozen = new Task[16];
+            frozenSize = 0;
+            frozenChanged();
+            return;
+        }
+        int reindexFrom = Integer.MAX_VALUE;
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                Task[] moved = Arrays.copyOfRange(frozen, change.getFrom(), change.getTo());
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    idIndex.setPosition(tasks.get(i).getId(), i);
+                    frozen[change.getPermutation(i)] = moved[i - change.getFrom()];
+                }
+                frozenChanged();
+                continue;
+            }
+            if (change.getRemovedSize() == 1 && change.getAddedSize() == 1
+                    && change.getRemoved().get(0) == tasks.get(change.getFrom())) {
+                // Tâche remplacée par elle-même (changement de jour) : index et copie figée déjà à jour
+                continue;
+            }
+            for (Task removed : change.getRemoved()) {
+                untrack(removed);
+            }
+            replaceFrozen(change.getFrom(), change.getRemovedSize(), change.getTo());
+            for (int i = change.getFrom(); i < change.getTo(); i++) {
+                track(tasks.get(i), i);
+            }
+            if (change.getAddedSize() != change.getRemovedSize()) {
+                // Les éléments suivants ont été décalés
+                reindexFrom = Math.min(reindexFrom, change.getTo());
+            }
+        }
+        for (int i = reindexFrom; i < tasks.size(); i++) {
+            idIndex.setPosition(tasks.get(i).getId(), i);
+        }
+    }
+
+    /**
+     * Reporte un remplacement de la liste sur les copies figées : removedSize copies
+     * retirées à partir de from, remplacées par celles des tâches [from, to)
+     */
+    private void replaceFrozen(int from, int removedSize, int to) {
+        int newSize = frozenSize - removedSize + (to - from);
+        if (newSize > frozen.length) {
+            frozen = Arrays.copyOf(frozen, Math.max(newSize, frozen.length + (frozen.length >> 1)));
+        }
+        System.arraycopy(frozen, from + removedSize, frozen, to, frozenSize - from - removedSize);
+        if (newSize < frozenSize) {
+            Arrays.fill(frozen, newSize, frozenSize, null);
+        }
+        frozenSize = newSize;
+        for (int i = from; i < to; i++) {
+            frozen[i] = tasks.get(i).clone();
+        }
+        frozenChanged();
+    }
+
+    /**
+     * Programme la publication d'un nouvel instantané à la fin du traitement en cours ;
+     * les changements d'une même impulsion donnent une seule version
+     */
+    private void frozenChanged() {
+        frozenChanged = true;
+        if (publishScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::publish);
+        }
+    }
+
+    private void publish() {
+        publishScheduled.set(false);
+        if (frozenChanged) {
+            frozenChanged = false;
+            published = new TaskSnapshot(++version, Arrays.copyOf(frozen, frozenSize));
+        }
+    }
+
+    private void track(Task task, int position) {
+        idIndex.put(task, position);
+        statusIndex.add(task, task.getStatus());
+        priorityIndex.add(task, task.getPriority());
+        dueDateIndex.add(task);
+        textIndex.add(task);
+        dueDatesChanged();
+        task.attachObserver(changeObserver);
+    }
+
+    private void untrack(Task task) {
+        idIndex.remove(task.getId(), task);
+        statusIndex.remove(task, task.getStatus());
+        priorityIndex.remove(task, task.getPriority());
+        dueDateIndex.remove(task);
+        textIndex.remove(task);
+        dueDatesChanged();
+        task.detachObserver(changeObserver);
+    }
+
+    /**
+     * Tâche modifiée sur place : l'observateur évite d'attacher des écouteurs de
+     * propriétés, qui forceraient leur création pour chaque tâche
+     */
+    private void onTaskChanged(Task task, Task.Field field, Object oldValue, Object newValue) {
+        switch (field) {
+            case STATUS:
+                statusIndex.move(task, (Task.Status) oldValue, (Task.Status) newValue);
+                dueDateIndex.statusChanged(task, (Task.Status) oldValue, (Task.Status) newValue);
+                dueDatesChanged();
+                break;
+            case PRIORITY:
+                priorityIndex.move(task, (Task.Priority) oldValue, (Task.Priority) newValue);
+                break;
+            case DUE_DATE:
+                dueDateIndex.dueDateChanged(task, (LocalDate) oldValue, (LocalDate) newValue);
+                dueDatesChanged();
+                break;
+            case TITLE:
+                textIndex.textChanged(task.getId(), (String) oldValue, task.getDescription(),
+                        (String) newValue, task.getDescription());
+                break;
+            case DESCRIPTION:
+                textIndex.textChanged(task.getId(), task.getTitle(), (String) oldValue,
+                        task.getTitle(), (String) newValue);
+                break;
+            default:
+                break;
+        }
+        int position = idIndex.position(task.getId());
+        if (position >= 0 && position < frozenSize) {
+            frozen[position] = task.clone();
+            frozenChanged();
+        }
+    }
+
+    /**
+     * Remet les tâches dans l'ordre de la liste ; coût proportionnel au résultat
+     */
+    private List<Task> inListOrder(Collection<Task> subset) {
+        Task[] result = subset.toArray(new Task[0]);
+        Arrays.sort(result, Comparator.comparingInt(task -> idIndex.position(task.getId())));
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private TaskJournal openJournal(StorageSettings settings) {
+        try {
+            return new TaskJournal(settings, snapshotStore, objectMapper, persister.orderedExecutor(),
+                    bytesWritten);
+        } catch (IOException e) {
+            System.err.println("Impossible d'ouvrir le journal, retour à la sauvegarde complète: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private DataFileLock openFileLock(StorageSettings settings) {
+        try {
+            return new DataFileLock(settings.getDataFile());
+        } catch (IOException e) {
+            System.err.println("Impossible de verrouiller le fichier, surveillance désactivée: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private DataFileWatcher openWatcher(StorageSettings settings) {
+        try {
+            return new DataFileWatcher(settings.getDataFile(), WATCH_QUIET_MILLIS,
+                    () -> reloadExternalChanges(false));
+        } catch (IOException e) {
+            System.err.println("Impossible de surveiller le fichier de données: " + e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -41,176 +385,633 @@ public class TaskService {
         return tasks;
     }
 
+    /**
+     * Dernier instantané publié des tâches ; utilisable depuis n'importe quel thread
+     *
+     * Depuis le thread propriétaire, l'instantané reflète toujours l'état courant. Depuis
+     * un autre thread, il peut retarder d'une impulsion sur la liste observable.
+     */
+    public TaskSnapshot getSnapshot() {
+        if (onOwnerThread() && frozenChanged) {
+            publish();
+        }
+        return published;
+    }
+
+    /**
+     * Copies figées des tâches données, dans le même ordre ; thread propriétaire
+     */
+    List<Task> frozenCopies(List<Task> live) {
+        Task[] copies = new Task[live.size()];
+        int count = 0;
+        for (Task task : live) {
+            int position = idIndex.position(task.getId());
+            if (position >= 0) {
+                copies[count++] = frozen[position];
+            }
+        }
+        return Arrays.asList(copies).subList(0, count);
+    }
+
+    /**
+     * Copies figées des tâches, une par tâche et dans le même ordre (un clone pour une
+     * tâche qui n'est pas dans la liste) ; thread propriétaire
+     */
+    Task[] frozenCopies(Task[] live) {
+        Task[] copies = new Task[live.length];
+        for (int i = 0; i < live.length; i++) {
+            Task task = live[i];
+            int position = positionOf(task);
+            copies[i] = position >= 0 && position < frozenSize ? frozen[position] : task.clone();
+        }
+        return copies;
+    }
+
+    /**
+     * Position de cette tâche (et non d'une autre de même ID) dans la liste, ou -1 ;
+     * thread propriétaire
+     */
+    int positionOf(Task task) {
+        return idIndex.get(task.getId()) == task ? idIndex.position(task.getId()) : -1;
+    }
+
+    private boolean onOwnerThread() {
+        return Thread.currentThread() == ownerThread;
+    }
+
+    /**
+     * Transmet une mutation demandée hors du thread propriétaire ; les demandes
+     * arrivées avant l'exécution du lot sont appliquées ensemble
+     *
+     * @return false si l'appelant est déjà sur le thread propriétaire
+     */
+    private boolean deferToOwner(Runnable mutation) {
+        if (onOwnerThread()) {
+            return false;
+        }
+        pendingMutations.add(mutation);
+        if (mutationsScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::applyPendingMutations);
+        }
+        return true;
+    }
+
+    private void applyPendingMutations() {
+        mutationsScheduled.set(false);
+        List<Task> added = new ArrayList<>();
+        Runnable mutation;
+        while ((mutation = pendingMutations.poll()) != null) {
+            if (mutation instanceof PendingAdd) {
+                // Ajouts consécutifs regroupés : un seul événement de liste
+                added.add(((PendingAdd) mutation).task);
+                continue;
+            }
+            insertAll(added);
+            added.clear();
+            mutation.run();
+        }
+        insertAll(added);
+    }
+
+    /**
+     * Ajout demandé depuis un autre thread ; l'ID est déjà attribué
+     */
+    private final class PendingAdd implements Runnable {
+        final Task task;
+
+        PendingAdd(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            insertAll(List.of(task));
+        }
+    }
+
+    /**
+     * Mesures de fonctionnement du service (durées des opérations, sauvegardes, index)
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Ajoute une nouvelle tâche
+     *
+     * Depuis un autre thread, l'ID est attribué immédiatement et la tâche apparaît dans
+     * la liste à la prochaine impulsion du thread propriétaire.
      */
     public void addTask(Task task) {
+        long start = System.nanoTime();
         task.setId(nextId.getAndIncrement());
+        if (deferToOwner(new PendingAdd(task))) {
+            return;
+        }
         tasks.add(task);
-        saveTasks();
+        persistPut(task);
+        addTimer.recordSince(start);
     }
 
     /**
      * Met à jour une tâche existante
      */
     public void updateTask(Task task) {
+        if (deferToOwner(() -> updateTask(task))) {
+            return;
+        }
+        long start = System.nanoTime();
         int index = findTaskIndex(task.getId());
         if (index != -1) {
             tasks.set(index, task);
-            saveTasks();
+            persistPut(task);
         }
+        updateTimer.recordSince(start);
     }
 
     /**
      * Supprime une tâche
      */
     public void deleteTask(Task task) {
-        tasks.remove(task);
-        saveTasks();
+        deleteTask(task.getId());
     }
 
     /**
      * Supprime une tâche par son ID
      */
     public void deleteTask(int taskId) {
-        tasks.removeIf(task -> task.getId() == taskId);
-        saveTasks();
+        if (deferToOwner(() -> deleteTask(taskId))) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (removeById(taskId)) {
+            persistDelete(taskId);
+        }
+        deleteTimer.recordSince(start);
+    }
+
+    private boolean removeById(int taskId) {
+        int index = idIndex.position(taskId);
+        if (index == -1) {
+            return false;
+        }
+        tasks.remove(index);
+        return true;
+    }
+
+    private void persistPut(Task task) {
+        if (journal != null) {
+            journal.appendPut(task);
+        } else {
+            saveTasks();
+        }
+    }
+
+    private void persistDelete(int taskId) {
+        if (journal != null) {
+            journal.appendDelete(taskId);
+        } else {
+            saveTasks();
+        }
     }
 
     /**
      * Trouve une tâche par son ID
      */
     public Task findTaskById(int id) {
-        return tasks.stream()
-                .filter(task -> task.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return idIndex.get(id);
     }
 
     /**
      * Trouve l'index d'une tâche par son ID
      */
     private int findTaskIndex(int id) {
-        for (int i = 0; i < tasks.size(); i++) {
-            if (tasks.get(i).getId() == id) {
-                return i;
-            }
-        }
-        return -1;
+        return idIndex.position(id);
     }
 
     /**
      * Filtre les tâches par statut
      */
     public List<Task> getTasksByStatus(Task.Status status) {
-        return tasks.stream()
-                .filter(task -> task.getStatus() == status)
-                .collect(Collectors.toList());
+        return filtered(statusIndex.tasks(status));
     }
 
     /**
      * Filtre les tâches par priorité
      */
     public List<Task> getTasksByPriority(Task.Priority priority) {
-        return tasks.stream()
-                .filter(task -> task.getPriority() == priority)
-                .collect(Collectors.toList());
+        return filtered(priorityIndex.tasks(priority));
     }
 
     /**
      * Retourne les tâches en retard
      */
     public List<Task> getOverdueTasks() {
-        return tasks.stream()
-                .filter(Task::isOverdue)
-                .collect(Collectors.toList());
+        return filtered(dueDateIndex.before(clock.today()));
     }
 
     /**
      * Retourne les tâches dues aujourd'hui
      */
     public List<Task> getTodayTasks() {
-        return tasks.stream()
-                .filter(Task::isDueToday)
-                .collect(Collectors.toList());
+        return filtered(dueDateIndex.on(clock.today()));
     }
 
     /**
-     * Retourne les tâches dues cette semaine
+     * Retourne les tâches non terminées dues cette semaine
      */
     public List<Task> getThisWeekTasks() {
-        LocalDate now = LocalDate.now();
+        LocalDate now = clock.today();
         LocalDate endOfWeek = now.plusDays(7 - now.getDayOfWeek().getValue());
 
-        return tasks.stream()
-                .filter(task -> task.getDueDate() != null)
-                .filter(task -> !task.getDueDate().isBefore(now) &&
-                        !task.getDueDate().isAfter(endOfWeek))
-                .collect(Collectors.toList());
+        return filtered(dueDateIndex.between(now, endOfWeek));
+    }
+
+    /**
+     * Tâches satisfaisant la requête, dans l'ordre de la liste ou dans celui de la requête
+     *
+     * La condition est évaluée à partir de l'index le plus sélectif (voir
+     * {@link TaskQueryPlanner}) ; la liste n'est parcourue en entier que si aucun index
+     * ne s'applique. Depuis le thread propriétaire uniquement, comme les index.
+     */
+    public List<Task> query(TaskQuery query) {
+        long start = System.nanoTime();
+        // « En retard » et « due aujourd'hui » fixés au jour courant pour toute l'évaluation
+        TaskFilter filter = query.getFilter().atDay(clock.today());
+        TaskQueryPlanner.Plan plan = planner.plan(filter);
+        if (plan.isScan()) {
+            queryScans.increment();
+        }
+        List<Task> result = planner.execute(filter, plan);
+        if (!query.getSort().isEmpty()) {
+            TaskSortKey[] sorted = TaskSortKey.sort(result.toArray(new Task[0]), query.getSort(),
+                    TaskSortKey.newCollator(), 0);
+            result.clear();
+            for (TaskSortKey key : sorted) {
+                result.add(key.task);
+            }
+        }
+        queryTimer.recordSince(start);
+        return result;
+    }
+
+    /**
+     * Chemin d'accès choisi pour la requête, par exemple « index des statuts (1204 candidats) »
+     */
+    public String explain(TaskQuery query) {
+        return planner.plan(query.getFilter().atDay(clock.today())).toString();
+    }
+
+    private List<Task> filtered(Collection<Task> subset) {
+        long start = System.nanoTime();
+        List<Task> result = inListOrder(subset);
+        filterTimer.recordSince(start);
+        return result;
     }
 
     /**
      * Recherche des tâches par titre ou description
+     *
+     * La recherche ignore la casse et les accents (« reunion » trouve « Réunion ») et
+     * passe par l'index plein texte dès deux caractères.
      */
     public List<Task> searchTasks(String query) {
         if (query == null || query.trim().isEmpty()) {
             return List.copyOf(tasks);
         }
+        long start = System.nanoTime();
+        List<Task> result = search(query);
+        searchTimer.recordSince(start);
+        return result;
+    }
+
+    private List<Task> search(String query) {
+        String normalizedQuery = TextNormalizer.normalize(query);
+        List<Task> matches = textIndex.search(normalizedQuery, idIndex::get);
+        if (matches == null) {
+            // Un seul caractère : l'index n'aide pas, parcours complet
+            return tasks.stream()
+                    .filter(task -> TaskTextIndex.matches(task, normalizedQuery))
+                    .collect(Collectors.toList());
+        }
+        return inListOrder(matches);
+    }
 
-        String lowerQuery = query.toLowerCase();
-        return tasks.stream()
-                .filter(task -> task.getTitle().toLowerCase().contains(lowerQuery) ||
-                        task.getDescription().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+    TaskTextIndex textIndex() {
+        return textIndex;
+    }
+
+    /**
+     * Indique si une tâche correspond à la recherche, avec les mêmes règles que
+     * {@link #searchTasks(String)} mais sans passer par l'index
+     */
+    public boolean matchesSearch(Task task, String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return true;
+        }
+        return TaskTextIndex.matches(task, TextNormalizer.normalize(query));
     }
 
     /**
      * Trie les tâches selon différents critères
+     *
+     * Retourne une copie triée : la liste des tâches, et donc l'ordre sauvegardé, n'est
+     * pas modifiée. Pour l'affichage, voir {@link SortedTaskView}.
      */
-    public void sortTasks(String criteria) {
-        Comparator<Task> comparator;
+    public List<Task> sortTasks(String criteria) {
+        SortCriterion criterion;
 
         switch (criteria.toLowerCase()) {
             case "priority":
-                comparator = (t1, t2) -> t2.getPriority().compareTo(t1.getPriority());
+                criterion = new SortCriterion(Task.Field.PRIORITY, false);
                 break;
             case "duedate":
-                comparator = Comparator.comparing(Task::getDueDate,
-                        Comparator.nullsLast(Comparator.naturalOrder()));
+                criterion = new SortCriterion(Task.Field.DUE_DATE, true);
                 break;
             case "status":
-                comparator = Comparator.comparing(Task::getStatus);
+                criterion = new SortCriterion(Task.Field.STATUS, true);
                 break;
             case "created":
-                comparator = Comparator.comparing(Task::getCreatedAt);
+                criterion = new SortCriterion(Task.Field.CREATED_AT, true);
                 break;
             case "title":
             default:
-                comparator = Comparator.comparing(Task::getTitle, String.CASE_INSENSITIVE_ORDER);
+                criterion = new SortCriterion(Task.Field.TITLE, true);
                 break;
         }
 
-        FXCollections.sort(tasks, comparator);
+        long start = System.nanoTime();
+        TaskSortKey[] sorted = TaskSortKey.sort(tasks.toArray(new Task[0]), List.of(criterion),
+                TaskSortKey.newCollator(), 0);
+        List<Task> result = new ArrayList<>(sorted.length);
+        for (TaskSortKey key : sorted) {
+            result.add(key.task);
+        }
+        sortTimer.recordSince(start);
+        return result;
     }
 
     /**
      * Compte les tâches par statut
      */
     public long countTasksByStatus(Task.Status status) {
-        return tasks.stream()
-                .filter(task -> task.getStatus() == status)
-                .count();
+        return statusIndex.count(status);
+    }
+
+    /**
+     * Compte les tâches par priorité
+     */
+    public long countTasksByPriority(Task.Priority priority) {
+        return priorityIndex.count(priority);
     }
 
     /**
      * Sauvegarde les tâches dans un fichier JSON
+     *
+     * La sauvegarde est différée : les demandes rapprochées sont regroupées et
+     * l'écriture a lieu en arrière-plan. En mode journal, l'instantané écrit
+     * remplace le journal (point de contrôle).
      */
     public void saveTasks() {
+        if (loading) {
+            // Ne jamais écrire un instantané partiel pendant le chargement
+            saveAfterLoad = true;
+            return;
+        }
+        persister.requestSave();
+    }
+
+    /**
+     * Écrit immédiatement la sauvegarde en attente et attend la fin de l'écriture
+     *
+     * À appeler depuis le thread propriétaire des tâches.
+     */
+    public void flush() {
+        persister.flush();
+    }
+
+    /**
+     * Copie immuable des tâches, sérialisable hors du thread de l'interface : les copies
+     * figées sont déjà prêtes, seules les références sont copiées
+     */
+    private List<Task> snapshot() {
+        long start = System.nanoTime();
+        List<Task> snapshot = getSnapshot().getTasks();
+        captureTimer.recordSince(start);
+        return snapshot;
+    }
+
+    private void writeSnapshot(List<Task> snapshot) throws IOException {
+        long start = System.nanoTime();
+        boolean written;
+        try {
+            written = snapshotStore.locked(() -> {
+                if (mergePending || snapshotStore.changedExternally()) {
+                    return false;
+                }
+                if (journal != null) {
+                    journal.checkpoint(snapshot);
+                } else {
+                    snapshotStore.write(snapshot);
+                }
+                synced = snapshot;
+                return true;
+            });
+        } catch (IOException e) {
+            saveErrors.increment();
+            throw e;
+        }
+        if (!written) {
+            if (closed) {
+                // Plus de fusion possible à la fermeture : les modifications locales sont mises à part
+                writeConflictCopy(snapshot);
+                return;
+            }
+            // Fichier modifié par ailleurs : relu et fusionné d'abord, puis sauvegardé à nouveau
+            reloadExternalChanges(true);
+            return;
+        }
+        persistTimer.recordSince(start);
+        long size = Files.size(snapshotStore.getFile());
+        snapshotSize.record(size);
+        bytesWritten.add(size);
+    }
+
+    /**
+     * Relit le fichier s'il a été modifié par un autre processus et transmet les
+     * différences au thread propriétaire ; appelé par la surveillance du fichier, ou
+     * par l'écriture quand elle trouve le fichier modifié
+     */
+    private void reloadExternalChanges(boolean saveAfter) {
+        if (loading || closed) {
+            if (saveAfter) {
+                System.err.println("Fichier modifié par un autre processus, dernières modifications non enregistrées: "
+                        + snapshotStore.getFile());
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<Task> current = snapshotStore.locked(() -> {
+                if (!snapshotStore.changedExternally()) {
+                    return null;
+                }
+                snapshotStore.setKnownStamp(snapshotStore.stamp());
+                mergePending = true;
+                return journal != null ? journal.replay() : snapshotStore.read();
+            });
+            if (current == null) {
+                if (saveAfter) {
+                    uiExecutor.execute(this::saveTasks);
+                }
+                return;
+            }
+            TaskDiff diff = TaskDiff.between(synced, current);
+            uiExecutor.execute(() -> {
+                // Après la fermeture, la fusion a déjà été faite par close()
+                if (!closed) {
+                    applyExternalChanges(diff, current, saveAfter, start);
+                }
+            });
+        } catch (IOException e) {
+            mergePending = false;
+            System.err.println("Erreur lors de la relecture des tâches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applique les différences relues, sur le thread propriétaire
+     *
+     * En cas de conflit, le fichier l'emporte ; les modifications locales de tâches
+     * que le fichier n'a pas changées sont conservées (elles seront sauvegardées).
+     * Une tâche ajoutée par l'autre instance sous l'ID d'une tâche ajoutée ici sans être
+     * encore sauvegardée (compteurs d'IDs distincts) n'est pas un conflit : la tâche
+     * locale reçoit un nouvel ID, au-delà des deux maxima, et les deux sont gardées.
+     */
+    private void applyExternalChanges(TaskDiff diff, List<Task> current, boolean saveAfter, long start) {
+        for (Task task : current) {
+            nextId.accumulateAndGet(task.getId() + 1, Math::max);
+        }
+        List<Task> added = new ArrayList<>();
+        for (Task external : diff.added()) {
+            Task live = idIndex.get(external.getId());
+            if (live != null && TaskDiff.sameValues(live, external)) {
+                // Déjà présente ici (sauvegardée par cette instance, dans le journal)
+                continue;
+            }
+            if (live != null) {
+                renumber(live, nextId.getAndIncrement());
+            }
+            // Copie : les tâches relues restent la version connue du fichier
+            added.add(external.clone());
+        }
+        for (Task changed : diff.changed()) {
+            Task live = idIndex.get(changed.getId());
+            if (live == null) {
+                added.add(changed.clone());
+            } else if (!TaskDiff.sameValues(live, changed)) {
+                TaskDiff.copyValues(changed, live);
+                // Remplacée par elle-même : listes filtrées, vue triée et compteurs la réévaluent
+                tasks.set(idIndex.position(live.getId()), live);
+            }
+        }
+        Set<Task> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int id : diff.removed()) {
+            Task live = idIndex.get(id);
+            if (live != null) {
+                removed.add(live);
+            }
+        }
+        if (!removed.isEmpty()) {
+            tasks.removeAll(removed);
+        }
+        if (!added.isEmpty()) {
+            tasks.addAll(added);
+        }
+        synced = current;
+        mergePending = false;
+        reloadTimer.recordSince(start);
+        if (saveAfter) {
+            saveTasks();
+        }
+    }
+
+    /**
+     * Fusionne sur-le-champ les modifications du fichier faites par une autre instance,
+     * y compris une relecture dont la fusion n'a pas encore eu lieu ; à la fermeture,
+     * avant la dernière écriture
+     */
+    private void mergeExternalChangesNow() {
+        if (loading) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<Task> current = snapshotStore.locked(() -> {
+                if (!mergePending && !snapshotStore.changedExternally()) {
+                    return null;
+                }
+                snapshotStore.setKnownStamp(snapshotStore.stamp());
+                mergePending = true;
+                return journal != null ? journal.replay() : snapshotStore.read();
+            });
+            if (current != null) {
+                applyExternalChanges(TaskDiff.between(synced, current), current, true, start);
+            }
+        } catch (IOException e) {
+            mergePending = false;
+            System.err.println("Erreur lors de la relecture des tâches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit les tâches locales à côté du fichier de données (tasks.json.conflict) quand
+     * le fichier a encore changé pendant la fermeture
+     */
+    private void writeConflictCopy(List<Task> snapshot) {
+        Path file = snapshotStore.getFile();
+        Path copy = file.resolveSibling(file.getFileName() + ".conflict");
+        try {
+            snapshotStore.writeCopy(copy, snapshot);
+            conflictFile = copy;
+            System.err.println("Fichier modifié par un autre processus pendant la fermeture, "
+                    + "modifications locales enregistrées dans " + copy);
+        } catch (IOException e) {
+            saveErrors.increment();
+            System.err.println("Erreur lors de l'enregistrement des modifications locales dans " + copy
+                    + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copie des tâches locales écrite à la fermeture faute d'avoir pu les fusionner avec
+     * le fichier modifié par une autre instance, ou null
+     */
+    public Path getConflictFile() {
+        return conflictFile;
+    }
+
+    /**
+     * Change l'ID d'une tâche de la liste : retirée puis remise à la même place, pour
+     * que tous les index la reprennent sous son nouvel ID
+     */
+    private void renumber(Task task, int newId) {
+        int position = idIndex.position(task.getId());
+        tasks.remove(position);
+        task.setId(newId);
+        tasks.add(position, task);
+        persistPut(task);
+    }
+
+    /**
+     * Retient la version du fichier avant de le lire : une modification pendant le
+     * chargement sera relue ensuite
+     */
+    private void markFileKnown() {
         try {
-            objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValue(new File(DATA_FILE), tasks);
+            snapshotStore.setKnownStamp(snapshotStore.stamp());
         } catch (IOException e) {
-            System.err.println("Erreur lors de la sauvegarde des tâches: " + e.getMessage());
+            System.err.println("Erreur lors de la lecture des attributs du fichier: " + e.getMessage());
         }
     }
 
@@ -218,14 +1019,15 @@ public class TaskService {
      * Charge les tâches depuis le fichier JSON
      */
     public void loadTasks() {
-        File file = new File(DATA_FILE);
-        if (file.exists()) {
+        long start = System.nanoTime();
+        markFileKnown();
+        if (snapshotStore.exists() || (journal != null && journal.hasRecords())) {
             try {
-                List<Task> loadedTasks = objectMapper.readValue(file,
-                        new TypeReference<List<Task>>() {});
+                List<Task> loadedTasks = journal != null ? journal.replay() : snapshotStore.read();
 
                 tasks.clear();
                 tasks.addAll(loadedTasks);
+                synced = getSnapshot().getTasks();
 
                 // Met à jour l'ID suivant
                 int maxId = tasks.stream()
@@ -233,7 +1035,6 @@ public class TaskService {
                         .max()
                         .orElse(0);
                 nextId.set(maxId + 1);
-
             } catch (IOException e) {
                 System.err.println("Erreur lors du chargement des tâches: " + e.getMessage());
                 // Crée quelques tâches d'exemple en cas d'erreur
@@ -243,6 +1044,120 @@ public class TaskService {
             // Crée quelques tâches d'exemple si le fichier n'existe pas
             createSampleTasks();
         }
+        loadTimer.recordSince(start);
+    }
+
+    /**
+     * Suivi du chargement en arrière-plan ; les méthodes sont appelées via l'exécuteur
+     * de l'interface
+     */
+    public interface LoadListener {
+        void onProgress(int loadedTasks, double fraction);
+        void onLoaded(int totalTasks);
+    }
+
+    /**
+     * Indique si un chargement en arrière-plan est en cours
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Charge les tâches en flux sur un thread d'arrière-plan
+     *
+     * Les tâches sont ajoutées à la liste observable par lots (addAll) au fil de la
+     * lecture, ce qui permet d'afficher les premières lignes sans attendre la fin du
+     * fichier. En mode journal, les enregistrements du journal sont appliqués après
+     * l'instantané. L'ID suivant est mis à jour à chaque lot.
+     */
+    public void loadTasksInBackground(LoadListener listener) {
+        loading = true;
+        tasks.clear();
+        nextId.set(1);
+        ServiceThreads.daemon("task-loader").newThread(() -> streamTasks(listener)).start();
+    }
+
+    private void streamTasks(LoadListener listener) {
+        long start = System.nanoTime();
+        markFileKnown();
+        boolean hasData = snapshotStore.exists() || (journal != null && journal.hasRecords());
+        AtomicInteger loaded = new AtomicInteger();
+        boolean failed = false;
+
+        if (hasData) {
+            try {
+                TaskStreamReader.BatchConsumer publisher = (batch, fraction) -> {
+                    int maxId = 0;
+                    for (Task task : batch) {
+                        maxId = Math.max(maxId, task.getId());
+                    }
+                    int batchMaxId = maxId;
+                    int count = loaded.addAndGet(batch.size());
+                    uiExecutor.execute(() -> {
+                        tasks.addAll(batch);
+                        nextId.accumulateAndGet(batchMaxId + 1, Math::max);
+                        listener.onProgress(count, fraction);
+                    });
+                };
+
+                if (journal != null) {
+                    List<Runnable> journalOps = new ArrayList<>();
+                    journal.replay(() -> {
+                        if (snapshotStore.exists()) {
+                            snapshotStore.read(publisher);
+                        }
+                    }, new TaskJournal.Visitor() {
+                        @Override
+                        public void put(Task task) {
+                            journalOps.add(() -> applyJournalPut(task));
+                        }
+
+                        @Override
+                        public void delete(int taskId) {
+                            journalOps.add(() -> removeById(taskId));
+                        }
+
+                        @Override
+                        public void clear() {
+                            journalOps.add(tasks::clear);
+                        }
+                    });
+                    uiExecutor.execute(() -> journalOps.forEach(Runnable::run));
+                } else {
+                    snapshotStore.read(publisher);
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors du chargement des tâches: " + e.getMessage());
+                failed = loaded.get() == 0;
+            }
+        }
+
+        // Crée quelques tâches d'exemple si le fichier n'existe pas ou est illisible
+        boolean createSamples = !hasData || failed;
+        uiExecutor.execute(() -> {
+            synced = createSamples ? List.of() : getSnapshot().getTasks();
+            if (createSamples) {
+                createSampleTasks();
+            }
+            loading = false;
+            loadTimer.recordSince(start);
+            if (saveAfterLoad) {
+                saveAfterLoad = false;
+                saveTasks();
+            }
+            listener.onLoaded(tasks.size());
+        });
+    }
+
+    private void applyJournalPut(Task task) {
+        int index = findTaskIndex(task.getId());
+        if (index != -1) {
+            tasks.set(index, task);
+        } else {
+            tasks.add(task);
+        }
+        nextId.accumulateAndGet(task.getId() + 1, Math::max);
     }
 
     /**
@@ -273,29 +1188,193 @@ public class TaskService {
      * Efface toutes les tâches
      */
     public void clearAllTasks() {
+        if (deferToOwner(this::clearAllTasks)) {
+            return;
+        }
         tasks.clear();
-        saveTasks();
+        if (journal != null) {
+            journal.appendClear();
+        } else {
+            saveTasks();
+        }
     }
 
     /**
      * Importe des tâches depuis un fichier JSON
      */
     public void importTasks(File file) throws IOException {
-        List<Task> importedTasks = objectMapper.readValue(file,
-                new TypeReference<List<Task>>() {});
+        long start = System.nanoTime();
+        List<Task> importedTasks = new ArrayList<>();
+        new TaskStreamReader(objectMapper).read(file.toPath(), (batch, fraction) -> importedTasks.addAll(batch));
+        addImported(importedTasks);
+        importTimer.recordSince(start);
+    }
 
+    /**
+     * Importe un ou plusieurs fichiers JSON en arrière-plan (voir {@link BulkImport})
+     *
+     * À appeler depuis le thread de l'interface ; le suivi y est remis.
+     *
+     * @param skipDuplicates écarte les tâches de même titre, échéance et date de création
+     *                       qu'une tâche existante ou déjà importée
+     */
+    public BulkImport importTasksInBackground(List<File> files, boolean skipDuplicates,
+                                              BulkImport.Listener listener) {
+        BulkImport bulkImport = new BulkImport(this, objectMapper, uiExecutor, files, skipDuplicates,
+                importTimer, listener);
+        bulkImport.start();
+        return bulkImport;
+    }
+
+    /**
+     * Ajoute les tâches importées d'un bloc : IDs consécutifs réservés en une fois,
+     * un seul événement de liste et une seule sauvegarde
+     */
+    void addImported(List<Task> importedTasks) {
+        if (importedTasks.isEmpty()) {
+            return;
+        }
+        int firstId = nextId.getAndAdd(importedTasks.size());
+        for (int i = 0; i < importedTasks.size(); i++) {
+            importedTasks.get(i).setId(firstId + i);
+        }
+        if (onOwnerThread()) {
+            insertAll(importedTasks);
+            return;
+        }
         for (Task task : importedTasks) {
-            task.setId(nextId.getAndIncrement());
-            tasks.add(task);
+            deferToOwner(new PendingAdd(task));
+        }
+    }
+
+    private void insertAll(List<Task> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        tasks.addAll(added);
+        if (journal != null) {
+            journal.appendPuts(added);
+        } else {
+            saveTasks();
         }
-        saveTasks();
     }
 
     /**
-     * Exporte les tâches vers un fichier JSON
+     * Exporte toutes les tâches ; le format suit l'extension du fichier (voir {@link ExportFormat})
+     *
+     * Peut être appelé depuis n'importe quel thread : l'export porte sur le dernier instantané.
      */
     public void exportTasks(File file) throws IOException {
-        objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValue(file, tasks);
+        long start = System.nanoTime();
+        OutputStream out = Files.newOutputStream(file.toPath());
+        try (OutputStream target = ExportFormat.isCompressed(file)
+                ? new GZIPOutputStream(out) : new BufferedOutputStream(out)) {
+            new TaskExportWriter(objectMapper, ExportFormat.forFile(file))
+                    .write(getSnapshot().getTasks().iterator(), target, written -> { }, () -> false);
+        }
+        exportTimer.recordSince(start);
+    }
+
+    /**
+     * Exporte les tâches données (toutes, ou la vue filtrée) en arrière-plan
+     * (voir {@link BulkExport})
+     *
+     * À appeler depuis le thread de l'interface ; le suivi y est remis.
+     */
+    public BulkExport exportTasksInBackground(List<Task> exported, File file, BulkExport.Listener listener) {
+        List<Task> copies = exported == tasks ? getSnapshot().getTasks() : frozenCopies(exported);
+        BulkExport bulkExport = new BulkExport(objectMapper, uiExecutor, copies, file, exportTimer, listener);
+        bulkExport.start();
+        return bulkExport;
+    }
+
+    /**
+     * Changement de jour (voir {@link DayRollover}) : seules les tâches non terminées dont
+     * l'échéance est comprise entre l'ancien et le nouveau jour changent d'état. Chacune
+     * est remplacée par elle-même dans la liste, si bien que la table (style de la
+     * ligne), les listes filtrées et la vue triée ne réévaluent que ces tâches.
+     */
+    private void onDayChanged(LocalDate previous, LocalDate today) {
+        long start = System.nanoTime();
+        List<Task> affected = previous.isBefore(today)
+                ? dueDateIndex.range(previous, today)
+                : dueDateIndex.range(today, previous);
+        for (Task task : affected) {
+            int position = idIndex.position(task.getId());
+            if (position >= 0 && position < tasks.size() && tasks.get(position) == task) {
+                tasks.set(position, task);
+            }
+        }
+        rolloverTimer.recordSince(start);
+        if (dayListener != null) {
+            dayListener.onDayChanged(today, affected);
+        }
+    }
+
+    /**
+     * Suivi du changement de jour, appelé via l'exécuteur de l'interface une fois les
+     * tâches concernées réévaluées
+     */
+    public interface DayListener {
+        void onDayChanged(LocalDate today, List<Task> affected);
+    }
+
+    public void setDayListener(DayListener dayListener) {
+        this.dayListener = dayListener;
+    }
+
+    /**
+     * Date du jour des états « en retard » et « due aujourd'hui », mise en cache
+     */
+    public LocalDate today() {
+        return clock.today();
+    }
+
+    private void dueDatesChanged() {
+        if (reminders != null) {
+            reminders.dueDatesChanged();
+        }
+    }
+
+    /**
+     * Démarre les rappels d'échéance (voir {@link ReminderScheduler}) : les tâches déjà
+     * en retard sont signalées aussitôt, puis chaque jour les tâches dues à l'heure de
+     * rappel et celles passées en retard à minuit. Depuis le thread propriétaire, une
+     * fois les tâches chargées.
+     */
+    public void startReminders(LocalTime reminderTime, ReminderScheduler.Listener listener) {
+        if (reminders != null) {
+            reminders.close();
+        }
+        reminders = new ReminderScheduler(dueDateIndex, uiExecutor, clock.getClock(), reminderTime, listener);
+        reminders.start();
+    }
+
+    /**
+     * Écrit les sauvegardes en attente puis libère les ressources de persistance
+     *
+     * À appeler à la fermeture de l'application, depuis le thread de l'interface.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        dayRollover.close();
+        if (reminders != null) {
+            reminders.close();
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+        // Fichier modifié par une autre instance : fusion ici, la dernière écriture ne peut plus attendre
+        mergeExternalChangesNow();
+        persister.close();
+        if (journal != null) {
+            journal.close();
+        }
+        if (fileLock != null) {
+            fileLock.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Instantané immuable et versionné des tâches, lisible depuis n'importe quel thread
+ *
+ * Les tâches de l'instantané sont des copies figées, dans l'ordre de la liste : elles
+ * ne changent plus après publication et sont partagées entre instantanés successifs
+ * tant que la tâche d'origine n'est pas modifiée. Elles ne doivent pas être modifiées
+ * ni liées à l'interface (lecture par les accesseurs get uniquement) ; pour modifier
+ * une tâche, passer une copie à {@link TaskService#updateTask(Task)}.
+ */
+public final class TaskSnapshot {
+
+    static final TaskSnapshot EMPTY = new TaskSnapshot(0, new Task[0]);
+
+    private final long version;
+    private final List<Task> tasks;
+
+    TaskSnapshot(long version, Task[] tasks) {
+        this.version = version;
+        this.tasks = Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+
+    /**
+     * Numéro de version, croissant à chaque publication (ajout, suppression ou
+     * modification de tâches depuis l'instantané précédent)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Copies figées des tâches, dans l'ordre de la liste
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+}
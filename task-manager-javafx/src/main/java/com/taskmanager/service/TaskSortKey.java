@@ -0,0 +1,195 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Clés de tri d'une tâche, calculées une seule fois
+ *
+ * Les titres et descriptions deviennent des clés de collation françaises, les dates
+ * des nombres (jour epoch pour l'échéance), les énumérations leur rang. Une comparaison
+ * ne dérive donc plus rien à partir de la tâche. Le numéro de séquence départage les
+ * égalités : l'ordre est total et stable.
+ *
+ * Les clés sont figées au moment du calcul : une tâche modifiée sur place garde sa
+ * position jusqu'au prochain tri. Le calcul d'une clé de collation étant coûteux, un
+ * nouveau tri réutilise celles du tri précédent quand le texte n'a pas changé.
+ */
+final class TaskSortKey {
+
+    private static final long MISSING = Long.MAX_VALUE;
+    private static final int BLOCK_SIZE = 8192;
+
+    final Task task;
+    private final long sequence;
+    private final long[] values;
+    private CollationKey title;
+    private CollationKey description;
+
+    TaskSortKey(Task task, List<SortCriterion> criteria, Collator collator, long sequence) {
+        this(task, criteria, collator, sequence, null);
+    }
+
+    /**
+     * @param previous clé du tri précédent pour la même tâche (peut être null)
+     */
+    TaskSortKey(Task task, List<SortCriterion> criteria, Collator collator, long sequence,
+                TaskSortKey previous) {
+        this(task, task, criteria, collator, sequence, previous);
+    }
+
+    /**
+     * @param values tâche dont les champs sont lus : une copie figée de task quand la
+     *               clé est calculée hors du thread propriétaire
+     */
+    private TaskSortKey(Task task, Task values, List<SortCriterion> criteria, Collator collator, long sequence,
+                        TaskSortKey previous) {
+        this.task = task;
+        this.sequence = sequence;
+        this.values = new long[criteria.size()];
+        for (int i = 0; i < criteria.size(); i++) {
+            Task.Field field = criteria.get(i).getField();
+            if (field == Task.Field.TITLE) {
+                title = collationKey(values.getTitle(), previous != null ? previous.title : null, collator);
+            } else if (field == Task.Field.DESCRIPTION) {
+                description = collationKey(values.getDescription(),
+                        previous != null ? previous.description : null, collator);
+            } else {
+                this.values[i] = value(values, field);
+            }
+        }
+    }
+
+    private static CollationKey collationKey(String text, CollationKey previous, Collator collator) {
+        String source = text != null ? text : "";
+        if (previous != null && previous.getSourceString().equals(source)) {
+            return previous;
+        }
+        return collator.getCollationKey(source);
+    }
+
+    private static long value(Task task, Task.Field field) {
+        switch (field) {
+            case ID:
+                return task.getId();
+            case PRIORITY:
+                return task.getPriority() != null ? task.getPriority().ordinal() : MISSING;
+            case STATUS:
+                return task.getStatus() != null ? task.getStatus().ordinal() : MISSING;
+            case DUE_DATE:
+                return task.getDueDate() != null ? task.getDueDate().toEpochDay() : MISSING;
+            case CREATED_AT:
+                return instant(task.getCreatedAt());
+            case COMPLETED_AT:
+                return instant(task.getCompletedAt());
+            default:
+                throw new IllegalArgumentException("Champ non triable: " + field);
+        }
+    }
+
+    private static long instant(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return MISSING;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    /**
+     * Collateur des titres : ordre alphabétique français, la casse et les accents ne
+     * départagent qu'à égalité de lettres
+     */
+    static Collator newCollator() {
+        return Collator.getInstance(Locale.FRENCH);
+    }
+
+    static Comparator<TaskSortKey> comparator(List<SortCriterion> criteria) {
+        int count = criteria.size();
+        boolean[] ascending = new boolean[count];
+        Task.Field[] fields = new Task.Field[count];
+        for (int i = 0; i < count; i++) {
+            ascending[i] = criteria.get(i).isAscending();
+            fields[i] = criteria.get(i).getField();
+        }
+        return (a, b) -> {
+            for (int i = 0; i < count; i++) {
+                int result;
+                if (fields[i] == Task.Field.TITLE) {
+                    result = a.title.compareTo(b.title);
+                } else if (fields[i] == Task.Field.DESCRIPTION) {
+                    result = a.description.compareTo(b.description);
+                } else {
+                    result = Long.compare(a.values[i], b.values[i]);
+                }
+                if (result != 0) {
+                    return ascending[i] ? result : -result;
+                }
+            }
+            return Long.compare(a.sequence, b.sequence);
+        };
+    }
+
+    /**
+     * Calcule les clés des tâches (dans l'ordre donné, qui sert d'ordre stable) puis les trie
+     */
+    static TaskSortKey[] sort(Task[] tasks, List<SortCriterion> criteria, Collator collator, long firstSequence) {
+        return sort(tasks, tasks, criteria, collator, firstSequence, null, () -> false);
+    }
+
+    /**
+     * Variante interruptible pour le tri en arrière-plan : les clés sont calculées par
+     * blocs en parallèle (un collateur par bloc, il n'est pas partagé entre threads)
+     *
+     * @param copies copies figées des tâches, même ordre : seules elles sont lues, les
+     *               tâches pouvant être modifiées en même temps sur le thread propriétaire
+     * @param previous clés du tri précédent, dont les clés de collation sont réutilisées (peut être null)
+     * @return les clés triées, ou null si le tri a été abandonné
+     */
+    static TaskSortKey[] sort(Task[] tasks, Task[] copies, List<SortCriterion> criteria, Collator collator,
+                              long firstSequence, TaskSortKey[] previous, BooleanSupplier cancelled) {
+        Map<Task, TaskSortKey> previousKeys = new IdentityHashMap<>();
+        if (previous != null && needsCollation(criteria)) {
+            for (TaskSortKey key : previous) {
+                previousKeys.put(key.task, key);
+            }
+        }
+        TaskSortKey[] keys = new TaskSortKey[tasks.length];
+        int blocks = (tasks.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            Collator blockCollator = (Collator) collator.clone();
+            int end = Math.min(tasks.length, (block + 1) * BLOCK_SIZE);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                keys[i] = new TaskSortKey(tasks[i], copies[i], criteria, blockCollator, firstSequence + i,
+                        previousKeys.get(tasks[i]));
+            }
+        });
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+        Arrays.parallelSort(keys, comparator(criteria));
+        return keys;
+    }
+
+    private static boolean needsCollation(List<SortCriterion> criteria) {
+        for (SortCriterion criterion : criteria) {
+            if (criterion.isText()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture en flux d'un tableau JSON de tâches
+ *
+ * Les tâches sont lues une à une avec le JsonParser de Jackson et remises par lots,
+ * sans jamais construire la liste complète en mémoire. Les premiers lots sont
+ * petits pour afficher rapidement les premières lignes, puis leur taille double.
+ */
+class TaskStreamReader {
+
+    // Partagés avec la lecture de l'instantané binaire
+    static final int FIRST_BATCH_SIZE = 256;
+    static final int MAX_BATCH_SIZE = 16_384;
+
+    /**
+     * Reçoit chaque lot lu ainsi que l'avancement (0 à 1) dans le fichier
+     */
+    interface BatchConsumer {
+        void accept(List<Task> batch, double fraction);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    TaskStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Lit le fichier et retourne le nombre de tâches lues
+     */
+    int read(Path file, BatchConsumer consumer) throws IOException {
+        long size = Math.max(1, Files.size(file));
+        int count = 0;
+        int batchSize = FIRST_BATCH_SIZE;
+
+        try (InputStream in = Files.newInputStream(file);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Le fichier " + file.getFileName() + " ne contient pas un tableau de tâches");
+            }
+
+            List<Task> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(objectMapper.readValue(parser, Task.class));
+                count++;
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch, fraction(parser, size));
+                    batchSize = Math.min(batchSize * 2, MAX_BATCH_SIZE);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch, 1.0);
+            }
+        }
+        return count;
+    }
+
+    private static double fraction(JsonParser parser, long size) {
+        return Math.min(1.0, (double) parser.getCurrentLocation().getByteOffset() / size);
+    }
+}
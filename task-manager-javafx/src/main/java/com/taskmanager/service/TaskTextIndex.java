@@ -0,0 +1,358 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Index inversé plein texte sur le titre et la description des tâches
+ *
+ * Le texte est normalisé (minuscules, accents retirés) puis découpé en trigrammes ;
+ * chaque trigramme pointe vers la liste des IDs des tâches qui le contiennent. Une
+ * recherche par sous-chaîne (et donc par préfixe) intersecte les listes des
+ * trigrammes de la requête au lieu de parcourir toutes les tâches.
+ *
+ * Un caractère de fin est ajouté à chaque champ pour que les requêtes de deux
+ * caractères soient aussi servies par l'index. Les requêtes d'un seul caractère ne
+ * le sont pas : {@link #search} retourne alors null.
+ *
+ * Les méthodes sont synchronisées : l'index est modifié par le thread de l'interface
+ * et peut être interrogé par la recherche en arrière-plan (voir {@link LiveSearch}).
+ */
+final class TaskTextIndex {
+
+    private static final int CHAR_BITS = 10;
+    // Les caractères au-delà de OTHER partagent la même valeur : une requête qui en
+    // contient est vérifiée sur le texte réel
+    private static final int OTHER = (1 << CHAR_BITS) - 1;
+    private static final char END = '\0';
+
+    private final IntObjectHashMap<Postings> postings = new IntObjectHashMap<>();
+
+    synchronized void add(Task task) {
+        int id = task.getId();
+        for (int key : keys(task.getTitle(), task.getDescription())) {
+            Postings list = postings.get(key);
+            if (list == null) {
+                list = new Postings();
+                postings.put(key, list);
+            }
+            list.add(id);
+        }
+    }
+
+    synchronized void remove(Task task) {
+        remove(task.getId(), keys(task.getTitle(), task.getDescription()));
+    }
+
+    private void remove(int id, int[] keys) {
+        for (int key : keys) {
+            remove(id, key);
+        }
+    }
+
+    /**
+     * Retire l'ID de la liste du trigramme ; une liste vidée quitte la table
+     */
+    private void remove(int id, int key) {
+        Postings list = postings.get(key);
+        if (list != null && list.remove(id)) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Titre ou description modifié sur place : seuls les trigrammes qui diffèrent sont mis à jour
+     */
+    synchronized void textChanged(int id, String oldTitle, String oldDescription, String newTitle, String newDescription) {
+        int[] oldKeys = keys(oldTitle, oldDescription);
+        int[] newKeys = keys(newTitle, newDescription);
+        int i = 0;
+        int j = 0;
+        while (i < oldKeys.length || j < newKeys.length) {
+            if (j == newKeys.length || (i < oldKeys.length && oldKeys[i] < newKeys[j])) {
+                remove(id, oldKeys[i++]);
+            } else if (i == oldKeys.length || newKeys[j] < oldKeys[i]) {
+                int key = newKeys[j++];
+                Postings list = postings.get(key);
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(key, list);
+                }
+                list.add(id);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Nombre de trigrammes distincts indexés
+     */
+    synchronized int keyCount() {
+        return postings.size();
+    }
+
+    /**
+     * Tâches dont le titre ou la description contient la requête normalisée
+     *
+     * @return les tâches trouvées (ordre quelconque), ou null si la requête est trop
+     * courte pour l'index
+     */
+    List<Task> search(String normalizedQuery, IntFunction<Task> resolver) {
+        int[] ids = candidates(normalizedQuery);
+        if (ids == null) {
+            return null;
+        }
+        boolean verify = !isExact(normalizedQuery);
+        List<Task> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = resolver.apply(id);
+            if (task != null && (!verify || matches(task, normalizedQuery))) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * IDs triés des tâches candidates, ou null si la requête est trop courte pour l'index
+     */
+    synchronized int[] candidates(String normalizedQuery) {
+        if (normalizedQuery.length() < 2) {
+            return null;
+        }
+        return normalizedQuery.length() == 2
+                ? pairCandidates(normalizedQuery)
+                : trigramCandidates(normalizedQuery);
+    }
+
+    /**
+     * Un seul trigramme exact (ou une paire exacte) équivaut à la sous-chaîne : les
+     * candidats n'ont alors pas besoin d'être vérifiés
+     */
+    static boolean isExact(String normalizedQuery) {
+        return normalizedQuery.length() <= 3 && !hasOtherChars(normalizedQuery);
+    }
+
+    /**
+     * Vérifie la sous-chaîne sur le texte réel de la tâche
+     */
+    static boolean matches(Task task, String normalizedQuery) {
+        return TextNormalizer.normalize(task.getTitle()).contains(normalizedQuery) ||
+                TextNormalizer.normalize(task.getDescription()).contains(normalizedQuery);
+    }
+
+    private int[] trigramCandidates(String query) {
+        int[] keys = new int[query.length() - 2];
+        for (int i = 0; i + 2 < query.length(); i++) {
+            keys[i] = key(query.charAt(i), query.charAt(i + 1), query.charAt(i + 2));
+        }
+        keys = unique(keys, keys.length);
+
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null || lists[i].size() == 0) {
+                return new int[0];
+            }
+        }
+        // Intersection en partant de la liste la plus courte
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int[] result = Arrays.copyOf(lists[0].sorted(), lists[0].size());
+        int length = result.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = intersect(result, length, lists[i].sorted(), lists[i].size());
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Requête de deux caractères : union des trigrammes qui commencent par ces caractères
+     */
+    private int[] pairCandidates(String query) {
+        int prefix = (code(query.charAt(0)) << CHAR_BITS | code(query.charAt(1))) << CHAR_BITS;
+        int[] ids = new int[16];
+        int length = 0;
+        for (int third = 0; third <= OTHER; third++) {
+            Postings list = postings.get(prefix | third);
+            if (list == null || list.size() == 0) {
+                continue;
+            }
+            if (length + list.size() > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, length + list.size()));
+            }
+            System.arraycopy(list.sorted(), 0, ids, length, list.size());
+            length += list.size();
+        }
+        return unique(ids, length);
+    }
+
+    private static int intersect(int[] target, int targetLength, int[] other, int otherLength) {
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < targetLength && j < otherLength) {
+            if (target[i] < other[j]) {
+                i++;
+            } else if (target[i] > other[j]) {
+                j++;
+            } else {
+                target[length++] = target[i];
+                i++;
+                j++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Trigrammes distincts et triés du titre et de la description
+     */
+    static int[] keys(String title, String description) {
+        String normalizedTitle = TextNormalizer.normalize(title);
+        String normalizedDescription = TextNormalizer.normalize(description);
+        int[] keys = new int[normalizedTitle.length() + normalizedDescription.length()];
+        int length = fieldKeys(normalizedTitle, keys, 0);
+        length = fieldKeys(normalizedDescription, keys, length);
+        return unique(keys, length);
+    }
+
+    private static int fieldKeys(String text, int[] keys, int offset) {
+        int length = text.length();
+        for (int i = 0; i + 1 < length; i++) {
+            char third = i + 2 < length ? text.charAt(i + 2) : END;
+            keys[offset++] = key(text.charAt(i), text.charAt(i + 1), third);
+        }
+        return offset;
+    }
+
+    private static int key(char first, char second, char third) {
+        return (code(first) << CHAR_BITS | code(second)) << CHAR_BITS | code(third);
+    }
+
+    private static int code(char c) {
+        return Math.min(c, OTHER);
+    }
+
+    private static boolean hasOtherChars(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) >= OTHER) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] unique(int[] values, int length) {
+        if (length == 0) {
+            return new int[0];
+        }
+        Arrays.sort(values, 0, length);
+        int unique = 1;
+        for (int i = 1; i < length; i++) {
+            if (values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, unique);
+    }
+
+    /**
+     * Liste des IDs contenant un trigramme ; triée à la demande
+     *
+     * Les retraits sont différés : ils s'accumulent puis sont soustraits en un seul
+     * passage (tri et fusion) au prochain accès, ou quand ils deviennent nombreux.
+     * Retirer une à une les tâches d'une longue liste ne la décale donc pas à chaque fois.
+     * Un ID retiré puis rajouté (tâche remplacée) apparaît deux fois jusqu'à la fusion,
+     * qui n'en retire qu'une occurrence.
+     */
+    private static final class Postings {
+        private static final int[] NONE = new int[0];
+        private static final int MIN_PENDING = 64;
+
+        private int[] ids = new int[4];
+        private int size;
+        private boolean sorted = true;
+        private int[] removed = NONE;
+        private int removedCount;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size > 0 && ids[size - 1] > id) {
+                sorted = false;
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * @return true si la liste est désormais vide
+         */
+        boolean remove(int id) {
+            if (removedCount == removed.length) {
+                removed = Arrays.copyOf(removed, Math.max(4, removedCount * 2));
+            }
+            removed[removedCount++] = id;
+            // Autant de retraits en attente que d'IDs : la liste est peut-être vide, on le vérifie
+            if (removedCount >= size || (removedCount > MIN_PENDING && removedCount > size / 4)) {
+                compact();
+            }
+            return size == 0;
+        }
+
+        int size() {
+            compact();
+            return size;
+        }
+
+        int[] sorted() {
+            compact();
+            sort();
+            return ids;
+        }
+
+        private void sort() {
+            if (!sorted) {
+                Arrays.sort(ids, 0, size);
+                sorted = true;
+            }
+        }
+
+        private void compact() {
+            if (removedCount == 0) {
+                return;
+            }
+            sort();
+            Arrays.sort(removed, 0, removedCount);
+            int length = 0;
+            int r = 0;
+            for (int i = 0; i < size; i++) {
+                int id = ids[i];
+                while (r < removedCount && removed[r] < id) {
+                    r++;
+                }
+                if (r < removedCount && removed[r] == id) {
+                    r++;
+                    continue;
+                }
+                ids[length++] = id;
+            }
+            size = length;
+            removedCount = 0;
+            removed = NONE;
+            if (ids.length > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Persistance différée (write-behind) des tâches
+ *
+ * Les demandes de sauvegarde ne sérialisent rien sur le thread appelant : un
+ * instantané immuable des tâches est capturé une seule fois à la fin du traitement
+ * en cours (via l'exécuteur de report, Platform.runLater côté interface), puis écrit
+ * par un thread d'arrière-plan. Les rafales de demandes sont regroupées en une
+ * seule écriture : seul le dernier instantané est écrit.
+ *
+ * Toutes les écritures (instantanés et ajouts au journal) passent par le même
+ * thread et s'exécutent donc dans l'ordre où elles ont été demandées.
+ */
+class WriteBehindPersister implements AutoCloseable {
+
+    /**
+     * Cible d'écriture d'un instantané complet
+     */
+    interface SnapshotWriter {
+        void write(List<Task> snapshot) throws IOException;
+    }
+
+    private final SnapshotWriter target;
+    private final Supplier<List<Task>> snapshotSupplier;
+    private final Executor deferral;
+    private final long coalesceMillis;
+    private final ScheduledExecutorService writer;
+
+    private final AtomicBoolean capturePending = new AtomicBoolean();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final AtomicReference<List<Task>> latest = new AtomicReference<>();
+
+    WriteBehindPersister(SnapshotWriter target, Supplier<List<Task>> snapshotSupplier,
+                         Executor deferral, long coalesceMillis) {
+        this.target = target;
+        this.snapshotSupplier = snapshotSupplier;
+        this.deferral = deferral;
+        this.coalesceMillis = coalesceMillis;
+        this.writer = Executors.newSingleThreadScheduledExecutor(ServiceThreads.daemon("task-writer"));
+    }
+
+    /**
+     * Exécuteur du thread d'écriture, pour les écritures qui doivent rester ordonnées
+     *
+     * Un instantané encore en attente de regroupement est écrit avant la tâche
+     * soumise : un ajout au journal ne doit jamais précéder le point de contrôle
+     * demandé avant lui, sinon ce point de contrôle l'effacerait.
+     */
+    Executor orderedExecutor() {
+        return task -> writer.execute(() -> {
+            writeLatest();
+            task.run();
+        });
+    }
+
+    /**
+     * Demande une sauvegarde ; à appeler depuis le thread propriétaire des tâches
+     */
+    void requestSave() {
+        if (capturePending.compareAndSet(false, true)) {
+            deferral.execute(this::captureIfPending);
+        }
+    }
+
+    private void captureIfPending() {
+        if (capturePending.compareAndSet(true, false)) {
+            submit(snapshotSupplier.get());
+        }
+    }
+
+    private void submit(List<Task> snapshot) {
+        latest.set(snapshot);
+        if (writeScheduled.compareAndSet(false, true)) {
+            writer.schedule(this::writeLatest, coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writeLatest() {
+        writeScheduled.set(false);
+        List<Task> snapshot = latest.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            target.write(snapshot);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la sauvegarde des tâches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit immédiatement ce qui est en attente et attend la fin des écritures
+     *
+     * À appeler depuis le thread propriétaire des tâches (fermeture de l'application).
+     */
+    void flush() {
+        captureIfPending();
+        try {
+            writer.submit(this::writeLatest).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur lors de la sauvegarde des tâches: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Vide les écritures en attente puis arrête le thread d'écriture
+     */
+    @Override
+    public void close() {
+        flush();
+        writer.shutdown();
+    }
+}
@@ -4,6 +4,10 @@ module com.taskmanager {
     requires com.fasterxml.jackson.core;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.datatype.jsr310;
+    requires jdk.jfr;
+    requires java.sql;
+    // Pilote JDBC de la base embarquée, chargé par DriverManager
+    requires com.h2database;
 
     exports com.taskmanager;
     exports com.taskmanager.controller;
@@ -0,0 +1,120 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aller-retour du format binaire sur des tâches aléatoires : champs absents, textes
+ * accentués ou hors du plan de base, IDs dans le désordre, horodatages à la nanoseconde
+ */
+class BinarySnapshotCodecTest {
+
+    private static final String[] FRAGMENTS = { "", "a", "Réunion", "ÉCRAN", "ça", "\n", "\"", "日本", "😀", " " };
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(5);
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        for (int round = 0; round < 50; round++) {
+            List<Task> tasks = new ArrayList<>();
+            for (int i = random.nextInt(2_000); i > 0; i--) {
+                tasks.add(randomTask());
+            }
+            Path file = tempDir.resolve("tasks-" + round + ".bin");
+            write(tasks, file);
+
+            List<Task> read = BinarySnapshotCodec.read(file);
+            assertEquals(tasks.size(), read.size(), "nombre de tâches, tour " + round);
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals(values(tasks.get(i)), values(read.get(i)), "tâche " + i + ", tour " + round);
+            }
+        }
+    }
+
+    @Test
+    void corruptedDataIsRejected() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(randomTask());
+        }
+        Path file = tempDir.resolve("tasks.bin");
+        write(tasks, file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = 32 + random.nextInt((int) channel.size() - 32);
+            ByteBuffer octet = ByteBuffer.allocate(1);
+            channel.read(octet, position);
+            octet.put(0, (byte) (octet.get(0) ^ 0x10));
+            octet.rewind();
+            channel.write(octet, position);
+        }
+
+        boolean rejected = false;
+        try {
+            BinarySnapshotCodec.read(file);
+        } catch (IOException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "instantané altéré accepté");
+    }
+
+    private static void write(List<Task> tasks, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinarySnapshotCodec.write(tasks, channel);
+        }
+    }
+
+    private static String values(Task task) {
+        return List.of(task.getId(), String.valueOf(task.getTitle()), String.valueOf(task.getDescription()),
+                String.valueOf(task.getPriority()), String.valueOf(task.getStatus()),
+                String.valueOf(task.getDueDate()), String.valueOf(task.getCreatedAt()),
+                String.valueOf(task.getCompletedAt())).toString();
+    }
+
+    private Task randomTask() {
+        Task task = new Task();
+        task.setId(random.nextInt(5) == 0 ? random.nextInt() : random.nextInt(10_000));
+        task.setTitle(random.nextInt(10) == 0 ? null : randomText());
+        task.setDescription(random.nextInt(4) == 0 ? null : randomText());
+        task.setPriority(random.nextInt(10) == 0 ? null
+                : Task.Priority.values()[random.nextInt(Task.Priority.values().length)]);
+        task.setStatus(random.nextInt(10) == 0 ? null
+                : Task.Status.values()[random.nextInt(Task.Status.values().length)]);
+        task.setDueDate(random.nextInt(3) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(200_000) - 100_000));
+        task.setCreatedAt(random.nextInt(10) == 0 ? null : randomDateTime());
+        task.setCompletedAt(random.nextInt(2) == 0 ? null : randomDateTime());
+        return task;
+    }
+
+    private LocalDateTime randomDateTime() {
+        return LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000));
+    }
+
+    private String randomText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Réimport d'un export JSON avec les doublons écartés
+ */
+class BulkImportTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Thread de l'interface simulé : le test exécute lui-même les tâches remises
+    private final BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+
+    @Test
+    void reimportedExportIsRecognizedAsDuplicates() throws Exception {
+        StorageSettings settings = StorageSettings.defaults()
+                .withDataFile(tempDir.resolve("tasks.json"))
+                .withWatch(false);
+        TaskService service = new TaskService(settings, uiQueue::add);
+        try {
+            drain();
+            for (int i = 0; i < 3; i++) {
+                Task task = new Task(0, "Tâche " + i, null, Task.Priority.MEDIUM, Task.Status.TODO,
+                        i == 0 ? null : LocalDate.of(2024, 6, i));
+                // Création à la nanoseconde, comme une tâche créée dans la session ou lue en binaire
+                task.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0, i, 123_456_789));
+                service.addTask(task);
+            }
+            File export = tempDir.resolve("export.json").toFile();
+            service.exportTasks(export);
+
+            int[] result = new int[2];
+            boolean[] done = new boolean[1];
+            service.importTasksInBackground(List.of(export), true, new BulkImport.Listener() {
+                @Override
+                public void onProgress(int parsedTasks, double fraction) {
+                }
+
+                @Override
+                public void onImported(int importedTasks, int skippedDuplicates) {
+                    result[0] = importedTasks;
+                    result[1] = skippedDuplicates;
+                    done[0] = true;
+                }
+
+                @Override
+                public void onCancelled() {
+                    done[0] = true;
+                }
+
+                @Override
+                public void onFailed(IOException error) {
+                    done[0] = true;
+                }
+            });
+            while (!done[0]) {
+                Runnable next = uiQueue.poll(10, TimeUnit.SECONDS);
+                assertNotNull(next, "import sans réponse");
+                next.run();
+            }
+
+            assertEquals(0, result[0], "tâches importées");
+            assertEquals(3, result[1], "doublons écartés");
+            assertEquals(3, service.getTasks().size());
+        } finally {
+            service.close();
+        }
+    }
+
+    private void drain() {
+        Runnable next;
+        while ((next = uiQueue.poll()) != null) {
+            next.run();
+        }
+    }
+}
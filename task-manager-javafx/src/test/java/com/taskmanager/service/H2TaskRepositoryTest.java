@@ -0,0 +1,56 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Import du fichier de données à la création de la base
+ */
+class H2TaskRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importsTasksHeldOnlyInJournal() throws IOException {
+        StorageSettings settings = StorageSettings.defaults()
+                .withDataFile(tempDir.resolve("tasks.json"))
+                .withJournal(FsyncPolicy.ALWAYS, 0)
+                .withWatch(false)
+                .withDatabase(tempDir.resolve("tasks"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        SnapshotStore store = new SnapshotStore(settings.getDataFile(), objectMapper, settings.getSnapshotFormat());
+
+        // Aucun instantané : les tâches ne sont que dans le journal
+        try (TaskJournal journal = new TaskJournal(settings, store, objectMapper, Runnable::run,
+                new ServiceMetrics().counter("journal", MetricUnit.BYTES))) {
+            for (int id = 1; id <= 2_500; id++) {
+                journal.appendPut(new Task(id, "Tâche " + id, null, Task.Priority.MEDIUM, Task.Status.TODO,
+                        LocalDate.of(2024, 1, 1).plusDays(id % 90)));
+            }
+            journal.appendPut(new Task(7, "Modifiée", "après coup", Task.Priority.HIGH, Task.Status.COMPLETED, null));
+            journal.appendDelete(8);
+        }
+        assertFalse(store.exists());
+
+        try (H2TaskRepository repository = H2TaskRepository.open(settings)) {
+            assertEquals(2_499, repository.count(TaskQuery.all()));
+            assertEquals("Tâche 1", repository.findById(1).getTitle());
+            assertEquals("Modifiée", repository.findById(7).getTitle());
+            assertEquals(Task.Status.COMPLETED, repository.findById(7).getStatus());
+            assertNull(repository.findById(8));
+        }
+    }
+}
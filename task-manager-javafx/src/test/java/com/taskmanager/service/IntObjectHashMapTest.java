@@ -0,0 +1,54 @@
+package com.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Table à clés int comparée à une HashMap, suppressions comprises : une clé d'une
+ * grappe ne doit jamais devenir inaccessible après le retrait d'une voisine
+ */
+class IntObjectHashMapTest {
+
+    @Test
+    void behavesLikeHashMapThroughRandomPutsAndRemoves() {
+        Random random = new Random(7);
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            // Plage étroite : collisions et grappes longues
+            int key = random.nextInt(4_000) - 2_000;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, step);
+                expected.put(key, step);
+            }
+            if (step % 997 == 0) {
+                for (int probe = -2_000; probe < 2_000; probe++) {
+                    assertEquals(expected.get(probe), map.get(probe), "clé " + probe);
+                }
+            }
+            assertEquals(expected.size(), map.size());
+        }
+    }
+
+    @Test
+    void removingMissingKeyChangesNothing() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "un");
+        map.remove(2);
+        assertEquals(1, map.size());
+        assertEquals("un", map.get(1));
+        map.remove(1);
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+    }
+}
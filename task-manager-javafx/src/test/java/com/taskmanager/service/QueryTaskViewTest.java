@@ -0,0 +1,165 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Vue d'une requête comparée à un parcours de la liste, et ses notifications rejouées
+ * sur une copie, à travers une suite aléatoire de requêtes et de modifications
+ */
+class QueryTaskViewTest {
+
+    private static final String[] WORDS = { "réunion", "rapport", "budget", "café", "projet" };
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(17);
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void viewMatchesScanAndNotifications() {
+        StorageSettings settings = StorageSettings.defaults()
+                .withDataFile(tempDir.resolve("tasks.json"))
+                .withWatch(false);
+        TaskService service = new TaskService(settings, Runnable::run);
+        service.loadTasks();
+        for (int i = 0; i < 1_000; i++) {
+            service.addTask(randomTask());
+        }
+
+        QueryTaskView view = new QueryTaskView(service);
+        List<Task> replayed = new ArrayList<>(view);
+        view.addListener((ListChangeListener<Task>) change -> replay(change, replayed));
+        try {
+            for (int step = 0; step < 3_000; step++) {
+                if (random.nextInt(20) == 0) {
+                    TaskQuery query = TaskQuery.all().where(randomFilter());
+                    if (random.nextBoolean()) {
+                        view.setQuery(query);
+                    } else {
+                        // Résultat fourni tout fait, comme celui de la recherche en arrière-plan
+                        List<Task> matches = new ArrayList<>(service.query(query));
+                        Collections.shuffle(matches, random);
+                        view.setQuery(query, matches);
+                    }
+                } else {
+                    edit(service);
+                }
+                check(service, view, replayed, "étape " + step + ", " + view.getQuery());
+            }
+        } finally {
+            view.close();
+            service.close();
+        }
+    }
+
+    private void check(TaskService service, QueryTaskView view, List<Task> replayed, String context) {
+        List<Task> expected = new ArrayList<>();
+        for (Task task : service.getTasks()) {
+            if (view.getQuery().matches(task)) {
+                expected.add(task);
+            }
+        }
+        assertEquals(expected.size(), view.size(), context);
+        assertEquals(expected.size(), replayed.size(), "notifications, " + context);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), view.get(i), context);
+            assertSame(expected.get(i), replayed.get(i), "notifications, " + context);
+        }
+    }
+
+    private static void replay(ListChangeListener.Change<? extends Task> change, List<Task> replayed) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                List<Task> moved = new ArrayList<>(replayed.subList(change.getFrom(), change.getTo()));
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    replayed.set(change.getPermutation(i), moved.get(i - change.getFrom()));
+                }
+            } else if (!change.wasUpdated()) {
+                replayed.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                replayed.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        }
+    }
+
+    private void edit(TaskService service) {
+        ObservableList<Task> tasks = service.getTasks();
+        int operation = random.nextInt(100);
+        if (operation < 25 || tasks.isEmpty()) {
+            service.addTask(randomTask());
+        } else if (operation < 45) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            task.setStatus(randomStatus());
+            task.setDueDate(randomDate());
+            service.updateTask(task);
+        } else if (operation < 65) {
+            Task replacement = randomTask();
+            replacement.setId(tasks.get(random.nextInt(tasks.size())).getId());
+            service.updateTask(replacement);
+        } else if (operation < 85) {
+            service.deleteTask(tasks.get(random.nextInt(tasks.size())).getId());
+        } else if (operation < 97) {
+            // Suppression groupée : plusieurs sous-changements dans une même notification
+            List<Task> removed = new ArrayList<>();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                removed.add(tasks.get(random.nextInt(tasks.size())));
+            }
+            tasks.removeAll(removed);
+        } else if (operation < 99) {
+            FXCollections.sort(tasks, Comparator.comparing(Task::getTitle));
+        } else {
+            service.clearAllTasks();
+        }
+    }
+
+    private TaskFilter randomFilter() {
+        switch (random.nextInt(7)) {
+            case 0:
+                return TaskFilter.all();
+            case 1:
+                return TaskFilter.status(randomStatus());
+            case 2:
+                return TaskFilter.overdue();
+            case 3:
+                return TaskFilter.dueToday().or(TaskFilter.priority(Task.Priority.HIGH));
+            case 4:
+                return TaskFilter.text(WORDS[random.nextInt(WORDS.length)].substring(0, 3));
+            case 5:
+                return TaskFilter.open().and(TaskFilter.dueBetween(today, null));
+            default:
+                return TaskFilter.id(1 + random.nextInt(1_500));
+        }
+    }
+
+    private Task randomTask() {
+        Task task = new Task(0, WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(100), "",
+                Task.Priority.values()[random.nextInt(Task.Priority.values().length)], Task.Status.TODO,
+                randomDate());
+        task.setStatus(randomStatus());
+        return task;
+    }
+
+    private Task.Status randomStatus() {
+        return Task.Status.values()[random.nextInt(Task.Status.values().length)];
+    }
+
+    private LocalDate randomDate() {
+        return random.nextInt(4) == 0 ? null : today.plusDays(random.nextInt(11) - 5);
+    }
+}
@@ -0,0 +1,193 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rechargement par l'instantané et le journal comparé à l'état attendu, après une
+ * suite aléatoire d'ajouts, de modifications, de suppressions et d'effacements
+ * répartie sur plusieurs sessions
+ */
+class TaskJournalTest {
+
+    private static final int SESSIONS = 4;
+    private static final int MUTATIONS_PER_SESSION = 1_500;
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(3);
+
+    @Test
+    void reloadMatchesModelAcrossSessions() throws IOException {
+        StorageSettings settings = settings(SnapshotFormat.JSON);
+        Map<Integer, String> expected = null;
+
+        for (int session = 0; session < SESSIONS; session++) {
+            TaskService service = open(settings);
+            if (expected != null) {
+                assertSameState(expected, state(service), "rechargement de la session " + session);
+            }
+            expected = state(service);
+            mutate(service, expected);
+            assertSameState(expected, state(service), "état en mémoire de la session " + session);
+            service.close();
+        }
+
+        TaskService reloaded = open(settings);
+        try {
+            assertSameState(expected, state(reloaded), "rechargement final");
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    void truncatedLastRecordIsIgnored() throws IOException {
+        StorageSettings settings = settings(SnapshotFormat.BINARY);
+        TaskService service = open(settings);
+        Map<Integer, String> expected = state(service);
+        mutate(service, expected);
+        service.close();
+
+        // Arrêt brutal au milieu d'un enregistrement
+        Files.write(settings.getJournalFile(), "{\"op\":\"put\",\"task\":{\"id\":99".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        TaskService reloaded = open(settings);
+        try {
+            assertSameState(expected, state(reloaded), "rechargement");
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    private StorageSettings settings(SnapshotFormat format) {
+        return StorageSettings.defaults()
+                .withDataFile(tempDir.resolve(format == SnapshotFormat.BINARY ? "tasks.bin" : "tasks.json"))
+                .withSnapshotFormat(format)
+                .withJournal(FsyncPolicy.ALWAYS, 0)
+                .withWatch(false);
+    }
+
+    private static TaskService open(StorageSettings settings) {
+        TaskService service = new TaskService(settings, Runnable::run);
+        service.loadTasks();
+        return service;
+    }
+
+    /**
+     * Applique des mutations aléatoires au service et, en parallèle, au modèle attendu
+     */
+    private void mutate(TaskService service, Map<Integer, String> expected) {
+        for (int i = 0; i < MUTATIONS_PER_SESSION; i++) {
+            List<Task> tasks = service.getTasks();
+            int operation = random.nextInt(100);
+            if (operation < 40 || tasks.isEmpty()) {
+                Task task = randomTask();
+                service.addTask(task);
+                expected.put(task.getId(), values(task));
+            } else if (operation < 65) {
+                Task replacement = randomTask();
+                replacement.setId(tasks.get(random.nextInt(tasks.size())).getId());
+                service.updateTask(replacement);
+                expected.put(replacement.getId(), values(replacement));
+            } else if (operation < 85) {
+                // Modification en place puis enregistrement, comme le formulaire d'édition
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                task.setStatus(randomStatus());
+                task.setTitle(randomText());
+                service.updateTask(task);
+                expected.put(task.getId(), values(task));
+            } else if (operation < 99) {
+                int id = tasks.get(random.nextInt(tasks.size())).getId();
+                service.deleteTask(id);
+                expected.remove(id);
+            } else {
+                service.clearAllTasks();
+                expected.clear();
+            }
+        }
+    }
+
+    /**
+     * Comparaison des états ; le message ne cite que les tâches qui diffèrent
+     */
+    private static void assertSameState(Map<Integer, String> expected, Map<Integer, String> actual, String context) {
+        Map<Integer, String> differences = new TreeMap<>();
+        for (Integer id : expected.keySet()) {
+            if (!expected.get(id).equals(actual.get(id))) {
+                differences.put(id, expected.get(id) + " au lieu de " + actual.get(id));
+            }
+        }
+        for (Integer id : actual.keySet()) {
+            if (!expected.containsKey(id)) {
+                differences.put(id, "inattendue " + actual.get(id));
+            }
+        }
+        assertEquals(Map.of(), differences, context);
+    }
+
+    private static Map<Integer, String> state(TaskService service) {
+        Map<Integer, String> state = new TreeMap<>();
+        for (Task task : service.getTasks()) {
+            state.put(task.getId(), values(task));
+        }
+        return state;
+    }
+
+    private static String values(Task task) {
+        List<Object> values = new ArrayList<>();
+        values.add(task.getTitle());
+        values.add(task.getDescription());
+        values.add(task.getPriority());
+        values.add(task.getStatus());
+        values.add(task.getDueDate());
+        // Le format JSON des enregistrements garde les dates à la seconde
+        values.add(seconds(task.getCreatedAt()));
+        values.add(seconds(task.getCompletedAt()));
+        return values.toString();
+    }
+
+    private static LocalDateTime seconds(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    private Task randomTask() {
+        LocalDate dueDate = random.nextInt(4) == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(random.nextInt(400));
+        Task task = new Task(0, randomText(), random.nextInt(5) == 0 ? null : randomText(),
+                Task.Priority.values()[random.nextInt(Task.Priority.values().length)], Task.Status.TODO, dueDate);
+        task.setStatus(randomStatus());
+        return task;
+    }
+
+    private Task.Status randomStatus() {
+        return Task.Status.values()[random.nextInt(Task.Status.values().length)];
+    }
+
+    private String randomText() {
+        String alphabet = "abcéèà ÉÇ\"\\{}\n";
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(15); i > 0; i--) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Requêtes évaluées par index comparées à un parcours de toute la liste, sur des
+ * conditions ET/OU aléatoires et une liste modifiée entre deux séries de requêtes
+ */
+class TaskQueryPlannerTest {
+
+    private static final int TASKS = 3_000;
+    private static final int ROUNDS = 40;
+    private static final int QUERIES_PER_ROUND = 50;
+    private static final String[] WORDS = { "réunion", "rapport", "Budget", "café", "écran", "projet", "client" };
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(11);
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void queryMatchesFullScanThroughRandomEdits() {
+        StorageSettings settings = StorageSettings.defaults()
+                .withDataFile(tempDir.resolve("tasks.json"))
+                .withWatch(false);
+        TaskService service = new TaskService(settings, Runnable::run);
+        try {
+            service.loadTasks();
+            for (int i = 0; i < TASKS; i++) {
+                service.addTask(randomTask());
+            }
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < QUERIES_PER_ROUND; i++) {
+                    checkQuery(service, randomFilter(3));
+                }
+                edit(service);
+            }
+        } finally {
+            service.close();
+        }
+    }
+
+    private void checkQuery(TaskService service, TaskFilter filter) {
+        TaskFilter resolved = filter.atDay(service.today());
+        List<Integer> expected = new ArrayList<>();
+        for (Task task : service.getTasks()) {
+            if (resolved.matches(task)) {
+                expected.add(task.getId());
+            }
+        }
+        List<Integer> found = new ArrayList<>();
+        for (Task task : service.query(TaskQuery.all().where(filter))) {
+            found.add(task.getId());
+        }
+        assertEquals(expected, found, filter + " (" + service.explain(TaskQuery.all().where(filter)) + ")");
+    }
+
+    /**
+     * Modifications en place, remplacements, suppressions et ajouts
+     */
+    private void edit(TaskService service) {
+        List<Task> tasks = service.getTasks();
+        for (int i = 0; i < 200; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            switch (random.nextInt(6)) {
+                case 0:
+                    task.setStatus(randomStatus());
+                    break;
+                case 1:
+                    task.setPriority(randomPriority());
+                    break;
+                case 2:
+                    task.setDueDate(randomDate());
+                    break;
+                case 3:
+                    task.setTitle(randomText());
+                    break;
+                case 4:
+                    Task replacement = randomTask();
+                    replacement.setId(task.getId());
+                    service.updateTask(replacement);
+                    break;
+                default:
+                    service.deleteTask(task.getId());
+                    service.addTask(randomTask());
+                    break;
+            }
+        }
+    }
+
+    private TaskFilter randomFilter(int depth) {
+        int choice = random.nextInt(depth > 0 ? 13 : 11);
+        switch (choice) {
+            case 0:
+                return TaskFilter.id(1 + random.nextInt(TASKS + 2_000));
+            case 1:
+                return TaskFilter.status(randomStatus());
+            case 2:
+                return TaskFilter.open();
+            case 3:
+                return TaskFilter.priority(randomPriority());
+            case 4:
+                return TaskFilter.dueBetween(randomBound(), randomBound());
+            case 5:
+                return TaskFilter.createdBetween(randomBound(), randomBound());
+            case 6:
+                return TaskFilter.completedBetween(randomBound(), randomBound());
+            case 7:
+                return TaskFilter.text(randomQuery());
+            case 8:
+                return TaskFilter.overdue();
+            case 9:
+                return TaskFilter.dueToday();
+            case 10:
+                return TaskFilter.all();
+            case 11:
+                return randomFilter(depth - 1).and(randomFilter(depth - 1));
+            default:
+                return randomFilter(depth - 1).or(randomFilter(depth - 1));
+        }
+    }
+
+    private Task randomTask() {
+        Task task = new Task(0, randomText(), randomText(), randomPriority(), Task.Status.TODO, randomDate());
+        task.setCreatedAt(today.plusDays(random.nextInt(21) - 20).atTime(random.nextInt(24), 0));
+        task.setStatus(randomStatus());
+        return task;
+    }
+
+    private Task.Status randomStatus() {
+        Task.Status[] values = Task.Status.values();
+        return values[random.nextInt(values.length)];
+    }
+
+    private Task.Priority randomPriority() {
+        Task.Priority[] values = Task.Priority.values();
+        return values[random.nextInt(values.length)];
+    }
+
+    private LocalDate randomDate() {
+        return random.nextInt(5) == 0 ? null : today.plusDays(random.nextInt(41) - 20);
+    }
+
+    private LocalDate randomBound() {
+        return random.nextInt(4) == 0 ? null : today.plusDays(random.nextInt(41) - 20);
+    }
+
+    private String randomText() {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String randomQuery() {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        int start = random.nextInt(word.length() - 1);
+        return word.substring(start, start + 1 + random.nextInt(word.length() - start));
+    }
+}
@@ -0,0 +1,140 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Index plein texte comparé à une recherche exhaustive, sur une suite aléatoire
+ * d'ajouts, de suppressions et de renommages
+ */
+class TaskTextIndexTest {
+
+    // Petit alphabet : beaucoup de trigrammes partagés, de listes vidées puis recréées
+    private static final String ALPHABET = "abcdeéèàç ABCÉ-";
+    private static final int STEPS = 300_000;
+    private static final int CHECK_EVERY = 1_000;
+    private static final int KEY_COUNT_EVERY = 25_000;
+    // Au-delà, on retire plutôt qu'ajouter : la vérification exhaustive reste rapide
+    private static final int MAX_TASKS = 3_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void searchMatchesBruteForceThroughRandomEdits() {
+        TaskTextIndex index = new TaskTextIndex();
+        Map<Integer, Task> live = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        int nextId = 1;
+
+        for (int step = 1; step <= STEPS; step++) {
+            int operation = random.nextInt(10);
+            if (ids.size() >= MAX_TASKS && operation < 4) {
+                operation = 4;
+            }
+            if (operation < 4 || ids.isEmpty()) {
+                Task task = new Task(nextId, text(), text(), Task.Priority.MEDIUM, Task.Status.TODO, null);
+                index.add(task);
+                live.put(nextId, task);
+                ids.add(nextId++);
+            } else if (operation < 7) {
+                Task task = live.remove(ids.remove(random.nextInt(ids.size())));
+                index.remove(task);
+            } else {
+                Task task = live.get(ids.get(random.nextInt(ids.size())));
+                String oldTitle = task.getTitle();
+                String oldDescription = task.getDescription();
+                if (random.nextBoolean()) {
+                    task.setTitle(text());
+                } else {
+                    task.setDescription(text());
+                }
+                index.textChanged(task.getId(), oldTitle, oldDescription, task.getTitle(), task.getDescription());
+            }
+
+            if (step % CHECK_EVERY == 0) {
+                for (int i = 0; i < 5; i++) {
+                    checkQuery(index, live, query());
+                }
+            }
+            if (step % KEY_COUNT_EVERY == 0) {
+                assertEquals(distinctKeys(live), index.keyCount(), "trigrammes indexés à l'étape " + step);
+            }
+        }
+
+        for (Task task : live.values()) {
+            index.remove(task);
+        }
+        assertEquals(0, index.keyCount(), "trigrammes restants une fois toutes les tâches retirées");
+    }
+
+    @Test
+    void singleCharacterQueriesAreNotServed() {
+        TaskTextIndex index = new TaskTextIndex();
+        index.add(new Task(1, "abc", "", Task.Priority.LOW, Task.Status.TODO, null));
+        assertNull(index.candidates("a"));
+        assertNull(index.search("a", id -> null));
+    }
+
+    private void checkQuery(TaskTextIndex index, Map<Integer, Task> live, String query) {
+        Set<Integer> expected = new TreeSet<>();
+        for (Task task : live.values()) {
+            if (TaskTextIndex.matches(task, query)) {
+                expected.add(task.getId());
+            }
+        }
+        Set<Integer> found = new TreeSet<>();
+        for (Task task : index.search(query, live::get)) {
+            found.add(task.getId());
+        }
+        assertEquals(expected, found, "recherche « " + query + " »");
+
+        Set<Integer> candidates = new TreeSet<>();
+        for (int id : index.candidates(query)) {
+            candidates.add(id);
+        }
+        assertTrue(candidates.containsAll(expected), "candidats de « " + query + " »");
+        if (TaskTextIndex.isExact(query)) {
+            assertEquals(expected, candidates, "candidats exacts de « " + query + " »");
+        }
+    }
+
+    private static int distinctKeys(Map<Integer, Task> live) {
+        Set<Integer> keys = new HashSet<>();
+        for (Task task : live.values()) {
+            for (int key : TaskTextIndex.keys(task.getTitle(), task.getDescription())) {
+                keys.add(key);
+            }
+        }
+        return keys.size();
+    }
+
+    private String text() {
+        int length = random.nextInt(12);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private String query() {
+        String query;
+        do {
+            query = TextNormalizer.normalize(text()).trim();
+        } while (query.length() < 2 || query.length() > 5);
+        return query;
+    }
+}